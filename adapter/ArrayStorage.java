@@ -0,0 +1,199 @@
+package adapter;
+
+import java.util.Arrays;
+
+/**
+ * ListStorage backed by a growable Object array. It takes no locks, so it must be confined to a single thread (or externally synchronized). The fields are package-private so that the ListAdapter iterators can walk the array directly.
+ */
+
+class ArrayStorage extends ListStorage {
+
+    /**
+     * Capacity of the array allocated by the first insertion.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Largest array that the VM can reliably allocate.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    Object[] elementData = new Object[0];
+    int elementCount = 0;
+
+    int size() {
+        return elementCount;
+    }
+
+    Object get(int index) {
+        if(index < 0 || index >= elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return elementData[index];
+    }
+
+    Object set(int index, Object o) {
+        if(index < 0 || index >= elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        Object old = elementData[index];
+        elementData[index] = o;
+        return old;
+    }
+
+    void add(Object o) {
+        if(elementCount == elementData.length) {
+            grow(elementCount + 1);
+        }
+        elementData[elementCount++] = o;
+    }
+
+    void add(int index, Object o) {
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(elementCount == elementData.length) {
+            grow(elementCount + 1);
+        }
+        System.arraycopy(elementData, index, elementData, index + 1, elementCount - index);
+        elementData[index] = o;
+        elementCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The array is grown at most once, then the tail is moved with a single arraycopy and the elements are copied into the gap. If the elements come from this storage's array they're copied first, so that moving the tail doesn't overwrite them.
+     */
+    void addAll(int index, Object[] a, int count) {
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(count == 0) {
+            return;
+        }
+        if(a == elementData) {
+            a = Arrays.copyOf(a, count);
+        }
+        if(elementCount + count > elementData.length) {
+            grow(elementCount + count);
+        }
+        System.arraycopy(elementData, index, elementData, index + count, elementCount - index);
+        System.arraycopy(a, 0, elementData, index, count);
+        elementCount += count;
+    }
+
+    Object remove(int index) {
+        if(index < 0 || index >= elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        Object o = elementData[index];
+        fastRemove(index);
+        return o;
+    }
+
+    int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+        Object[] a = elementData;
+        int r = fromIndex;
+        int w = fromIndex;
+        try {
+            for(; r < toIndex; r++) {
+                Object o = a[r];
+                if(!filter.test(o)) {
+                    a[w++] = o;
+                }
+            }
+        }
+        finally {
+            if(w != r) {
+                removeRange(w, r);
+            }
+        }
+        return r - w;
+    }
+
+    void removeRange(int fromIndex, int toIndex) {
+        int n = elementCount;
+        System.arraycopy(elementData, toIndex, elementData, fromIndex, n - toIndex);
+        Arrays.fill(elementData, n - (toIndex - fromIndex), n, null);
+        elementCount = n - (toIndex - fromIndex);
+    }
+
+    boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index < 0) {
+            return false;
+        }
+        fastRemove(index);
+        return true;
+    }
+
+    int indexOf(Object o) {
+        for(int i = 0; i < elementCount; i++) {
+            if(o.equals(elementData[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int lastIndexOf(Object o) {
+        for(int i = elementCount - 1; i >= 0; i--) {
+            if(o.equals(elementData[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int indexOf(Object o, int fromIndex, int toIndex) {
+        int n = Math.min(toIndex, elementCount);
+        for(int i = fromIndex; i < n; i++) {
+            if(o.equals(elementData[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int lastIndexOf(Object o, int fromIndex, int toIndex) {
+        for(int i = Math.min(toIndex, elementCount) - 1; i >= fromIndex; i--) {
+            if(o.equals(elementData[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void clear() {
+        Arrays.fill(elementData, 0, elementCount, null);
+        elementCount = 0;
+    }
+
+    Object[] toArray() {
+        return Arrays.copyOf(elementData, elementCount);
+    }
+
+    /**
+     * Removes the element at a valid index, shifting the tail once and clearing the freed slot.
+     */
+    private void fastRemove(int index) {
+        int moved = elementCount - index - 1;
+        if(moved > 0) {
+            System.arraycopy(elementData, index + 1, elementData, index, moved);
+        }
+        elementData[--elementCount] = null;
+    }
+
+    /**
+     * Grows the array by half of its length (or to the requested capacity, if larger).
+     */
+    private void grow(int minCapacity) {
+        if(minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError();
+        }
+        long newCapacity = Math.max((long) elementData.length + (elementData.length >> 1), (long) DEFAULT_CAPACITY);
+        newCapacity = Math.min(Math.max(newCapacity, minCapacity), MAX_CAPACITY);
+        elementData = Arrays.copyOf(elementData, (int) newCapacity);
+    }
+
+}
@@ -0,0 +1,121 @@
+package adapter;
+
+/**
+ * Skeleton of a collection which is a view of another structure (such as the values of a map) and keeps no elements of its own. The subclasses provide size(), contains(Object), iterator(), remove(Object) and removeIf(HPredicate), which go to the backing structure; the view itself carries no storage, so it can be created once and handed out at every call.
+ */
+
+abstract class CollectionView implements HCollection {
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation always throws UnsupportedOperationException, as elements can't be added to a view.
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public boolean add(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation always throws UnsupportedOperationException, as elements can't be added to a view.
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    public boolean addAll(HCollection c) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the collection and checks if its elements are all contained in the view using contains(Object).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean containsAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        HIterator it = c.iterator();
+        while(it.hasNext()) {
+            if(!contains(it.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the characteristics (constants of java.util.Spliterator) which the streams of the view report besides those StreamSpliterator.of(HCollection) finds by itself. A view which returns CONCURRENT is weakly consistent, so its streams report no size: the backing structure may change while they run.
+     * @return the additional characteristics of the streams of the view (0 unless overridden).
+     */
+    int streamCharacteristics() {
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks if size() is 0.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements contained in the collection. If the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean removeAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements not contained in the collection, looked up as in removeAll(HCollection).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean retainAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), false));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the view and adds the elements returned by next() to the array. The length of the array is equal to the number of elements returned, which is the size of the view unless the backing structure is changed concurrently.
+     */
+    public Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the view and adds the elements returned by next() to the array. The length of the array is equal to the one of the array passed as the parameter, if it's at least the number of elements returned; the elements whose index is greater or equal to that number are set to null. The array is sized with size() and grown or trimmed only if the backing structure is changed concurrently while iterating.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public Object[] toArray(Object[] a) {
+        if(a == null) {
+            throw new NullPointerException();
+        }
+        Object[] v = new Object[Math.max(a.length, size())];
+        HIterator it = iterator();
+        int n = 0;
+        while(it.hasNext()) {
+            if(n == v.length) {
+                Object[] w = new Object[n * 2 + 1];
+                System.arraycopy(v, 0, w, 0, n);
+                v = w;
+            }
+            v[n++] = it.next();
+        }
+        if(v.length != Math.max(a.length, n)) {
+            Object[] w = new Object[Math.max(a.length, n)];
+            System.arraycopy(v, 0, w, 0, n);
+            v = w;
+        }
+        return v;
+    }
+
+}
@@ -0,0 +1,677 @@
+package adapter;
+
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map (interface HMap) which can be shared between threads without a single lock: the mappings are spread over segments, each a chained hash table with its own lock, so that updates of keys in different segments proceed in parallel. Lookups take no lock at all: the nodes of a chain never change their key and their link, a removal copies the nodes preceding the removed one, and the bins and the values are read with volatile semantics, so a reader always sees a consistent chain. This implementation does not allow null keys and values.
+ * <p>The number of mappings of each segment is kept by the segment itself, under its lock, and size() adds them up without locking, so no counter is shared by all the writers. For the same reason, size(), isEmpty(), equals(Object) and hashCode() return an estimate when other threads are updating the map.
+ * <p>The iterators of the views are weakly consistent: they never throw ConcurrentModificationException, they return every mapping which was in the map when they were created and wasn't removed before being reached, and they may or may not return the mappings added in the meantime. Each segment is walked on the table it had when the iterator reached it.
+ */
+
+public class ConcurrentMapAdapter implements HMap {
+
+    /**
+     * Number of segments of a map constructed without a concurrency level.
+     */
+    private static final int DEFAULT_CONCURRENCY = 16;
+
+    /**
+     * Largest number of segments.
+     */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * Length of the table of an empty segment.
+     */
+    private static final int MIN_CAPACITY = 2;
+
+    /**
+     * Length of the largest table of a segment (a power of two).
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Kind of the NodeIterator which returns the nodes themselves, used internally besides the kinds of the views (SlotSpliterator.KEYS, VALUES and ENTRIES).
+     */
+    private static final int NODES = -1;
+
+    private final Segment[] segments;
+
+    /**
+     * Number of bits the hash is shifted by to choose the segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * Views of the map, created at the first call of entrySet(), keySet() and values(). They hold no state but the final reference to the map, so they can be published without locking, and a race between two first calls only creates one more view.
+     */
+    private HSet entrySet = null;
+    private HSet keySet = null;
+    private HCollection values = null;
+
+    /**
+     * Constructs an empty map with 16 segments.
+     */
+    public ConcurrentMapAdapter() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Constructs an empty map with enough segments to be updated by the specified number of threads without contention (the number of segments is rounded up to a power of two).
+     * @param concurrencyLevel the expected number of threads updating the map at the same time.
+     * @throws IllegalArgumentException if concurrencyLevel isn't positive.
+     */
+    public ConcurrentMapAdapter(int concurrencyLevel) {
+        if(concurrencyLevel <= 0) {
+            throw new IllegalArgumentException();
+        }
+        int n = 1;
+        int bits = 0;
+        while(n < concurrencyLevel && n < MAX_SEGMENTS) {
+            n <<= 1;
+            bits++;
+        }
+        segments = new Segment[n];
+        for(int i = 0; i < n; i++) {
+            segments[i] = new Segment();
+        }
+        segmentShift = 32 - bits;
+    }
+
+    /**
+     * Node of a chain. The key, the hash and the link never change, so that lock-free readers always walk a consistent chain; the value is volatile so that a put on an existing key is seen by the readers.
+     */
+    private static final class Node {
+
+        final int hash;
+        final Object key;
+        volatile Object value;
+        final Node next;
+
+        Node(int hash, Object key, Object value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+    }
+
+    /**
+     * Chained hash table guarded by its own monitor. The table reference is volatile and its bins are written with volatile semantics, so that lookups don't need the monitor.
+     */
+    private static final class Segment {
+
+        volatile AtomicReferenceArray table = new AtomicReferenceArray(MIN_CAPACITY);
+
+        /**
+         * Number of mappings, written only under the monitor.
+         */
+        volatile int count = 0;
+
+        Object get(Object key, int hash) {
+            AtomicReferenceArray t = table;
+            Node e = (Node) t.get(hash & (t.length() - 1));
+            for(; e != null; e = e.next) {
+                if(e.hash == hash && key.equals(e.key)) {
+                    return e.value;
+                }
+            }
+            return null;
+        }
+
+        synchronized Object put(Object key, int hash, Object value) {
+            AtomicReferenceArray t = table;
+            int i = hash & (t.length() - 1);
+            Node first = (Node) t.get(i);
+            for(Node e = first; e != null; e = e.next) {
+                if(e.hash == hash && key.equals(e.key)) {
+                    Object old = e.value;
+                    e.value = value;
+                    return old;
+                }
+            }
+            t.set(i, new Node(hash, key, value, first));
+            int c = count + 1;
+            if(c > t.length() - (t.length() >> 2) && t.length() < MAX_CAPACITY) {
+                rehash(t);
+            }
+            count = c;
+            return null;
+        }
+
+        /**
+         * Removes the mapping of the key; if expected isn't null, only if the key is mapped to an equal value. The nodes preceding the removed one are copied, as the links can't change.
+         */
+        synchronized Object remove(Object key, int hash, Object expected) {
+            AtomicReferenceArray t = table;
+            int i = hash & (t.length() - 1);
+            Node first = (Node) t.get(i);
+            Node e = first;
+            while(e != null && (e.hash != hash || !key.equals(e.key))) {
+                e = e.next;
+            }
+            if(e == null) {
+                return null;
+            }
+            Object old = e.value;
+            if(expected != null && !expected.equals(old)) {
+                return null;
+            }
+            Node head = e.next;
+            for(Node p = first; p != e; p = p.next) {
+                head = new Node(p.hash, p.key, p.value, head);
+            }
+            t.set(i, head);
+            count = count - 1;
+            return old;
+        }
+
+        synchronized void clear() {
+            if(count != 0) {
+                table = new AtomicReferenceArray(MIN_CAPACITY);
+                count = 0;
+            }
+        }
+
+        /**
+         * Copies the chains to a table twice as long and publishes it. The old table is left untouched, so that the readers still walking it see every mapping.
+         */
+        private void rehash(AtomicReferenceArray old) {
+            AtomicReferenceArray t = new AtomicReferenceArray(old.length() << 1);
+            int mask = t.length() - 1;
+            for(int j = 0; j < old.length(); j++) {
+                for(Node e = (Node) old.get(j); e != null; e = e.next) {
+                    int i = e.hash & mask;
+                    t.set(i, new Node(e.hash, e.key, e.value, (Node) t.get(i)));
+                }
+            }
+            table = t;
+        }
+
+    }
+
+    /**
+     * Spreads the bits of the hashcode of the key, so that both the high bits (choosing the segment) and the low bits (choosing the bin) depend on all of them.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation clears the segments one at a time, so mappings added to a segment already cleared by a concurrent thread are kept.
+     */
+    @Override
+    public void clear() {
+        for(int i = 0; i < segments.length; i++) {
+            segments[i].clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation looks up the key in its segment without locking.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation walks the chains of every segment without locking.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if(value == null) {
+            throw new NullPointerException();
+        }
+        for(int s = 0; s < segments.length; s++) {
+            AtomicReferenceArray t = segments[s].table;
+            for(int i = 0; i < t.length(); i++) {
+                for(Node e = (Node) t.get(i); e != null; e = e.next) {
+                    if(value.equals(e.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator is weakly consistent. The entries write through to the map: setValue(Object) puts the key with the new value.
+     */
+    @Override
+    public HSet entrySet() {
+        if(entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation first checks if the specified object is this map, if so it returns true. Then, it checks if the specified object is a map whose size is identical to the size of this map, if not, it returns false. If so, it walks the mappings of this map and looks up each key in the other map, comparing the values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HMap)) {
+            return false;
+        }
+        HMap m = (HMap) o;
+        if(m.size() != size()) {
+            return false;
+        }
+        try {
+            HIterator it = new NodeIterator(NODES);
+            while(it.hasNext()) {
+                Node e = (Node) it.next();
+                if(!e.value.equals(m.get(e.key))) {
+                    return false;
+                }
+            }
+        }
+        catch (ClassCastException cce)   {
+            return false;
+        }
+        catch (NullPointerException npe) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation looks up the key in its segment without locking.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object get(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        int h = hash(key);
+        return segmentFor(h).get(key, h);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation walks the mappings, adding up the hashcode of their entries.
+     */
+    @Override
+    public int hashCode() {
+        int sum = 0;
+        HIterator it = new NodeIterator(NODES);
+        while(it.hasNext()) {
+            Node e = (Node) it.next();
+            sum += e.key.hashCode() ^ e.value.hashCode();
+        }
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks the mapping count of every segment, without locking.
+     */
+    @Override
+    public boolean isEmpty() {
+        for(int i = 0; i < segments.length; i++) {
+            if(segments[i].count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator is weakly consistent.
+     */
+    @Override
+    public HSet keySet() {
+        if(keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation locks only the segment of the key.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object put(Object key, Object value) {
+        if(key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int h = hash(key);
+        return segmentFor(h).put(key, h, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the entrySet of the map passed as the parameter and calls put(Object, Object) for each of its elements, so every mapping is added atomically, but not the whole map.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public void putAll(HMap m) {
+        if(m == null) {
+            throw new NullPointerException();
+        }
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HEntry e = (HEntry) it.next();
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation locks only the segment of the key.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object remove(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        int h = hash(key);
+        return segmentFor(h).remove(key, h, null);
+    }
+
+    /**
+     * Removes the mapping of the key only if it's mapped to the value, atomically.
+     */
+    private boolean remove(Object key, Object value) {
+        int h = hash(key);
+        return segmentFor(h).remove(key, h, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation adds up the mapping counts of the segments, without locking.
+     */
+    @Override
+    public int size() {
+        long sum = 0;
+        for(int i = 0; i < segments.length; i++) {
+            sum += segments[i].count;
+        }
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a collection which is backed by the map, so changes to the map are reflected in the collection, and vice-versa. Its iterator is weakly consistent.
+     */
+    @Override
+    public HCollection values() {
+        if(values == null) {
+            values = new Values();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the element of a view of the specified kind (SlotSpliterator.KEYS, VALUES or ENTRIES) corresponding to the node, or the node itself if the kind is NODES.
+     */
+    private Object element(int kind, Node e) {
+        if(kind == SlotSpliterator.KEYS) {
+            return e.key;
+        }
+        if(kind == SlotSpliterator.VALUES) {
+            return e.value;
+        }
+        if(kind == SlotSpliterator.ENTRIES) {
+            return new NodeEntry(e.key, e.value);
+        }
+        return e;
+    }
+
+    /**
+     * Walks the mappings with a weakly consistent iterator and removes those whose element, in a view of the specified kind, matches; each mapping is removed only if it's still mapped to the value it was tested with.
+     */
+    private boolean removeIf(int kind, HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        boolean flag = false;
+        HIterator it = new NodeIterator(NODES);
+        while(it.hasNext()) {
+            Node e = (Node) it.next();
+            Object v = e.value;
+            if(filter.test(element(kind, e)) && remove(e.key, v)) {
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Weakly consistent iterator over the nodes of the segments, returning the element of a view of the specified kind for each node. Each segment is walked on the table it had when the iterator reached it, without locking; remove() removes the key of the last node returned, if it's still mapped to the same value.
+     */
+    private class NodeIterator implements HIterator {
+
+        private final int kind;
+        private int segment = 0;
+        private AtomicReferenceArray table = null;
+        private int bin = 0;
+        private Node next = null;
+        private Node current = null;
+
+        NodeIterator(int kind) {
+            this.kind = kind;
+        }
+
+        public boolean hasNext() {
+            while(next == null) {
+                if(table != null && bin < table.length()) {
+                    next = (Node) table.get(bin++);
+                }
+                else if(segment < segments.length) {
+                    table = segments[segment++].table;
+                    bin = 0;
+                }
+                else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public Object next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = next.next;
+            return element(kind, current);
+        }
+
+        public void remove() {
+            if(current == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentMapAdapter.this.remove(current.key, current.value);
+            current = null;
+        }
+
+    }
+
+    private class EntrySet extends SetView {
+
+        public void clear() {
+            ConcurrentMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            Object v = get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        public HIterator iterator() {
+            return new NodeIterator(SlotSpliterator.ENTRIES);
+        }
+
+        public boolean remove(Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            return e.getKey() != null && e.getValue() != null && ConcurrentMapAdapter.this.remove(e.getKey(), e.getValue());
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return ConcurrentMapAdapter.this.removeIf(SlotSpliterator.ENTRIES, filter);
+        }
+
+        public int size() {
+            return ConcurrentMapAdapter.this.size();
+        }
+
+        int streamCharacteristics() {
+            return Spliterator.CONCURRENT;
+        }
+
+    }
+
+    private class KeySet extends SetView {
+
+        public void clear() {
+            ConcurrentMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        public HIterator iterator() {
+            return new NodeIterator(SlotSpliterator.KEYS);
+        }
+
+        public boolean remove(Object o) {
+            return ConcurrentMapAdapter.this.remove(o) != null;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return ConcurrentMapAdapter.this.removeIf(SlotSpliterator.KEYS, filter);
+        }
+
+        public int size() {
+            return ConcurrentMapAdapter.this.size();
+        }
+
+        int streamCharacteristics() {
+            return Spliterator.CONCURRENT;
+        }
+
+    }
+
+    private class Values extends CollectionView {
+
+        public void clear() {
+            ConcurrentMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        public HIterator iterator() {
+            return new NodeIterator(SlotSpliterator.VALUES);
+        }
+
+        /**
+         * Removes every mapping to the value, each only if it's still mapped to the value when it's reached.
+         */
+        public boolean remove(final Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            return removeIf(new HPredicate() {
+                public boolean test(Object v) {
+                    return o.equals(v);
+                }
+            });
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return ConcurrentMapAdapter.this.removeIf(SlotSpliterator.VALUES, filter);
+        }
+
+        public int size() {
+            return ConcurrentMapAdapter.this.size();
+        }
+
+        int streamCharacteristics() {
+            return Spliterator.CONCURRENT;
+        }
+
+    }
+
+    /**
+     * Entry returned by the iterator of the entrySet, holding the value the mapping had when it was returned. setValue(Object) puts the key with the new value, so it adds the mapping again if it has been removed in the meantime.
+     */
+    private class NodeEntry implements HMap.HEntry {
+
+        private final Object key;
+        private Object value;
+
+        NodeEntry(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            if(value == null) {
+                throw new NullPointerException();
+            }
+            Object tmp = this.value;
+            this.value = value;
+            put(key, value);
+            return tmp;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof HMap.HEntry)) {
+                return false;
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+package adapter;
+
+import java.util.Arrays;
+
+/**
+ * ListStorage backed by a gap buffer: an Object array whose free slots form a single gap, which is moved to the position of every insertion or removal. Edits clustered around the same position (as those made through a listIterator) only move the elements between the old and the new position of the gap, so they take amortized constant time, while get(int) and set(int, Object) only add the gap's length to the indexes past it. It takes no locks, so it must be confined to a single thread (or externally synchronized).
+ */
+
+class GapBufferStorage extends ListStorage {
+
+    /**
+     * Capacity of the array allocated by the first insertion.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Largest array that the VM can reliably allocate.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private Object[] buffer = new Object[0];
+
+    /**
+     * The gap takes the slots from gapStart, inclusive, to gapEnd, exclusive: the elements before it are at their own index, the ones after it are shifted by the length of the gap.
+     */
+    private int gapStart = 0;
+    private int gapEnd = 0;
+
+    int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    Object get(int index) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return buffer[index < gapStart ? index : index + (gapEnd - gapStart)];
+    }
+
+    Object set(int index, Object o) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        int i = index < gapStart ? index : index + (gapEnd - gapStart);
+        Object old = buffer[i];
+        buffer[i] = o;
+        return old;
+    }
+
+    void add(Object o) {
+        add(size(), o);
+    }
+
+    void add(int index, Object o) {
+        if(index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        moveGap(index);
+        if(gapStart == gapEnd) {
+            grow(1);
+        }
+        buffer[gapStart++] = o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The gap is moved to the index and grown at most once, then the elements are copied into it with a single arraycopy.
+     */
+    void addAll(int index, Object[] a, int count) {
+        if(index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(count == 0) {
+            return;
+        }
+        moveGap(index);
+        if(gapEnd - gapStart < count) {
+            grow(count);
+        }
+        System.arraycopy(a, 0, buffer, gapStart, count);
+        gapStart += count;
+    }
+
+    Object remove(int index) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        moveGap(index);
+        Object o = buffer[gapEnd];
+        buffer[gapEnd++] = null;
+        return o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The gap is first moved to toIndex, so that the range lies just before it and is compacted like the one of an ArrayStorage; the slots freed at the end of the range then become part of the gap.
+     */
+    int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+        moveGap(toIndex);
+        Object[] a = buffer;
+        int r = fromIndex;
+        int w = fromIndex;
+        try {
+            for(; r < toIndex; r++) {
+                Object o = a[r];
+                if(!filter.test(o)) {
+                    a[w++] = o;
+                }
+            }
+        }
+        finally {
+            if(w != r) {
+                removeRange(w, r);
+            }
+        }
+        return r - w;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The gap is moved to fromIndex and then widened over the range.
+     */
+    void removeRange(int fromIndex, int toIndex) {
+        moveGap(fromIndex);
+        int n = toIndex - fromIndex;
+        Arrays.fill(buffer, gapEnd, gapEnd + n, null);
+        gapEnd += n;
+    }
+
+    boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    int indexOf(Object o) {
+        return indexOf(o, 0, size());
+    }
+
+    int lastIndexOf(Object o) {
+        return lastIndexOf(o, 0, size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The part of the range before the gap and the one after it are scanned by two separate loops.
+     */
+    int indexOf(Object o, int fromIndex, int toIndex) {
+        int n = Math.min(toIndex, size());
+        int gap = gapEnd - gapStart;
+        int i = fromIndex;
+        for(int end = Math.min(n, gapStart); i < end; i++) {
+            if(o.equals(buffer[i])) {
+                return i;
+            }
+        }
+        for(; i < n; i++) {
+            if(o.equals(buffer[i + gap])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int lastIndexOf(Object o, int fromIndex, int toIndex) {
+        int gap = gapEnd - gapStart;
+        int i = Math.min(toIndex, size()) - 1;
+        for(int end = Math.max(fromIndex, gapStart); i >= end; i--) {
+            if(o.equals(buffer[i + gap])) {
+                return i;
+            }
+        }
+        for(; i >= fromIndex; i--) {
+            if(o.equals(buffer[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void clear() {
+        Arrays.fill(buffer, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+
+    Object[] toArray() {
+        Object[] a = new Object[size()];
+        System.arraycopy(buffer, 0, a, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, a, gapStart, buffer.length - gapEnd);
+        return a;
+    }
+
+    /**
+     * Moves the gap so that it starts at the specified index, shifting the elements between the old and the new position across it and clearing the slots they leave in the gap.
+     */
+    private void moveGap(int index) {
+        if(index < gapStart) {
+            int n = gapStart - index;
+            int newEnd = gapEnd - n;
+            System.arraycopy(buffer, index, buffer, newEnd, n);
+            Arrays.fill(buffer, index, Math.min(gapStart, newEnd), null);
+            gapStart = index;
+            gapEnd = newEnd;
+        }
+        else if(index > gapStart) {
+            int n = index - gapStart;
+            int newEnd = gapEnd + n;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, n);
+            Arrays.fill(buffer, Math.max(gapEnd, index), newEnd, null);
+            gapStart = index;
+            gapEnd = newEnd;
+        }
+    }
+
+    /**
+     * Grows the array by half of its length (or more, if needed to make the gap at least minGap slots long), keeping the gap where it is and moving the elements after it to the end of the new array.
+     */
+    private void grow(int minGap) {
+        int size = size();
+        if(size + minGap < 0 || size + minGap > MAX_CAPACITY) {
+            throw new OutOfMemoryError();
+        }
+        long newCapacity = Math.max((long) buffer.length + (buffer.length >> 1), (long) DEFAULT_CAPACITY);
+        newCapacity = Math.min(Math.max(newCapacity, (long) size + minGap), MAX_CAPACITY);
+        Object[] a = new Object[(int) newCapacity];
+        int tail = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, a, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, a, a.length - tail, tail);
+        buffer = a;
+        gapEnd = a.length - tail;
+    }
+
+}
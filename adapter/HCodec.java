@@ -0,0 +1,34 @@
+package adapter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elements to fixed-width records of bytes and decodes them back, so that they can be stored outside of the Java heap by an OffHeapListAdapter.
+ * <p>Every element must be encoded to exactly width() bytes, and the encoding must be consistent with equals(Object): two elements are equal if and only if their encodings are equal, because the list compares the records instead of decoding them.
+ */
+public interface HCodec {
+
+    /**
+     * Returns the number of bytes of the record of an element.
+     * @return the width of a record, in bytes (at least 1).
+     */
+    public int width();
+
+    /**
+     * Writes the record of the element to the buffer, starting at the specified index. The position and limit of the buffer must not be changed, and no byte outside of the record may be written.
+     * @param o the element to encode.
+     * @param buffer the buffer to write to.
+     * @param index the index of the first byte of the record.
+     * @throws ClassCastException if the element can't be encoded by this codec.
+     */
+    public void encode(Object o, ByteBuffer buffer, int index);
+
+    /**
+     * Reads the record starting at the specified index and returns a new element equal to the one which was encoded there. The position and limit of the buffer must not be changed.
+     * @param buffer the buffer to read from.
+     * @param index the index of the first byte of the record.
+     * @return the decoded element.
+     */
+    public Object decode(ByteBuffer buffer, int index);
+
+}
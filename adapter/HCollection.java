@@ -1,5 +1,8 @@
 package adapter;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * The root interface in the collection hierarchy.
  */
@@ -87,6 +90,86 @@ public interface HCollection {
      */
     public boolean remove(Object o);
 
+    /**
+     * Removes all of the elements of this collection that satisfy the given predicate.
+     * <p>The default implementation traverses the collection with iterator() and removes each matching element with the iterator's remove() method. The adapters override it to remove the elements in a single pass over their storage.
+     * @param filter predicate which returns true for the elements to be removed.
+     * @return true if any element was removed.
+     * @throws NullPointerException if the specified filter is null.
+     * @throws UnsupportedOperationException if elements cannot be removed from this collection.
+     */
+    public default boolean removeIf(HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        boolean flag = false;
+        HIterator it = iterator();
+        while(it.hasNext()) {
+            if(filter.test(it.next())) {
+                it.remove();
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Returns a spliterator over the elements of this collection, which can be split so that parts of the collection are traversed by different threads.
+     * <p>The default implementation traverses the collection with iterator(), and each split copies the next batch of elements to an array. The adapters override it to split the ranges of their indexes, or of the slots of their tables.
+     * @return a spliterator over the elements of this collection.
+     */
+    public default HSpliterator spliterator() {
+        return new IteratorSpliterator(this);
+    }
+
+    /**
+     * Returns a sequential Stream over the elements of this collection. The stream traverses the collection through spliterator(), without copying it: the spliterator reports the exact size of the collection (and, for the lists, the exact size of every part split from it), so the collection must not be structurally modified while the stream is in use. The views of a ConcurrentMapAdapter are the exception: like their iterators, their streams are weakly consistent, report CONCURRENT instead of a size, and may run while other threads change the map.
+     * @return a sequential stream over the elements of this collection.
+     */
+    public default Stream stream() {
+        return StreamSupport.stream(StreamSpliterator.of(this), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the elements of this collection, which splits the collection through spliterator() (see stream()).
+     * @return a parallel stream over the elements of this collection.
+     */
+    public default Stream parallelStream() {
+        return StreamSupport.stream(StreamSpliterator.of(this), true);
+    }
+
+    /**
+     * Performs the action on each element of this collection, in parallel: the elements are split (see spliterator()) into parts which are processed by the tasks of the common ForkJoinPool, until the estimated size of a part isn't larger than the parallelism threshold. The action may be performed on different elements at the same time and in any order. The collection must not be modified while the operation is in progress.
+     * @param parallelismThreshold the estimated number of elements under which a part is processed sequentially; Long.MAX_VALUE processes the whole collection sequentially, 1 splits it as much as possible.
+     * @param action the action.
+     * @throws NullPointerException if the action is null.
+     */
+    public default void forEach(long parallelismThreshold, HConsumer action) {
+        ParallelOps.forEach(spliterator(), parallelismThreshold, action);
+    }
+
+    /**
+     * Combines all the elements of this collection with the reducer, in parallel (see forEach(long, HConsumer)). The elements are combined in the order of the spliterator, but the grouping is not defined, so the reducer must be associative.
+     * @param parallelismThreshold the estimated number of elements under which a part is processed sequentially.
+     * @param reducer the associative function combining two elements or partial results.
+     * @return the combination of all the elements, or null if the collection is empty.
+     * @throws NullPointerException if the reducer is null.
+     */
+    public default Object reduce(long parallelismThreshold, HReducer reducer) {
+        return ParallelOps.reduce(spliterator(), parallelismThreshold, reducer);
+    }
+
+    /**
+     * Returns an element of this collection which satisfies the predicate, searching in parallel (see forEach(long, HConsumer)). All the tasks stop as soon as one of them finds an element, so when several elements match, any of them may be returned.
+     * @param parallelismThreshold the estimated number of elements under which a part is processed sequentially.
+     * @param filter the predicate.
+     * @return an element which satisfies the predicate, or null if there is none.
+     * @throws NullPointerException if the predicate is null.
+     */
+    public default Object search(long parallelismThreshold, HPredicate filter) {
+        return ParallelOps.search(spliterator(), parallelismThreshold, filter);
+    }
+
     /**
      * Removes all this collection's elements that are also contained in the specified collection.
      * @param c elements to be removed from this collection. 
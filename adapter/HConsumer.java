@@ -0,0 +1,14 @@
+package adapter;
+
+/**
+ * An action performed on the elements of a collection.
+ */
+public interface HConsumer {
+
+    /**
+     * Performs this action on the specified element.
+     * @param o the element.
+     */
+    public void accept(Object o);
+
+}
@@ -0,0 +1,28 @@
+package adapter;
+
+/**
+ * A list iterator over a list of int values, which can traverse and modify the list without boxing its elements. The Object-based methods inherited from HListIterator box and unbox the values as Integer objects.
+ */
+public interface HIntListIterator extends HListIterator, HIntIterator {
+
+    /**
+     * Returns the previous element in the list, unboxed.
+     * @return the previous element in the list.
+     * @throws java.util.NoSuchElementException if the iteration has no previous element.
+     */
+    public int previousInt();
+
+    /**
+     * Replaces the last element returned by next or previous with the specified value.
+     * @param v the value with which to replace the last element returned by next or previous.
+     * @throws IllegalStateException if neither next nor previous have been called, or remove or add have been called after the last call to next or previous.
+     */
+    public void setInt(int v);
+
+    /**
+     * Inserts the specified value into the list, immediately before the element that would be returned by next.
+     * @param v the value to insert.
+     */
+    public void addInt(int v);
+
+}
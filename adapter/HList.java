@@ -217,6 +217,15 @@ public interface HList extends HCollection {
      */
     public HList subList(int fromIndex, int toIndex);
 
+    /**
+     * Returns a spliterator over the elements of this list, in proper sequence.
+     * <p>The default implementation splits the range of indexes in halves and reads the elements with get(int).
+     * @return a spliterator over the elements of this list.
+     */
+    public default HSpliterator spliterator() {
+        return new IndexSpliterator(this, 0, size());
+    }
+
     /**
      * Returns an array containing all of the elements in this list in proper sequence.
      * @return array containing all of the elements in this list in proper sequence.
@@ -0,0 +1,15 @@
+package adapter;
+
+/**
+ * An iterator over long values, which returns them without boxing them. The next() method inherited from HIterator returns the same values boxed as Long objects.
+ */
+public interface HLongIterator extends HIterator {
+
+    /**
+     * Returns the next element in the iteration, unboxed.
+     * @return the next element in the iteration.
+     * @throws java.util.NoSuchElementException if the iteration has no more elements.
+     */
+    public long nextLong();
+
+}
@@ -0,0 +1,15 @@
+package adapter;
+
+/**
+ * A predicate (boolean-valued function) over the elements of a collection.
+ */
+public interface HPredicate {
+
+    /**
+     * Evaluates this predicate on the specified element.
+     * @param o the element to be tested.
+     * @return true if the element matches the predicate.
+     */
+    public boolean test(Object o);
+
+}
@@ -0,0 +1,16 @@
+package adapter;
+
+/**
+ * A function combining two elements of a collection (or two partial results) into one. To be used by a parallel reduction, the function must be associative.
+ */
+public interface HReducer {
+
+    /**
+     * Combines the specified elements.
+     * @param a the first element, or partial result.
+     * @param b the second element, or partial result.
+     * @return the combination of the elements.
+     */
+    public Object apply(Object a, Object b);
+
+}
@@ -0,0 +1,35 @@
+package adapter;
+
+/**
+ * An object for traversing the elements of a collection which, unlike an iterator, can be split into two traversals covering disjoint parts of the remaining elements, so that the parts can be processed by different threads. A spliterator only reads the collection: the collection must not be structurally modified while it's being traversed.
+ */
+public interface HSpliterator {
+
+    /**
+     * If an element remains, performs the action on it and returns true; otherwise returns false.
+     * @param action the action.
+     * @return false if no element remained.
+     * @throws NullPointerException if the action is null.
+     */
+    public boolean tryAdvance(HConsumer action);
+
+    /**
+     * Performs the action on each remaining element, sequentially.
+     * @param action the action.
+     * @throws NullPointerException if the action is null.
+     */
+    public void forEachRemaining(HConsumer action);
+
+    /**
+     * If this spliterator can be split, returns a spliterator covering a part of its remaining elements, which will no longer be covered by this spliterator; otherwise returns null.
+     * @return a spliterator covering some of the remaining elements, or null.
+     */
+    public HSpliterator trySplit();
+
+    /**
+     * Returns an estimate of the number of remaining elements. The estimate is exact for lists; for hash tables it's the number of slots left to visit, an upper bound.
+     * @return the estimated number of remaining elements.
+     */
+    public long estimateSize();
+
+}
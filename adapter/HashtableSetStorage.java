@@ -0,0 +1,96 @@
+package adapter;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+/**
+ * SetStorage backed by a CLDC 1.1 Hashtable which maps every element to itself. Every access goes through the hashtable's synchronized methods, so the storage can be shared between threads.
+ */
+
+class HashtableSetStorage extends SetStorage {
+
+    private Hashtable hashtable = new Hashtable();
+
+    /**
+     * Sum of the hashcodes of the elements, updated holding the hashtable's lock.
+     */
+    private int hash = 0;
+
+    int size() {
+        return hashtable.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The element is put in the hashtable unconditionally: if it was already there put(Object, Object) returns the previous value, so a single lookup both checks and inserts.
+     */
+    boolean add(Object o) {
+        synchronized(hashtable) {
+            if(hashtable.put(o, o) != null) {
+                return false;
+            }
+            hash += o.hashCode();
+            return true;
+        }
+    }
+
+    boolean remove(Object o) {
+        synchronized(hashtable) {
+            Object k = hashtable.remove(o);
+            if(k == null) {
+                return false;
+            }
+            hash -= k.hashCode();
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The keys are enumerated with the hashtable's keys() method, whose enumeration isn't invalidated by the removals.
+     */
+    boolean removeIf(HPredicate filter) {
+        boolean flag = false;
+        Enumeration keys = hashtable.keys();
+        while(keys.hasMoreElements()) {
+            Object k = keys.nextElement();
+            if(filter.test(k) && remove(k)) {
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    boolean contains(Object o) {
+        return hashtable.containsKey(o);
+    }
+
+    void clear() {
+        synchronized(hashtable) {
+            hashtable.clear();
+            hash = 0;
+        }
+    }
+
+    int hash() {
+        synchronized(hashtable) {
+            return hash;
+        }
+    }
+
+    Object[] toArray() {
+        synchronized(hashtable) {
+            Object[] a = new Object[hashtable.size()];
+            Enumeration keys = hashtable.keys();
+            for(int i = 0; i < a.length; i++) {
+                a[i] = keys.nextElement();
+            }
+            return a;
+        }
+    }
+
+    Enumeration elements() {
+        return hashtable.keys();
+    }
+
+}
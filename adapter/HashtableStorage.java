@@ -0,0 +1,136 @@
+package adapter;
+
+import java.util.Enumeration;
+import java.util.Hashtable;
+
+/**
+ * MapStorage backed by a CLDC 1.1 Hashtable. Every access goes through the hashtable's synchronized methods, so the storage can be shared between threads.
+ */
+
+class HashtableStorage extends MapStorage {
+
+    private Hashtable h = new Hashtable();
+
+    /**
+     * Sums of the hashcodes of the keys and of the mappings, updated holding the hashtable's lock.
+     */
+    private int keyHash = 0;
+    private int entryHash = 0;
+
+    int size() {
+        return h.size();
+    }
+
+    Object get(Object key) {
+        return h.get(key);
+    }
+
+    Object put(Object key, Object value) {
+        synchronized(h) {
+            Object old = h.put(key, value);
+            int kh = key.hashCode();
+            if(old == null) {
+                keyHash += kh;
+            }
+            else {
+                entryHash -= kh ^ old.hashCode();
+            }
+            entryHash += kh ^ value.hashCode();
+            return old;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The hashtable has no slots, so the key is looked up again; the check and the put are done holding the hashtable's lock, so a mapping removed meanwhile isn't added back.
+     */
+    boolean replace(Object key, Object value, int slot) {
+        synchronized(h) {
+            if(!h.containsKey(key)) {
+                return false;
+            }
+            put(key, value);
+            return true;
+        }
+    }
+
+    Object remove(Object key) {
+        synchronized(h) {
+            Object old = h.remove(key);
+            if(old != null) {
+                int kh = key.hashCode();
+                keyHash -= kh;
+                entryHash -= kh ^ old.hashCode();
+            }
+            return old;
+        }
+    }
+
+    boolean containsKey(Object key) {
+        return h.containsKey(key);
+    }
+
+    boolean containsValue(Object value) {
+        return h.contains(value);
+    }
+
+    void clear() {
+        synchronized(h) {
+            h.clear();
+            keyHash = 0;
+            entryHash = 0;
+        }
+    }
+
+    int keyHash() {
+        synchronized(h) {
+            return keyHash;
+        }
+    }
+
+    int entryHash() {
+        synchronized(h) {
+            return entryHash;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The cursor walks the enumeration returned by the hashtable's keys() method and looks up the value of each key with get(Object).
+     */
+    Cursor cursor() {
+        return new KeyCursor();
+    }
+
+    private class KeyCursor extends Cursor {
+
+        private Enumeration keys = h.keys();
+        private Object key = null;
+
+        boolean hasNext() {
+            return keys.hasMoreElements();
+        }
+
+        void next() {
+            key = keys.nextElement(); // Lancia NoSuchElementException
+        }
+
+        Object key() {
+            return key;
+        }
+
+        Object value() {
+            return h.get(key);
+        }
+
+        int slot() {
+            return -1;
+        }
+
+        void remove() {
+            HashtableStorage.this.remove(key);
+        }
+
+    }
+
+}
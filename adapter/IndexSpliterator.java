@@ -0,0 +1,58 @@
+package adapter;
+
+/**
+ * HSpliterator over a range of indexes of a list, which reads the elements with get(int). Splitting halves the range, so the parts are balanced and their sizes are exact.
+ */
+
+class IndexSpliterator implements HSpliterator {
+
+    private final HList list;
+    private int index;
+    private final int fence;
+
+    /**
+     * Constructs a spliterator over the elements between fromIndex, inclusive, and toIndex, exclusive.
+     */
+    IndexSpliterator(HList list, int fromIndex, int toIndex) {
+        this.list = list;
+        this.index = fromIndex;
+        this.fence = toIndex;
+    }
+
+    public boolean tryAdvance(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        if(index >= fence) {
+            return false;
+        }
+        action.accept(list.get(index++));
+        return true;
+    }
+
+    public void forEachRemaining(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        int i = index;
+        index = fence;
+        for(; i < fence; i++) {
+            action.accept(list.get(i));
+        }
+    }
+
+    public HSpliterator trySplit() {
+        int mid = (index + fence) >>> 1;
+        if(mid <= index) {
+            return null;
+        }
+        HSpliterator prefix = new IndexSpliterator(list, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return fence - index;
+    }
+
+}
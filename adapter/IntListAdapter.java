@@ -0,0 +1,728 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * List of int values (interface HList) backed by a growable int array. Every element takes 4 bytes of the array, instead of a reference to an Integer object as in a ListAdapter, and is read without following a pointer. The unboxed methods (getInt(int), addInt(int), setInt(int, int), indexOfInt(int) and so on) and the HIntListIterator returned by the iterators work on the array directly; the methods of HList box and unbox the values as Integer objects. This implementation does not allow null elements, and throws ClassCastException if an element which isn't an Integer is added.
+ * <p>Like a ListAdapter with ARRAY_STORAGE, the list takes no locks, so it must not be shared between threads without external synchronization.
+ */
+
+public class IntListAdapter implements HList {
+
+    /**
+     * Capacity of the array allocated by the first insertion.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Largest array that the VM can reliably allocate.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Values of the list. Only the root list has an array: the sublists read and write the array of their root.
+     */
+    private int[] elementData;
+
+    /**
+     * Number of elements of the list (of the sublist, for a sublist).
+     */
+    private int elementCount = 0;
+
+    /**
+     * List whose array holds the elements: the list itself, unless it's a sublist.
+     */
+    private final IntListAdapter root;
+
+    /**
+     * List the sublist was obtained from, or null if the list isn't a sublist.
+     */
+    private final IntListAdapter parent;
+
+    /**
+     * Index in the root's array of the first element of the list.
+     */
+    private final int offset;
+
+    /**
+     * Constructs an empty list.
+     */
+    public IntListAdapter() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty list whose array can hold the specified number of elements before growing.
+     * @param initialCapacity the initial capacity of the list.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public IntListAdapter(int initialCapacity) {
+        if(initialCapacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        elementData = new int[initialCapacity];
+        root = this;
+        parent = null;
+        offset = 0;
+    }
+
+    /**
+     * Constructs the sublist of the parent list between fromIndex, inclusive, and toIndex, exclusive.
+     */
+    private IntListAdapter(IntListAdapter parent, int fromIndex, int toIndex) {
+        this.root = parent.root;
+        this.parent = parent;
+        this.offset = parent.offset + fromIndex;
+        this.elementCount = toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the element at the specified position in this list, unboxed.
+     * @param index index of element to return.
+     * @return the element at the specified position in this list.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    public int getInt(int index) {
+        boundCheck(index);
+        return root.elementData[offset + index];
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with the specified value.
+     * @param index index of element to replace.
+     * @param v value to be stored at the specified position.
+     * @return the element previously at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    public int setInt(int index, int v) {
+        boundCheck(index);
+        int[] a = root.elementData;
+        int old = a[offset + index];
+        a[offset + index] = v;
+        return old;
+    }
+
+    /**
+     * Appends the specified value to the end of this list.
+     * @param v value to be appended to this list.
+     */
+    public void addInt(int v) {
+        if(parent != null) {
+            addInt(elementCount, v);
+            return;
+        }
+        if(elementCount == elementData.length) {
+            grow(elementCount + 1);
+        }
+        elementData[elementCount++] = v;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this list, shifting the element currently at that position (if any) and any subsequent elements to the right.
+     * @param index index at which the specified value is to be inserted.
+     * @param v value to be inserted.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt; size()).
+     */
+    public void addInt(int index, int v) {
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        open(index, 1);
+        root.elementData[offset + index] = v;
+    }
+
+    /**
+     * Removes the element at the specified position in this list, shifting any subsequent elements to the left.
+     * @param index the index of the element to removed.
+     * @return the element previously at the specified position, unboxed.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    public int removeInt(int index) {
+        boundCheck(index);
+        int old = root.elementData[offset + index];
+        close(index, 1);
+        return old;
+    }
+
+    /**
+     * Returns the index in this list of the first occurrence of the specified value, or -1 if this list does not contain this value.
+     * @param v value to search for.
+     * @return the index in this list of the first occurrence of the specified value, or -1.
+     */
+    public int indexOfInt(int v) {
+        int[] a = root.elementData;
+        int end = offset + elementCount;
+        for(int i = offset; i < end; i++) {
+            if(a[i] == v) {
+                return i - offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index in this list of the last occurrence of the specified value, or -1 if this list does not contain this value.
+     * @param v value to search for.
+     * @return the index in this list of the last occurrence of the specified value, or -1.
+     */
+    public int lastIndexOfInt(int v) {
+        int[] a = root.elementData;
+        for(int i = offset + elementCount - 1; i >= offset; i--) {
+            if(a[i] == v) {
+                return i - offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if this list contains the specified value.
+     * @param v value whose presence in this list is to be tested.
+     * @return true if this list contains the specified value.
+     */
+    public boolean containsInt(int v) {
+        return indexOfInt(v) != -1;
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in proper sequence, unboxed.
+     * @return a new array containing all of the elements in this list.
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOfRange(root.elementData, offset, offset + elementCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation unboxes the element and calls addInt(int, int).
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Object element) {
+        addInt(index, unbox(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation unboxes the element and calls addInt(int).
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     */
+    @Override
+    public boolean add(Object o) {
+        addInt(unbox(o));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls addAll(int, HCollection) with the size of the list as the index.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(HCollection c) {
+        return addAll(elementCount, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation unboxes the elements of the collection to an int array (if the collection is an IntListAdapter, its values are copied with toIntArray() instead) and then inserts them all at once, so that the array grows at most once and its tail is shifted only once. If the collection contains a null element or an element which isn't an Integer, the exception is thrown before the list is changed.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        int[] v;
+        if(c instanceof IntListAdapter) {
+            v = ((IntListAdapter) c).toIntArray();
+        }
+        else {
+            Object[] a = c.toArray();
+            v = new int[a.length];
+            for(int i = 0; i < a.length; i++) {
+                v[i] = unbox(a[i]);
+            }
+        }
+        if(v.length == 0) {
+            return false;
+        }
+        open(index, v.length);
+        System.arraycopy(v, 0, root.elementData, offset + index, v.length);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation shifts the tail of the array over the elements of the list (for the root list, it just resets the element count).
+     */
+    @Override
+    public void clear() {
+        close(0, elementCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns false if the object isn't an Integer, otherwise it unboxes it and calls containsInt(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        if(o == null) {
+            throw new NullPointerException();
+        }
+        return o instanceof Integer && containsInt(((Integer) o).intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the collection and checks if its elements are all contained in the list using contains(Object). If both the list and the collection have more than ListAdapter.LOOKUP_THRESHOLD elements, the elements of the list are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is probed instead of scanning the list for every element.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        if(c.size() > ListAdapter.LOOKUP_THRESHOLD && elementCount > ListAdapter.LOOKUP_THRESHOLD) {
+            HSet lookup = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+            lookup.addAll(this);
+            return lookup.containsAll(c);
+        }
+        HIterator cit = c.iterator();
+        while(cit.hasNext()) {
+            if(!contains(cit.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation first checks if the specified object is this list. If so, it returns true; if not, it checks if the specified object is a list. If not, it returns false. If the object is an IntListAdapter, the values of the two lists are compared without boxing them; otherwise it iterates over both lists, comparing corresponding pairs of elements, as ListAdapter.equals(Object) does.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HList)) {
+            return false;
+        }
+        if(o instanceof IntListAdapter) {
+            IntListAdapter l = (IntListAdapter) o;
+            if(l.elementCount != elementCount) {
+                return false;
+            }
+            int[] a = root.elementData;
+            int[] b = l.root.elementData;
+            for(int i = 0; i < elementCount; i++) {
+                if(a[offset + i] != b[l.offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        HListIterator it1 = listIterator();
+        HListIterator it2 = ((HList) o).listIterator();
+        while(it1.hasNext() && it2.hasNext()) {
+            Object o2 = it2.next();
+            if(!it1.next().equals(o2)) {
+                return false;
+            }
+        }
+        return !(it1.hasNext() || it2.hasNext());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls getInt(int) and boxes the value.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object get(int index) {
+        return Integer.valueOf(getInt(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation computes the list hash function defined in the documentation for the List.hashCode method over the values of the array, using the hashcode each value would have as an Integer.
+     */
+    @Override
+    public int hashCode() {
+        int[] a = root.elementData;
+        int end = offset + elementCount;
+        int hashCode = 1;
+        for(int i = offset; i < end; i++) {
+            hashCode = 31*hashCode + a[i];
+        }
+        return hashCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns -1 if the object isn't an Integer, otherwise it unboxes it and calls indexOfInt(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object o) {
+        if(o == null) {
+            throw new NullPointerException();
+        }
+        return o instanceof Integer ? indexOfInt(((Integer) o).intValue()) : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks the element count.
+     */
+    @Override
+    public boolean isEmpty() {
+        return elementCount == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns an HIntListIterator, whose nextInt() method reads the array without boxing the value. If the list is modified in any way other than through the iterator while an iteration is in progress, the iterator is not invalidated, but its cursor isn't updated either.
+     */
+    @Override
+    public HIntListIterator iterator() {
+        return new IntIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns -1 if the object isn't an Integer, otherwise it unboxes it and calls lastIndexOfInt(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        if(o == null) {
+            throw new NullPointerException();
+        }
+        return o instanceof Integer ? lastIndexOfInt(((Integer) o).intValue()) : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls the listIterator(int) method.
+     */
+    @Override
+    public HIntListIterator listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns an HIntListIterator, whose nextInt() and previousInt() methods read the array without boxing the values. If the list is modified in any way other than through the iterator while an iteration is in progress, the iterator is not invalidated, but its cursor isn't updated either.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public HIntListIterator listIterator(int index) {
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new IntIterator(index);
+    }
+
+    private class IntIterator implements HIntListIterator {
+
+        private int cursor;
+        private int lastRet = -1;
+
+        IntIterator(int index) {
+            cursor = index;
+        }
+
+        public boolean hasNext() {
+            return cursor < elementCount;
+        }
+
+        public int nextInt() {
+            int i = cursor;
+            if(i >= elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            lastRet = i;
+            return root.elementData[offset + i];
+        }
+
+        public Object next() {
+            return Integer.valueOf(nextInt());
+        }
+
+        public boolean hasPrevious() {
+            return cursor != 0;
+        }
+
+        public int previousInt() {
+            int i = cursor - 1;
+            if(i < 0 || i >= elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i;
+            lastRet = i;
+            return root.elementData[offset + i];
+        }
+
+        public Object previous() {
+            return Integer.valueOf(previousInt());
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor-1;
+        }
+
+        public void remove() {
+            if(lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            removeInt(lastRet);
+            if(lastRet < cursor) {
+                cursor--;
+            }
+            lastRet = -1;
+        }
+
+        public void setInt(int v) {
+            if(lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            IntListAdapter.this.setInt(lastRet, v);
+        }
+
+        public void set(Object o) {
+            setInt(unbox(o));
+        }
+
+        public void addInt(int v) {
+            IntListAdapter.this.addInt(cursor, v);
+            cursor++;
+            lastRet = -1;
+        }
+
+        public void add(Object o) {
+            addInt(unbox(o));
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeInt(int) and boxes the value.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object remove(int index) {
+        return Integer.valueOf(removeInt(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns false if the object isn't an Integer, otherwise it looks for the value with indexOfInt(int) and shifts the tail of the array over it.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index < 0) {
+            return false;
+        }
+        close(index, 1);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements contained in the collection, so every occurrence of those elements is removed in a single pass. If the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean removeAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation makes a single pass over the elements of the list, testing each of them (boxed) and moving the values which are kept down over the removed ones, so that the tail of the array is shifted only once.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean removeIf(HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        int[] a = root.elementData;
+        int end = offset + elementCount;
+        int r = offset;
+        int w = offset;
+        try {
+            for(; r < end; r++) {
+                int v = a[r];
+                if(!filter.test(Integer.valueOf(v))) {
+                    a[w++] = v;
+                }
+            }
+        }
+        finally {
+            if(w != r) {
+                int n = root.elementCount;
+                System.arraycopy(a, r, a, w, n - r);
+                resize(w - r);
+            }
+        }
+        return r != w;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements not contained in the collection. If the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean retainAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), false));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation unboxes the element, calls setInt(int, int) and boxes the previous value.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object set(int index, Object element) {
+        return Integer.valueOf(setInt(index, unbox(element)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns the element count.
+     */
+    @Override
+    public int size() {
+        return elementCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns an IntListAdapter which reads and writes the array of this list, at an offset. The returned list is backed by this list, so changes in the returned list are reflected in this list, and vice-versa. Structural changes made through the sublist also update the size of this list (and of the lists this list was obtained from); the behavior of the sublist becomes inconsistent with this list if the latter is structurally modified in any other way, but the sublist won't be invalidated.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public HList subList(int fromIndex, int toIndex) {
+        if(fromIndex < 0 || toIndex > elementCount || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new IntListAdapter(this, fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation boxes the values of the list into a new array, whose length is equal to the size of the list.
+     */
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation boxes the values of the list into a new array, as ListAdapter.toArray(Object[]) does: the length of the array is the largest between the one of the array passed as the parameter and the size of the list, and the elements whose index is greater or equal to the list's size are set to null.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray(Object[] a) {
+        if(a == null) {
+            throw new NullPointerException();
+        }
+        Object[] v = new Object[Math.max(a.length, elementCount)];
+        int[] values = root.elementData;
+        for(int i = 0; i < elementCount; i++) {
+            v[i] = Integer.valueOf(values[offset + i]);
+        }
+        return v;
+    }
+
+    private void boundCheck(int index) {
+        if(index < 0 || index >= elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Returns the value of an Integer, throwing NullPointerException if the object is null and ClassCastException if it isn't an Integer.
+     */
+    private static int unbox(Object o) {
+        if(o == null) {
+            throw new NullPointerException();
+        }
+        return ((Integer) o).intValue();
+    }
+
+    /**
+     * Makes room for count values at the index of the list, shifting the tail of the root's array, and adds count to the size of the list and of the lists it was obtained from.
+     */
+    private void open(int index, int count) {
+        IntListAdapter r = root;
+        int at = offset + index;
+        int n = r.elementCount;
+        if(count > r.elementData.length - n) {
+            r.grow(n + count);
+        }
+        System.arraycopy(r.elementData, at, r.elementData, at + count, n - at);
+        resize(count);
+    }
+
+    /**
+     * Removes count values at the index of the list, shifting the tail of the root's array over them, and subtracts count from the size of the list and of the lists it was obtained from.
+     */
+    private void close(int index, int count) {
+        IntListAdapter r = root;
+        int at = offset + index;
+        System.arraycopy(r.elementData, at + count, r.elementData, at, r.elementCount - at - count);
+        resize(-count);
+    }
+
+    private void resize(int delta) {
+        for(IntListAdapter l = this; l != null; l = l.parent) {
+            l.elementCount += delta;
+        }
+    }
+
+    /**
+     * Grows the array by half of its length (or to the requested capacity, if larger).
+     */
+    private void grow(int minCapacity) {
+        if(minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError();
+        }
+        long newCapacity = Math.max((long) elementData.length + (elementData.length >> 1), (long) DEFAULT_CAPACITY);
+        newCapacity = Math.min(Math.max(newCapacity, minCapacity), MAX_CAPACITY);
+        elementData = Arrays.copyOf(elementData, (int) newCapacity);
+    }
+
+}
@@ -0,0 +1,710 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Map from int keys to objects (interface HMap), kept in an open-addressing table with linear probing: an int array holds the keys and a parallel Object array holds the values, so a mapping costs no key object and no entry node, and a lookup compares int values instead of calling hashCode() and equals(Object). The unboxed methods (get(int), put(int, Object), remove(int), containsKey(int) and keyIterator()) never box the key; the methods of HMap unbox keys which are Integer objects, and the views returned by keySet(), entrySet() and values() box the keys only when their elements are actually returned. This implementation does not allow null values.
+ * <p>The state of every slot is kept in the value array: a null value marks an empty slot, and a removed mapping leaves a DELETED marker, so that the slots of the other mappings never move while the table isn't rehashed. Like a MapAdapter with OPEN_ADDRESSING_STORAGE, the map takes no locks, so it must not be shared between threads without external synchronization.
+ */
+
+public class IntMapAdapter implements HMap {
+
+    /**
+     * Marker left in the value array by a removed mapping.
+     */
+    private static final Object DELETED = new Object();
+
+    /**
+     * Length of the table of an empty map.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Length of the largest table (a power of two).
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+    private int deleted = 0;
+    private int threshold;
+
+    /**
+     * Views of the map, created at the first call of entrySet(), keySet() and values() (the last one is not called values, as the array of the values already is). They hold no state but the reference to the map, so a race between two first calls only creates one more view.
+     */
+    private HSet entrySet = null;
+    private HSet keySet = null;
+    private HCollection valueCollection = null;
+
+    /**
+     * Constructs an empty map.
+     */
+    public IntMapAdapter() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map whose table can hold the specified number of mappings without being rehashed.
+     * @param expectedSize the number of mappings the map is expected to hold.
+     * @throws IllegalArgumentException if the expected size is negative.
+     */
+    public IntMapAdapter(int expectedSize) {
+        if(expectedSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        int capacity = MIN_CAPACITY;
+        while(capacity / 4 * 3 < expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the first slot probed for the key in a table of mask + 1 slots. The key is scrambled with the golden ratio, as in OpenHashStorage, so that sequential keys don't end up in one long run of slots.
+     */
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the key, or -1 if the key isn't in the table.
+     */
+    private int find(int key) {
+        int[] ks = keys;
+        Object[] vs = values;
+        int mask = ks.length - 1;
+        int i = slot(key, mask);
+        Object v;
+        while((v = vs[i]) != null) {
+            if(v != DELETED && ks[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value to which this map maps the specified key, or null if the map contains no mapping for this key.
+     * @param key key whose associated value is to be returned.
+     * @return the value to which this map maps the specified key, or null.
+     */
+    public Object get(int key) {
+        int i = find(key);
+        return i < 0 ? null : values[i];
+    }
+
+    /**
+     * Returns true if this map contains a mapping for the specified key.
+     * @param key key whose presence in this map is to be tested.
+     * @return true if this map contains a mapping for the specified key.
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map, replacing the previous value if the map already contained a mapping for the key.
+     * @param key key with which the specified value is to be associated.
+     * @param value value to be associated with the specified key.
+     * @return previous value associated with the specified key, or null if there was no mapping for the key.
+     * @throws NullPointerException if the value is null.
+     */
+    public Object put(int key, Object value) {
+        if(value == null) {
+            throw new NullPointerException();
+        }
+        int[] ks = keys;
+        Object[] vs = values;
+        int mask = ks.length - 1;
+        int i = slot(key, mask);
+        int free = -1;
+        Object v;
+        while((v = vs[i]) != null) {
+            if(v == DELETED) {
+                if(free < 0) {
+                    free = i;
+                }
+            }
+            else if(ks[i] == key) {
+                vs[i] = value;
+                return v;
+            }
+            i = (i + 1) & mask;
+        }
+        if(free >= 0) {
+            i = free;
+            deleted--;
+        }
+        else if(size + deleted == mask) {
+            throw new IllegalStateException(); // Tabella piena: serve almeno uno slot vuoto per terminare le ricerche
+        }
+        ks[i] = key;
+        vs[i] = value;
+        size++;
+        if(size + deleted > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the key from this map if it is present.
+     * @param key key whose mapping is to be removed from the map.
+     * @return previous value associated with the specified key, or null if there was no mapping for the key.
+     */
+    public Object remove(int key) {
+        int i = find(key);
+        if(i < 0) {
+            return null;
+        }
+        Object old = values[i];
+        removeSlot(i);
+        return old;
+    }
+
+    /**
+     * Returns an iterator over the keys of this map, whose nextInt() method returns them without boxing them. The iterator walks the table that was in use when it was created, like the iterators of the views.
+     * @return an iterator over the keys of this map.
+     */
+    public HIntIterator keyIterator() {
+        return new SlotIterator(SlotSpliterator.KEYS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation empties the slots of the table.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        deleted = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns false if the key isn't an Integer, otherwise it unboxes it and calls containsKey(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation scans the value array.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if(value == null) {
+            throw new NullPointerException();
+        }
+        Object[] vs = values;
+        for(int i = 0; i < vs.length; i++) {
+            Object v = vs[i];
+            if(v != null && v != DELETED && value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator walks the table that was in use when it was instantiated and creates each entry, with the key boxed only if getKey() is called, when it is returned. The entries write through to the map: setValue(Object) replaces the value directly in the slot the entry was read from (or, if the table has been rebuilt since, in the slot of its key), unless the mapping has been removed in the meantime, in which case only the entry changes.
+     */
+    @Override
+    public HSet entrySet() {
+        if(entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation first checks if the specified object is this map, if so it returns true. Then, it checks if the specified object is a map whose size is identical to the size of this map, if not, it returns false. If so, it looks up the key of every mapping of this map in the other map (unboxed, if the other map is an IntMapAdapter) and compares the values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HMap)) {
+            return false;
+        }
+        HMap m = (HMap) o;
+        if(m.size() != size) {
+            return false;
+        }
+        IntMapAdapter other = o instanceof IntMapAdapter ? (IntMapAdapter) o : null;
+        int[] ks = keys;
+        Object[] vs = values;
+        try {
+            for(int i = 0; i < vs.length; i++) {
+                Object v = vs[i];
+                if(v != null && v != DELETED) {
+                    Object w = other != null ? other.get(ks[i]) : m.get(Integer.valueOf(ks[i]));
+                    if(!v.equals(w)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        catch (ClassCastException cce)   {
+            return false;
+        }
+        catch (NullPointerException npe) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns null if the key isn't an Integer, otherwise it unboxes it and calls get(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object get(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation walks the table, adding up the hashcode each mapping's entry would have (the hashcode of the key as an Integer, xor the hashcode of the value) without creating the entries.
+     */
+    @Override
+    public int hashCode() {
+        int[] ks = keys;
+        Object[] vs = values;
+        int sum = 0;
+        for(int i = 0; i < vs.length; i++) {
+            Object v = vs[i];
+            if(v != null && v != DELETED) {
+                sum += hash(ks[i]) ^ v.hashCode();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks the mapping count.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator walks the table that was in use when it was instantiated and boxes each key when it is returned by next(); the iterator returned by keyIterator() returns the keys unboxed.
+     */
+    @Override
+    public HSet keySet() {
+        if(keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation unboxes the key and calls put(int, Object).
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException if the key isn't an Integer.
+     */
+    @Override
+    public Object put(Object key, Object value) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        return put(((Integer) key).intValue(), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>If the map is an IntMapAdapter, this implementation walks its table and puts its mappings without boxing the keys. Otherwise it iterates over the entrySet of the map and calls put(Object, Object) for each of its elements.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException if a key of the map isn't an Integer.
+     */
+    @Override
+    public void putAll(HMap m) {
+        if(m == null) {
+            throw new NullPointerException();
+        }
+        if(m instanceof IntMapAdapter) {
+            IntMapAdapter other = (IntMapAdapter) m;
+            int[] ks = other.keys;
+            Object[] vs = other.values;
+            for(int i = 0; i < vs.length; i++) {
+                Object v = vs[i];
+                if(v != null && v != DELETED) {
+                    put(ks[i], v);
+                }
+            }
+            return;
+        }
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HEntry e = (HEntry) it.next();
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns null if the key isn't an Integer, otherwise it unboxes it and calls remove(int).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object remove(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns the mapping count.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a collection which is backed by the map, so changes to the map are reflected in the collection, and vice-versa. Its iterator walks the table that was in use when it was instantiated, without boxing the keys. Its remove(Object) method removes every mapping to the value.
+     */
+    @Override
+    public HCollection values() {
+        if(valueCollection == null) {
+            valueCollection = new Values();
+        }
+        return valueCollection;
+    }
+
+    /**
+     * Returns the hashcode of the key as an Integer.
+     */
+    private static int hash(int key) {
+        return key;
+    }
+
+    /**
+     * Removes the mapping held by the slot. If the following slot is empty no probe sequence goes through this slot, so it's emptied instead of being marked as DELETED.
+     */
+    private void removeSlot(int i) {
+        if(values[(i + 1) & (values.length - 1)] == null) {
+            values[i] = null;
+        }
+        else {
+            values[i] = DELETED;
+            deleted++;
+        }
+        size--;
+    }
+
+    /**
+     * Replaces the value mapped to the key, if the key is mapped, without adding a mapping otherwise. If the slot still holds the key, the value is written there without probing the table.
+     */
+    private void replace(int key, Object value, int slot) {
+        Object[] vs = values;
+        if(slot < 0 || slot >= vs.length || vs[slot] == null || vs[slot] == DELETED || keys[slot] != key) {
+            slot = find(key); // Lo slot non contiene piu' la chiave (rimossa o tabella ricostruita)
+            if(slot < 0) {
+                return;
+            }
+        }
+        vs[slot] = value;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = capacity / 4 * 3;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length;
+        if(size > threshold / 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        deleted = 0;
+        int mask = capacity - 1;
+        for(int j = 0; j < oldValues.length; j++) {
+            Object v = oldValues[j];
+            if(v != null && v != DELETED) {
+                int i = slot(oldKeys[j], mask);
+                while(values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = v;
+            }
+        }
+    }
+
+    /**
+     * Returns the element of a view of the specified kind (SlotSpliterator.KEYS, VALUES or ENTRIES) corresponding to the mapping, which an iterator found in the slot (-1 if the table has been rebuilt since the iterator was created).
+     */
+    private Object element(int kind, int key, Object value, int slot) {
+        if(kind == SlotSpliterator.KEYS) {
+            return Integer.valueOf(key);
+        }
+        if(kind == SlotSpliterator.VALUES) {
+            return value;
+        }
+        return new SlotEntry(key, value, slot);
+    }
+
+    /**
+     * Walks the slots of the table and removes the mappings whose element, in a view of the specified kind, matches, in a single pass.
+     */
+    private boolean removeIf(int kind, HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        boolean flag = false;
+        int[] ks = keys;
+        Object[] vs = values;
+        for(int i = 0; i < vs.length; i++) {
+            Object v = vs[i];
+            if(v != null && v != DELETED && filter.test(element(kind, ks[i], v, i))) {
+                removeSlot(i);
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Iterator over the mappings of the table that was in use when it was created. nextInt() returns the key of the next mapping, next() the element of a view of the specified kind for that mapping. remove() removes the mapping through its slot only if the slot still holds the key returned, otherwise it removes the key from the map, if it's still mapped.
+     */
+    private class SlotIterator implements HIntIterator {
+
+        private final int kind;
+        private final int[] ks = keys;
+        private final Object[] vs = values;
+        private int index = 0;
+        private int current = -1;
+        private int key;
+
+        SlotIterator(int kind) {
+            this.kind = kind;
+        }
+
+        public boolean hasNext() {
+            while(index < vs.length) {
+                Object v = vs[index];
+                if(v != null && v != DELETED) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        public int nextInt() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = index++;
+            key = ks[current];
+            return key;
+        }
+
+        public Object next() {
+            int key = nextInt();
+            return element(kind, key, vs[current], vs == values ? current : -1);
+        }
+
+        public void remove() {
+            if(current < 0) {
+                throw new IllegalStateException();
+            }
+            if(vs == values && vs[current] != null && vs[current] != DELETED && ks[current] == key) {
+                removeSlot(current);
+            }
+            else {
+                IntMapAdapter.this.remove(key); // Lo slot non e' piu' valido: la tabella e' stata ricostruita o la chiave rimossa
+            }
+            current = -1;
+        }
+
+    }
+
+    private class EntrySet extends SetView {
+
+        public void clear() {
+            IntMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            Object v = IntMapAdapter.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.ENTRIES);
+        }
+
+        public boolean remove(Object o) {
+            if(!contains(o)) {
+                return false;
+            }
+            IntMapAdapter.this.remove(((HMap.HEntry) o).getKey());
+            return true;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return IntMapAdapter.this.removeIf(SlotSpliterator.ENTRIES, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private class KeySet extends SetView {
+
+        public void clear() {
+            IntMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.KEYS);
+        }
+
+        public boolean remove(Object o) {
+            return IntMapAdapter.this.remove(o) != null;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return IntMapAdapter.this.removeIf(SlotSpliterator.KEYS, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private class Values extends CollectionView {
+
+        public void clear() {
+            IntMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.VALUES);
+        }
+
+        /**
+         * Removes every mapping to the value, walking the slots of the table.
+         */
+        public boolean remove(Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            boolean flag = false;
+            Object[] vs = values;
+            for(int i = 0; i < vs.length; i++) {
+                Object v = vs[i];
+                if(v != null && v != DELETED && o.equals(v)) {
+                    removeSlot(i);
+                    flag = true;
+                }
+            }
+            return flag;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return IntMapAdapter.this.removeIf(SlotSpliterator.VALUES, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    /**
+     * Entry returned by the iterator of the entrySet. The key is boxed only when getKey() is called, and setValue(Object) replaces the value in the map, in the slot the entry was read from.
+     */
+    private class SlotEntry implements HMap.HEntry {
+
+        private final int key;
+        private Object value;
+        private final int slot;
+
+        SlotEntry(int key, Object value, int slot) {
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+
+        public Object getKey() {
+            return Integer.valueOf(key);
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            if(value == null) {
+                throw new NullPointerException();
+            }
+            Object tmp = this.value;
+            this.value = value;
+            replace(key, value, slot);
+            return tmp;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof HMap.HEntry)) {
+                return false;
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            return getKey().equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        public int hashCode() {
+            return hash(key) ^ value.hashCode();
+        }
+
+    }
+
+}
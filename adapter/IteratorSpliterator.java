@@ -0,0 +1,82 @@
+package adapter;
+
+/**
+ * HSpliterator over a collection which can only be traversed with its iterator. Splitting copies the next batch of elements to an array and returns a spliterator over the array; the batches grow at every split, so that the copies stay a small part of the work.
+ */
+
+class IteratorSpliterator implements HSpliterator {
+
+    /**
+     * Size of the first batch.
+     */
+    private static final int BATCH = 1024;
+
+    /**
+     * Size of the largest batch.
+     */
+    private static final int MAX_BATCH = 1 << 25;
+
+    private final HCollection c;
+    private HIterator it = null;
+    private long remaining;
+    private int batch = BATCH;
+
+    IteratorSpliterator(HCollection c) {
+        this.c = c;
+        this.remaining = c.size();
+    }
+
+    private HIterator iterator() {
+        if(it == null) {
+            it = c.iterator();
+        }
+        return it;
+    }
+
+    public boolean tryAdvance(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        HIterator i = iterator();
+        if(!i.hasNext()) {
+            return false;
+        }
+        action.accept(i.next());
+        if(remaining > 0) {
+            remaining--;
+        }
+        return true;
+    }
+
+    public void forEachRemaining(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        HIterator i = iterator();
+        while(i.hasNext()) {
+            action.accept(i.next());
+        }
+        remaining = 0;
+    }
+
+    public HSpliterator trySplit() {
+        HIterator i = iterator();
+        if(remaining <= 1 || !i.hasNext()) {
+            return null;
+        }
+        int n = (int) Math.min(Math.min(batch, remaining), MAX_BATCH);
+        Object[] a = new Object[n];
+        int j = 0;
+        while(j < n && i.hasNext()) {
+            a[j++] = i.next();
+        }
+        remaining -= j;
+        batch = Math.min(batch + BATCH, MAX_BATCH);
+        return new SlotSpliterator(a, null, 0, j, SlotSpliterator.KEYS, null, false);
+    }
+
+    public long estimateSize() {
+        return remaining;
+    }
+
+}
@@ -1,19 +1,76 @@
 package adapter;
 
 import java.util.NoSuchElementException;
-import java.util.Vector;
 
 /**
  * Adapter class from CLDC 1.1 Vector to JSE 1.4.2 List (interface HList). This class implements an Object Adapter, therefore it stores a Vector instance which is used by the List's methods. This implementation does not allow null elements.
+ * <p>The list can alternatively be created with ARRAY_STORAGE, in which case the elements are kept in an unsynchronized growable array instead of the vector and the iterators walk the array directly. Such a list must not be shared between threads without external synchronization.
+ * <p>With GAP_BUFFER_STORAGE the elements are kept in an unsynchronized array with a gap of free slots, which is moved to the position of every insertion and removal. It suits lists which are edited around a moving position, for example through a listIterator: consecutive insertions and removals near the same index take amortized constant time instead of shifting the whole tail. The same restriction on threads applies.
+ * <p>With ROPE_STORAGE the elements are kept in the leaves of an unsynchronized balanced tree, each leaf holding a chunk of consecutive elements. get(int), set(int, Object), add(int, Object) and remove(int) take logarithmic time at any position, and addAll(int, HCollection) and removeRange(int, int) split and join the tree instead of shifting the tail, so it suits very large lists edited at random positions. The same restriction on threads applies.
  */
 
 public class ListAdapter implements HList {
 
-    private Vector v = new Vector();
+    /**
+     * Storage mode which keeps the elements in a CLDC 1.1 Vector. Every access to the list is synchronized on the vector. This is the default mode.
+     */
+    public static final int VECTOR_STORAGE = 0;
+
+    /**
+     * Storage mode which keeps the elements in a growable array which is never locked.
+     */
+    public static final int ARRAY_STORAGE = 1;
+
+    /**
+     * Storage mode which keeps the elements in a gap buffer which is never locked.
+     */
+    public static final int GAP_BUFFER_STORAGE = 2;
+
+    /**
+     * Storage mode which keeps the elements in a rope (a balanced tree of chunks) which is never locked.
+     */
+    public static final int ROPE_STORAGE = 3;
+
+    /**
+     * Size above which the bulk operations build a transient hash set of a collection instead of searching it linearly.
+     */
+    static final int LOOKUP_THRESHOLD = 16;
+
+    private ListStorage storage;
+
+    /**
+     * Constructs an empty list backed by a Vector (VECTOR_STORAGE).
+     */
+    public ListAdapter() {
+        this(VECTOR_STORAGE);
+    }
+
+    /**
+     * Constructs an empty list with the specified storage mode.
+     * @param mode one of VECTOR_STORAGE, ARRAY_STORAGE, GAP_BUFFER_STORAGE or ROPE_STORAGE.
+     * @throws IllegalArgumentException if the storage mode is not one of the above.
+     */
+    public ListAdapter(int mode) {
+        if(mode == VECTOR_STORAGE) {
+            storage = new VectorStorage();
+        }
+        else if(mode == ARRAY_STORAGE) {
+            storage = new ArrayStorage();
+        }
+        else if(mode == GAP_BUFFER_STORAGE) {
+            storage = new GapBufferStorage();
+        }
+        else if(mode == ROPE_STORAGE) {
+            storage = new RopeStorage();
+        }
+        else {
+            throw new IllegalArgumentException();
+        }
+    }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's insertElementAt(Object, int) method.
+     * <p>This implementation calls the vector's insertElementAt(Object, int) method (with ARRAY_STORAGE, it shifts the tail of the array by one position).
      * @throws NullPointerException {@inheritDoc}
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
@@ -22,17 +79,13 @@ public class ListAdapter implements HList {
         if(element == null) {
             throw new NullPointerException();
         }
-        try {
-            v.insertElementAt(element, index);
-        }
-        catch(ArrayIndexOutOfBoundsException e) {
-            throw new IndexOutOfBoundsException();
-        }
+        storage.add(index, element);
+        storage.changed();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's addElement(Object) method.
+     * <p>This implementation calls the vector's addElement(Object) method (with ARRAY_STORAGE, it stores the element in the first free slot of the array, growing the array if it is full).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -40,33 +93,24 @@ public class ListAdapter implements HList {
         if(o == null) {
             throw new NullPointerException();
         }
-        v.addElement(o);
+        storage.add(o);
+        storage.changed();
         return true;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the collection and adds its elements to the List using add(Object).
+     * <p>This implementation calls addAll(int, HCollection) with the size of the list as the index.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
     public boolean addAll(HCollection c) {
-        if(c == null) {
-            throw new NullPointerException();
-        }
-        boolean flag = false;
-        HIterator cit = c.iterator();
-        while(cit.hasNext()) {
-            Object o = cit.next();
-            add(o); // Contiene controllo null
-            flag = true;
-        }
-        return flag;
+        return addAll(size(), c);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the collection and adds its elements to the List at the right index using add(int, Object).
+     * <p>This implementation copies the elements of the collection to an array (using toArray()), checks that none of them is null and then inserts them all at once, so that the vector grows at most once and its tail is shifted only once (with ARRAY_STORAGE, with a single arraycopy). If the collection is a ListAdapter with ARRAY_STORAGE its array is used directly, and if it is a ListAdapter with VECTOR_STORAGE or a SetAdapter the elements are copied straight from its storage, instead of calling toArray(). If the collection contains a null element, NullPointerException is thrown and the list is left unchanged.
      * @throws NullPointerException {@inheritDoc}
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
@@ -78,29 +122,54 @@ public class ListAdapter implements HList {
         if(index < 0 || index > size()) {
             throw new IndexOutOfBoundsException();
         }
-        boolean flag = false;
-        HIterator cit = c.iterator();
-        while(cit.hasNext()) {
-            Object o = cit.next();
-            add(index, o); // Contiene controllo null
-            flag = true;
-            index++;
+        Object[] a;
+        int count;
+        // Le sottoclassi (SubList, ValueCollection) non usano la propria storage: solo le classi esatte
+        if(c.getClass() == ListAdapter.class || c.getClass() == CollectionAdapter.class) {
+            ListStorage s = ((ListAdapter) c).storage;
+            if(s instanceof ArrayStorage) {
+                a = ((ArrayStorage) s).elementData;
+                count = ((ArrayStorage) s).elementCount;
+            }
+            else {
+                a = s.toArray();
+                count = a.length;
+            }
         }
-        return flag;
+        else if(c.getClass() == SetAdapter.class) {
+            a = ((SetAdapter) c).storageToArray();
+            count = a.length;
+        }
+        else {
+            a = c.toArray();
+            count = a.length;
+        }
+        for(int i = 0; i < count; i++) {
+            if(a[i] == null) {
+                throw new NullPointerException();
+            }
+        }
+        if(count == 0) {
+            return false;
+        }
+        storage.addAll(index, a, count);
+        storage.changed();
+        return true;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's removeAllElements() method.
+     * <p>This implementation calls the vector's removeAllElements() method (with ARRAY_STORAGE, it clears the used slots of the array).
      */
     @Override
     public void clear() {
-        v.removeAllElements();
+        storage.clear();
+        storage.changed();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's contains(Object) method.
+     * <p>This implementation calls the vector's indexOf(Object) method (with ARRAY_STORAGE, it scans the array).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -108,12 +177,12 @@ public class ListAdapter implements HList {
         if(o == null) {
             throw new NullPointerException();
         }
-        return v.contains(o);
+        return storage.indexOf(o) != -1;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the collection and checks if its elements are all contained in the List using contains(Object).
+     * <p>This implementation iterates over the collection and checks if its elements are all contained in the List using contains(Object). If both the list and the collection have more than LOOKUP_THRESHOLD elements, the elements of the list are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is probed instead of scanning the list for every element.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -121,6 +190,11 @@ public class ListAdapter implements HList {
         if(c == null) {
             throw new NullPointerException();
         }
+        if(c.size() > LOOKUP_THRESHOLD && size() > LOOKUP_THRESHOLD) {
+            HSet lookup = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+            lookup.addAll(this);
+            return lookup.containsAll(c);
+        }
         HIterator cit = c.iterator();
         while(cit.hasNext()) {
             if(!contains(cit.next()))
@@ -156,25 +230,37 @@ public class ListAdapter implements HList {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's ElementAt(int) method.
+     * <p>This implementation calls the vector's ElementAt(int) method (with ARRAY_STORAGE, it reads the slot of the array).
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
     @Override
     public Object get(int index) {
-        try {
-            return v.elementAt(index);
-        }
-        catch(ArrayIndexOutOfBoundsException e) {
-            throw new IndexOutOfBoundsException();
-        }
+        return storage.get(index);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation uses exactly the code that is used to define the list hash function in the documentation for the List.hashCode method.
+     * <p>This implementation caches the hash, computed with listHash(), until the list is changed: the mutators only increment a version number kept by the storage (volatile only for VECTOR_STORAGE, the one storage which can be shared between threads), and the hash is computed again, lazily, by the first call to hashCode() after a change. A list used as a key of a map is therefore hashed once rather than at every lookup.
      */
     @Override
     public int hashCode() {
+        long c = storage.cachedHash();
+        int v = storage.version();
+        if((int) (c >>> 32) == v) {
+            return (int) c;
+        }
+        int h = listHash();
+        if(storage.version() == v) {
+            storage.cacheHash(v, h);
+        }
+        return h;
+    }
+
+    /**
+     * Computes the hash of the list, walking it with iterator().
+     * <p>This method uses exactly the code that is used to define the list hash function in the documentation for the List.hashCode method.
+     */
+    int listHash() {
         int hashCode = 1;
         HIterator it = iterator();
         while (it.hasNext()) {
@@ -186,7 +272,7 @@ public class ListAdapter implements HList {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's indexOf(Object) method.
+     * <p>This implementation calls the vector's indexOf(Object) method (with ARRAY_STORAGE, it scans the array).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -194,24 +280,44 @@ public class ListAdapter implements HList {
         if(o == null) {
             throw new NullPointerException();
         }
-        return v.indexOf(o);
+        return storage.indexOf(o);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the element between fromIndex, inclusive, and toIndex, exclusive, visiting only that range of the storage. SubList overrides it to translate the range to the backing list.
+     * @return the index of the first occurrence in the range, or -1.
+     */
+    int indexOf(Object o, int fromIndex, int toIndex) {
+        return storage.indexOf(o, fromIndex, toIndex);
+    }
+
+    /**
+     * Returns the index of the last occurrence of the element between fromIndex, inclusive, and toIndex, exclusive, visiting only that range of the storage. SubList overrides it to translate the range to the backing list.
+     * @return the index of the last occurrence in the range, or -1.
+     */
+    int lastIndexOf(Object o, int fromIndex, int toIndex) {
+        return storage.lastIndexOf(o, fromIndex, toIndex);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's isEmpty() method.
+     * <p>This implementation calls the vector's isEmpty() method (with ARRAY_STORAGE, it checks the element count).
      */
     @Override
     public boolean isEmpty() {
-        return v.isEmpty();
+        return storage.size() == 0;
     }
 
     /**
      * {@inheritDoc}
      * <p>This implementation uses an integer cursor to iterate over the list. If the list is modified in any way other than through the iterator's remove() method while an iteration is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator's cursor, in fact, isn't updated by the methods of the list. Therefore, if structural changes are made to the list when an iteration is in progress, the iterator's behavior won't be consistent with the list.
+     * <p>With ARRAY_STORAGE the iterator reads the slots of the array directly instead of calling size() and get(int).
      */
     @Override
     public HIterator iterator() {
+        if(storage instanceof ArrayStorage) {
+            return new ArrayListIterator((ArrayStorage) storage, 0);
+        }
         return new Iterator();
     }
 
@@ -247,7 +353,7 @@ public class ListAdapter implements HList {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's lastIndexOf(Object) method.
+     * <p>This implementation calls the vector's lastIndexOf(Object) method (with ARRAY_STORAGE, it scans the array backwards).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -255,7 +361,7 @@ public class ListAdapter implements HList {
         if(o == null) {
             throw new NullPointerException();
         }
-        return v.lastIndexOf(o);
+        return storage.lastIndexOf(o);
     }
 
     /**
@@ -264,15 +370,19 @@ public class ListAdapter implements HList {
      */
     @Override
     public HListIterator listIterator() {
-        return new ListIterator(0);
+        return listIterator(0);
     }
 
     /**
      * {@inheritDoc}
      * <p>This implementation uses an Internal listIterator class which extends the Iterator class. If the list is modified in any way other than through the listIterator's methods while an iteration is in progress, the changes won't be reflected in the listIterator but the latter will not be invalidated. The listIterator's cursor, in fact, isn't updated by the methods of the list. Therefore, if structural changes are made to the list when an iteration is in progress, the listIterator's behavior won't be consistent with the list.
+     * <p>With ARRAY_STORAGE the listIterator reads the slots of the array directly instead of calling size() and get(int). With GAP_BUFFER_STORAGE its add(Object) and remove() methods move the gap of the buffer to the cursor, so a run of insertions and removals around the cursor doesn't shift the rest of the list.
      */
     @Override
     public HListIterator listIterator(int index) {
+        if(storage instanceof ArrayStorage) {
+            return new ArrayListIterator((ArrayStorage) storage, index);
+        }
         return new ListIterator(index);
     }
 
@@ -319,21 +429,96 @@ public class ListAdapter implements HList {
 
     }
 
+    /**
+     * ListIterator used with ARRAY_STORAGE: the cursor indexes the storage's array, which is read without going through the list's methods. Insertions and removals still go through the list, so the cursor keeps the same semantics as ListIterator.
+     */
+    private class ArrayListIterator implements HListIterator {
+
+        private final ArrayStorage a;
+        private int cursor;
+        private int lastRet = -1;
+
+        ArrayListIterator(ArrayStorage a, int index) {
+            this.a = a;
+            cursor = index;
+        }
+
+        public boolean hasNext() {
+            return cursor < a.elementCount;
+        }
+
+        public Object next() {
+            int i = cursor;
+            if(i < 0 || i >= a.elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            lastRet = i;
+            return a.elementData[i];
+        }
+
+        public boolean hasPrevious() {
+            return cursor != 0;
+        }
+
+        public Object previous() {
+            int i = cursor - 1;
+            if(i < 0 || i >= a.elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i;
+            lastRet = i;
+            return a.elementData[i];
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor-1;
+        }
+
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            ListAdapter.this.remove(lastRet);
+            if (lastRet < cursor)
+                cursor--;
+            lastRet = -1;
+        }
+
+        public void set(Object o) {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            ListAdapter.this.set(lastRet, o);
+        }
+
+        public void add(Object o) {
+            ListAdapter.this.add(cursor, o);
+            cursor++;
+            lastRet = -1;
+        }
+
+    }
+
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the get(int) method and the vector's removeElementAt(int) method and then returns the object returned by get(int).
+     * <p>This implementation calls the get(int) method and the vector's removeElementAt(int) method and then returns the object returned by get(int) (with ARRAY_STORAGE, it shifts the tail of the array by one position).
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
     @Override
     public Object remove(int index) {
-        Object o = get(index);  // Contiene controllo bounds
-        v.removeElementAt(index);
+        Object o = storage.remove(index); // Contiene controllo bounds
+        storage.changed();
         return o;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's removeElement(Object) method.
+     * <p>This implementation calls the vector's removeElement(Object) method (with ARRAY_STORAGE, it scans the array and shifts its tail).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -341,12 +526,16 @@ public class ListAdapter implements HList {
         if(o == null) {
             throw new NullPointerException();
         }
-        return v.removeElement(o);
+        if(!storage.remove(o)) {
+            return false;
+        }
+        storage.changed();
+        return true;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the collection and removes its elements from the set using remove(Object).
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements contained in the collection, so every occurrence of those elements is removed in a single pass. If the collection isn't a set and has more than LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -354,19 +543,54 @@ public class ListAdapter implements HList {
         if(c == null) {
             throw new NullPointerException();
         }
-        boolean flag = false;
-        HIterator cit = c.iterator();
-        while(cit.hasNext()) {
-            if(remove(cit.next())) { // Contiene controllo null
-                flag = true;
-            }
+        return removeIf(new MembershipPredicate(lookupOf(c), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation makes a single pass over the vector (with ARRAY_STORAGE, over the array), testing each element and moving the elements which are kept down over the removed ones, so that the tail is shifted only once.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean removeIf(HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(filter, 0, size()) > 0;
+    }
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive, which satisfy the predicate, in a single pass over the storage. SubList overrides it to translate the range to the backing list.
+     * @return the number of elements removed.
+     */
+    int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+        int removed = storage.removeIf(filter, fromIndex, toIndex);
+        if(removed > 0) {
+            storage.changed();
         }
-        return flag;
+        return removed;
+    }
+
+    /**
+     * Removes from this list all of the elements whose index is between fromIndex, inclusive, and toIndex, exclusive, shifting the following elements to the left only once. If fromIndex equals toIndex, the list is unchanged.
+     * @param fromIndex index of the first element to be removed.
+     * @param toIndex index after the last element to be removed.
+     * @throws IndexOutOfBoundsException if fromIndex or toIndex is out of range (fromIndex &lt; 0 || toIndex &gt; size() || fromIndex &gt; toIndex).
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if(fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(fromIndex == toIndex) {
+            return;
+        }
+        storage.removeRange(fromIndex, toIndex);
+        storage.changed();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the list and removes from the list the elements which are not contained in the collection (using the iterator's remove() method).
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements not contained in the collection. If the collection isn't a set and has more than LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -374,21 +598,24 @@ public class ListAdapter implements HList {
         if(c == null) {
             throw new NullPointerException();
         }
-        boolean flag = false;
-        HIterator it = iterator();
-        while(it.hasNext()) {
-            Object o = it.next();
-            if(!c.contains(o)) {
-                it.remove(); // Contiene controllo null
-                flag = true;
-            }
+        return removeIf(new MembershipPredicate(lookupOf(c), false));
+    }
+
+    /**
+     * Returns a collection whose contains(Object) method answers like the one of c, but in constant time: c itself if it is a set or a small collection, otherwise a SetAdapter with OPEN_ADDRESSING_STORAGE containing the elements of c.
+     */
+    static HCollection lookupOf(HCollection c) {
+        if(c instanceof HSet || c.size() <= LOOKUP_THRESHOLD) {
+            return c;
         }
-        return flag;
+        HSet lookup = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+        lookup.addAll(c);
+        return lookup;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the get(int) method and the vector's setElementAt(Object, int) method and then returns the object returned by get(int).
+     * <p>This implementation calls the get(int) method and the vector's setElementAt(Object, int) method and then returns the object returned by get(int) (with ARRAY_STORAGE, it swaps the slot of the array).
      * @throws NullPointerException {@inheritDoc}
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
@@ -397,41 +624,55 @@ public class ListAdapter implements HList {
         if(element == null) {
             throw new NullPointerException();
         }
-        Object o = get(index); // Throws IndexOutOfBoundsException
-        v.setElementAt(element, index);
-        return o;
+        Object old = storage.set(index, element); // Throws IndexOutOfBoundsException
+        storage.changed();
+        return old;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the vector's size() method.
+     * <p>This implementation calls the vector's size() method (with ARRAY_STORAGE, it returns the element count).
      */
     @Override
     public int size() {
-        return v.size();    //Integer.maxValue??
+        return storage.size();    //Integer.maxValue??
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation returns a view of the portion of this list between the specified fromIndex, inclusive, and toIndex, exclusive. The returned list is backed by this list, so non-structural changes in the returned list are reflected in this list, and vice-versa. The behavior of the list returned by this method becomes inconsistent with the backing list (i.e., this list) if the latter is structurally modified in any way other than via the returned list. The sublist is, in fact, implemented with an inner class wich stores the offset and the size of the sublist, which are not updated by the methods of the backing list. The sublists won't be invalidated when structural changes are made to the backing list.
+     * <p>This implementation returns a view of the portion of this list between the specified fromIndex, inclusive, and toIndex, exclusive. The returned list is backed by this list, so non-structural changes in the returned list are reflected in this list, and vice-versa. The behavior of the list returned by this method becomes inconsistent with the backing list (i.e., this list) if the latter is structurally modified in any way other than via the returned list. The sublist is, in fact, implemented with a nested class wich stores the offset and the size of the sublist, which are not updated by the methods of the backing list. The sublists won't be invalidated when structural changes are made to the backing list.
+     * <p>The sublist has no storage of its own: it keeps a reference to this list and the offset of its first element. A sublist of a sublist refers directly to the same list, with the two offsets added up, so get(int) and set(int, Object) cost the same at any depth of nesting.
      * @throws IndexOutOfBoundsException {@inheritDoc}
      */
     public HList subList(int fromIndex, int toIndex) {
-        return new SubList(this, fromIndex, toIndex);
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new SubList(this, null, fromIndex, toIndex - fromIndex);
     }
 
-    private class SubList extends ListAdapter {
-        private int offset = -1;
-        private int size = -1;
-        private ListAdapter l = null;
-        
-        public SubList(ListAdapter list, int fromIndex, int toIndex) {
-            if (fromIndex < 0 || toIndex > list.size() || fromIndex > toIndex) {
-                throw new IndexOutOfBoundsException();
-            }
-            l = list;
-            offset = fromIndex;
-            size = toIndex - fromIndex;
+    /**
+     * Constructor used by SubList, which has no storage: every method of SubList goes to the root list.
+     */
+    private ListAdapter(ListStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * View of a range of the root list. The offset is relative to the root list even for a sublist of a sublist; the parent is only used to update the sizes of the enclosing sublists after a structural change.
+     */
+    private static class SubList extends ListAdapter {
+        private final ListAdapter root;
+        private final SubList parent;
+        private final int offset;
+        private int size;
+
+        SubList(ListAdapter root, SubList parent, int offset, int size) {
+            super((ListStorage) null);
+            this.root = root;
+            this.parent = parent;
+            this.offset = offset;
+            this.size = size;
         }
     
         private void boundCheck(int index) {
@@ -445,16 +686,25 @@ public class ListAdapter implements HList {
                 throw new IndexOutOfBoundsException();
             }
         }
+
+        /**
+         * Adds delta to the size of this sublist and of the sublists which enclose it.
+         */
+        private void updateSize(int delta) {
+            for(SubList s = this; s != null; s = s.parent) {
+                s.size += delta;
+            }
+        }
     
         public void add(int index, Object element) {
             boundCheckForAdd(index);
-            l.add(offset + index, element);
-            size++;
+            root.add(offset + index, element);
+            updateSize(1);
         }
     
         public boolean add(Object o) {
-            l.add(offset + size, o);
-            size++;
+            root.add(offset + size, o);
+            updateSize(1);
             return true;
         }
     
@@ -464,38 +714,60 @@ public class ListAdapter implements HList {
     
         public boolean addAll(int index, HCollection c) {
             boundCheckForAdd(index);
-            int cSize = c.size();
-            if(cSize == 0) {
+            int before = root.size();
+            if(!root.addAll(offset + index, c)) {
                 return false;
             }
-            l.addAll(offset + index, c);
-            size += cSize;
+            updateSize(root.size() - before);
             return true;
         }
     
         public void clear() {
-            HIterator it = iterator();
-            while(it.hasNext()) {
-                it.next();
-                it.remove();
+            removeRange(0, size);
+        }
+
+        public void removeRange(int fromIndex, int toIndex) {
+            if(fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException();
             }
+            root.removeRange(offset + fromIndex, offset + toIndex);
+            updateSize(fromIndex - toIndex);
         }
 
         public boolean contains(Object o) {
             return indexOf(o) != -1;
         }
+
+        public boolean containsAll(HCollection c) {
+            if(c == null) {
+                throw new NullPointerException();
+            }
+            HIterator cit = c.iterator();
+            while(cit.hasNext()) {
+                if(!contains(cit.next()))
+                    return false;
+            }
+            return true;
+        }
     
         public Object get(int index) {
             boundCheck(index);
-            return l.get(offset + index);
+            return root.get(offset + index);
         }
     
         public int indexOf(Object o) {
-            int index = l.indexOf(o);
-            if(index < offset || index >= (offset + size)) {
-                return -1;
+            if(o == null) {
+                throw new NullPointerException();
             }
-            return index - offset;
+            return indexOf(o, 0, size);
+        }
+
+        /**
+         * Searches only the range of the root list covered by the sublist.
+         */
+        int indexOf(Object o, int fromIndex, int toIndex) {
+            int index = root.indexOf(o, offset + fromIndex, offset + toIndex);
+            return index < 0 ? -1 : index - offset;
         }
     
         public boolean isEmpty() {
@@ -507,11 +779,18 @@ public class ListAdapter implements HList {
         }
     
         public int lastIndexOf(Object o) {
-            int index = l.lastIndexOf(o);
-            if(index < offset || index >= (offset + size)) {
-                return -1;
+            if(o == null) {
+                throw new NullPointerException();
             }
-            return index - offset;
+            return lastIndexOf(o, 0, size);
+        }
+
+        /**
+         * Searches only the range of the root list covered by the sublist.
+         */
+        int lastIndexOf(Object o, int fromIndex, int toIndex) {
+            int index = root.lastIndexOf(o, offset + fromIndex, offset + toIndex);
+            return index < 0 ? -1 : index - offset;
         }
     
         public HListIterator listIterator() {
@@ -519,6 +798,7 @@ public class ListAdapter implements HList {
         }
     
         public HListIterator listIterator(int index) {
+            boundCheckForAdd(index);
             return new SubListIterator(index);
         }
     
@@ -526,7 +806,7 @@ public class ListAdapter implements HList {
             private HListIterator it = null;
     
             SubListIterator(int index) {
-                it = ListAdapter.this.listIterator(index+offset);
+                it = root.listIterator(index+offset);
             }
     
             public boolean hasNext() {
@@ -535,7 +815,7 @@ public class ListAdapter implements HList {
     
             public Object next() {
                 if(hasNext()) { // hasNext() di subList, che controlla indici
-                    return it.next(); // next usa l'hasNext() di ListAdapter
+                    return it.next(); // next usa l'hasNext() della lista radice
                 }
                 else {
                     throw new NoSuchElementException();
@@ -565,7 +845,7 @@ public class ListAdapter implements HList {
     
             public void remove() {
                 it.remove();
-                size--;
+                updateSize(-1);
             }
     
             public void set(Object o) {
@@ -574,14 +854,14 @@ public class ListAdapter implements HList {
     
             public void add(Object o) {
                 it.add(o);
-                size++;
+                updateSize(1);
             }
         }
     
         public Object remove(int index) {
             boundCheck(index);
-            Object o = l.remove(offset + index);
-            size--;
+            Object o = root.remove(offset + index);
+            updateSize(-1);
             return o;
         }
     
@@ -589,44 +869,33 @@ public class ListAdapter implements HList {
             if(o == null) {
                 throw new NullPointerException();
             }
-            HIterator it = iterator();
-            while(it.hasNext()) {
-                if(it.next().equals(o)) {
-                    it.remove();
-                    return true;
-                }
+            int index = indexOf(o, 0, size);
+            if(index < 0) {
+                return false;
             }
-            return false;
+            root.remove(offset + index);
+            updateSize(-1);
+            return true;
         }
     
         public boolean removeAll(HCollection c) {
             if(c == null) {
                 throw new NullPointerException();
             }
-            boolean flag = false;
-            HIterator cit = c.iterator();
-            while(cit.hasNext()) {
-                if(remove(cit.next())) {
-                    flag = true;
-                }
-            }
-            return flag;
+            return removeIf(new MembershipPredicate(lookupOf(c), true));
+        }
+
+        int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+            int removed = root.removeIf(filter, offset + fromIndex, offset + toIndex);
+            updateSize(-removed);
+            return removed;
         }
     
         public boolean retainAll(HCollection c) {
             if(c == null) {
                 throw new NullPointerException();
             }
-            boolean flag = false;
-            HIterator it = iterator();
-            while(it.hasNext()) {
-                Object o = it.next();
-                if(!c.contains(o)) {
-                    it.remove();
-                    flag = true;
-                }
-            }
-            return flag;
+            return removeIf(new MembershipPredicate(lookupOf(c), false));
         }
     
         public Object set(int index, Object element) {
@@ -634,12 +903,29 @@ public class ListAdapter implements HList {
                 throw new NullPointerException();
             }
             boundCheck(index);
-            return l.set(offset + index, element);
+            return root.set(offset + index, element);
         }
     
         public int size() {
             return size;
         }
+
+        /**
+         * Returns a view which refers directly to the root list, so that nesting doesn't add a level of delegation.
+         */
+        public HList subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new SubList(root, this, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        /**
+         * The hash isn't cached: the sublist isn't told about the changes made to the backing list.
+         */
+        public int hashCode() {
+            return listHash();
+        }
     }
     
     /**
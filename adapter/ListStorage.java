@@ -0,0 +1,171 @@
+package adapter;
+
+/**
+ * Backing storage of a ListAdapter. The storage only keeps the elements in order: null checks are left to the ListAdapter, while index checks are done here and always reported with an IndexOutOfBoundsException.
+ */
+
+abstract class ListStorage {
+
+    /**
+     * Number of changes made to the storage, incremented by the ListAdapter through changed(). A plain field: only VectorStorage can be shared between threads, and it overrides the accessors with a volatile one.
+     */
+    private int version = 0;
+
+    /**
+     * Hash of the list (low 32 bits) and the version it was computed at (high 32 bits), kept in a single field so that they are published together.
+     */
+    private long cachedHash = -1L << 32;
+
+    /**
+     * Returns the number of changes made to the storage.
+     * @return the number of changes made to the storage.
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * Records a change made to the storage, invalidating the cached hash.
+     */
+    void changed() {
+        version++;
+    }
+
+    /**
+     * Returns the cached hash with the version it was computed at in the high 32 bits.
+     * @return the cached hash and its version.
+     */
+    long cachedHash() {
+        return cachedHash;
+    }
+
+    /**
+     * Caches the hash computed at the specified version.
+     * @param version version at which the hash was computed.
+     * @param hash hash of the list.
+     */
+    void cacheHash(int version, int hash) {
+        cachedHash = ((long) version << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the number of elements in the storage.
+     * @return the number of elements in the storage.
+     */
+    abstract int size();
+
+    /**
+     * Returns the element at the specified position.
+     * @param index index of the element to return.
+     * @return the element at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    abstract Object get(int index);
+
+    /**
+     * Replaces the element at the specified position.
+     * @param index index of the element to replace.
+     * @param o element to be stored at the specified position.
+     * @return the element previously at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    abstract Object set(int index, Object o);
+
+    /**
+     * Appends the element to the end of the storage.
+     * @param o element to be appended.
+     */
+    abstract void add(Object o);
+
+    /**
+     * Inserts the element at the specified position, shifting the following elements to the right.
+     * @param index index at which the element is to be inserted.
+     * @param o element to be inserted.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt; size()).
+     */
+    abstract void add(int index, Object o);
+
+    /**
+     * Inserts the first count elements of the array at the specified position, shifting the following elements to the right only once.
+     * @param index index at which the first element is to be inserted.
+     * @param a array holding the elements to be inserted (it may be the storage's own array).
+     * @param count number of elements to be inserted.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt; size()).
+     */
+    abstract void addAll(int index, Object[] a, int count);
+
+    /**
+     * Removes the element at the specified position, shifting the following elements to the left.
+     * @param index the index of the element to removed.
+     * @return the element previously at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range (index &lt; 0 || index &gt;= size()).
+     */
+    abstract Object remove(int index);
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive, which satisfy the predicate, compacting the survivors in a single pass so that the tail is shifted only once. If the predicate throws, the elements not yet tested are kept.
+     * @param filter predicate which returns true for the elements to be removed.
+     * @param fromIndex index of the first element to be tested.
+     * @param toIndex index after the last element to be tested.
+     * @return the number of elements removed.
+     */
+    abstract int removeIf(HPredicate filter, int fromIndex, int toIndex);
+
+    /**
+     * Removes the elements between fromIndex, inclusive, and toIndex, exclusive, shifting the tail to the left only once. The indexes are not checked.
+     * @param fromIndex index of the first element to be removed.
+     * @param toIndex index after the last element to be removed.
+     */
+    abstract void removeRange(int fromIndex, int toIndex);
+
+    /**
+     * Removes the first occurrence of the element.
+     * @param o element to be removed.
+     * @return true if the storage contained the element.
+     */
+    abstract boolean remove(Object o);
+
+    /**
+     * Returns the index of the first occurrence of the element, or -1 if there is none.
+     * @param o element to search for.
+     * @return the index of the first occurrence of the element, or -1.
+     */
+    abstract int indexOf(Object o);
+
+    /**
+     * Returns the index of the last occurrence of the element, or -1 if there is none.
+     * @param o element to search for.
+     * @return the index of the last occurrence of the element, or -1.
+     */
+    abstract int lastIndexOf(Object o);
+
+    /**
+     * Returns the index of the first occurrence of the element between fromIndex, inclusive, and toIndex, exclusive, or -1 if there is none. Only the elements of the range are visited.
+     * @param o element to search for.
+     * @param fromIndex low endpoint (inclusive) of the range.
+     * @param toIndex high endpoint (exclusive) of the range.
+     * @return the index of the first occurrence of the element in the range, or -1.
+     */
+    abstract int indexOf(Object o, int fromIndex, int toIndex);
+
+    /**
+     * Returns the index of the last occurrence of the element between fromIndex, inclusive, and toIndex, exclusive, or -1 if there is none. Only the elements of the range are visited.
+     * @param o element to search for.
+     * @param fromIndex low endpoint (inclusive) of the range.
+     * @param toIndex high endpoint (exclusive) of the range.
+     * @return the index of the last occurrence of the element in the range, or -1.
+     */
+    abstract int lastIndexOf(Object o, int fromIndex, int toIndex);
+
+    /**
+     * Removes all of the elements.
+     */
+    abstract void clear();
+
+    /**
+     * Returns a new array containing all of the elements in order.
+     * @return a new array containing all of the elements in order.
+     */
+    abstract Object[] toArray();
+
+}
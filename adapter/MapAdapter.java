@@ -1,67 +1,120 @@
 package adapter;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
-
-
 /**
  * Adapter class from CLDC 1.1 Hashtable to JSE 1.4.2 Map (interface HMap). This class implements an Object Adapter, therefore it stores a Hastable instance which is used by the Map's methods. This implementation does not allow null keys and values.
+ * <p>The map can alternatively be created with OPEN_ADDRESSING_STORAGE, in which case the mappings are kept in an unsynchronized open-addressing table (two parallel arrays of keys and values, probed linearly) instead of the hashtable. Such a map must not be shared between threads without external synchronization.
+ * <p>In either mode the map can also keep a reverse index from every value to the keys mapped to it, so that containsValue(Object) and the contains and remove methods of values() are hash lookups instead of scans of the whole map. The index roughly doubles the memory taken by the map and every put(Object, Object) and remove(Object) updates it, so it pays off only when the values are searched often.
  */
 
 
 public class MapAdapter implements HMap {
 
-    private Hashtable h = new Hashtable();
+    /**
+     * Storage mode which keeps the mappings in a CLDC 1.1 Hashtable. Every access to the map is synchronized on the hashtable. This is the default mode.
+     */
+    public static final int HASHTABLE_STORAGE = 0;
+
+    /**
+     * Storage mode which keeps the mappings in an open-addressing table which is never locked.
+     */
+    public static final int OPEN_ADDRESSING_STORAGE = 1;
+
+    private MapStorage storage;
+
+    /**
+     * Views of the map, created at the first call of entrySet(), keySet() and values(). They hold no state but the reference to the map, so a race between two first calls only creates one more view.
+     */
+    private HSet entrySet = null;
+    private HSet keySet = null;
+    private HCollection values = null;
+
+    /**
+     * Constructs an empty map backed by a Hashtable (HASHTABLE_STORAGE).
+     */
+    public MapAdapter() {
+        this(HASHTABLE_STORAGE);
+    }
+
+    /**
+     * Constructs an empty map with the specified storage mode.
+     * @param mode either HASHTABLE_STORAGE or OPEN_ADDRESSING_STORAGE.
+     * @throws IllegalArgumentException if the storage mode is not one of the above.
+     */
+    public MapAdapter(int mode) {
+        this(mode, false);
+    }
+
+    /**
+     * Constructs an empty map with the specified storage mode, optionally keeping a reverse index of the values.
+     * @param mode either HASHTABLE_STORAGE or OPEN_ADDRESSING_STORAGE.
+     * @param valueIndex true to keep an index from every value to the keys mapped to it.
+     * @throws IllegalArgumentException if the storage mode is not one of the above.
+     */
+    public MapAdapter(int mode, boolean valueIndex) {
+        if(mode != HASHTABLE_STORAGE && mode != OPEN_ADDRESSING_STORAGE) {
+            throw new IllegalArgumentException();
+        }
+        if(valueIndex) {
+            storage = new ValueIndexedStorage(mode == OPEN_ADDRESSING_STORAGE);
+        }
+        else if(mode == HASHTABLE_STORAGE) {
+            storage = new HashtableStorage();
+        }
+        else {
+            storage = new OpenHashStorage();
+        }
+    }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's size() method
+     * <p>This implementation calls the hashtable's clear() method (with OPEN_ADDRESSING_STORAGE, it empties the slots of the table).
      */
     @Override
     public void clear() {
-        h.clear();
+        storage.clear();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's containsKey(Object) method
+     * <p>This implementation calls the hashtable's containsKey(Object) method (with OPEN_ADDRESSING_STORAGE, it probes the table).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
     public boolean containsKey(Object key) {
-        return h.containsKey(key);
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        return storage.containsKey(key);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's contains(Object) method
+     * <p>This implementation calls the hashtable's contains(Object) method (with OPEN_ADDRESSING_STORAGE, it scans the value array). With the value index, the value is looked up in the index instead.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
     public boolean containsValue(Object value) {
-        return h.contains(value);
+        if(value == null) {
+            throw new NullPointerException();
+        }
+        return storage.containsValue(value);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation returns a set containing the entries of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys.
+     * <p>This implementation returns a set containing the entries of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys. With OPEN_ADDRESSING_STORAGE the iterator walks the table that was in use when it was instantiated, reading keys and values from its slots.
+     * <p>The entries returned by the iterator write through to the map: setValue(Object) replaces the value of the mapping in the map (with OPEN_ADDRESSING_STORAGE, directly in the slot the entry was read from, without probing the table), unless the mapping has been removed in the meantime, in which case only the entry changes.
+     * <p>The set keeps no elements of its own: it is created at the first call and the same instance is returned by the following ones, so calling this method allocates nothing after the first time.
      */
     @Override
     public HSet entrySet() {
-        return new EntrySet();
+        if(entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
     }
 
-    private class EntrySet extends SetAdapter {
-    
-        @Override
-        public boolean add(Object o) {
-            throw new UnsupportedOperationException();
-        }
-    
-        @Override
-        public boolean addAll(HCollection c) {
-            throw new UnsupportedOperationException();
-        }
+    private class EntrySet extends SetView {
     
         @Override
         public void clear() {
@@ -74,12 +127,8 @@ public class MapAdapter implements HMap {
                 throw new NullPointerException();
             }
             HMap.HEntry e = (HMap.HEntry) o;
-            return MapAdapter.this.containsKey(e.getKey());
-        }
-
-        @Override
-        public boolean isEmpty() {
-            return size() == 0;
+            Object v = MapAdapter.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
         }
 
         @Override
@@ -89,18 +138,19 @@ public class MapAdapter implements HMap {
 
         private class EntryIterator implements HIterator {
 
-            private Enumeration keys = h.keys();
+            private MapStorage.Cursor keys = storage.cursor();
             private Object lastRetKey = null;
 
             @Override
             public boolean hasNext() {
-                return keys.hasMoreElements();
+                return keys.hasNext();
             }
 
             @Override
             public Object next() {
-                lastRetKey = keys.nextElement(); // Lancia NoSuchElementException
-                return new Entry(lastRetKey, h.get(lastRetKey));
+                keys.next(); // Lancia NoSuchElementException
+                lastRetKey = keys.key();
+                return new TableEntry(lastRetKey, keys.value(), keys.slot());
             }
 
             @Override
@@ -121,20 +171,147 @@ public class MapAdapter implements HMap {
             if(o == null) {
                 throw new NullPointerException();
             }
-            HMap.HEntry e = (HMap.HEntry) o;
-            return MapAdapter.this.remove(e.getKey()) != null;
+            if(!contains(o)) {
+                return false;
+            }
+            MapAdapter.this.remove(((HMap.HEntry) o).getKey());
+            return true;
+        }
+
+        /**
+         * Walks the mappings with a cursor over the map's storage and removes the matching ones through the cursor, in a single pass.
+         */
+        @Override
+        public boolean removeIf(HPredicate filter) {
+            if(filter == null) {
+                throw new NullPointerException();
+            }
+            boolean flag = false;
+            MapStorage.Cursor c = storage.cursor();
+            while(c.hasNext()) {
+                c.next();
+                if(filter.test(element(c))) {
+                    c.remove();
+                    flag = true;
+                }
+            }
+            return flag;
+        }
+
+        /**
+         * Splits the range of slots of the map's table (with HASHTABLE_STORAGE, a snapshot of the mappings) and returns an entry for each mapping.
+         */
+        @Override
+        public HSpliterator spliterator() {
+            return storage.spliterator(SlotSpliterator.ENTRIES, MapAdapter.this);
+        }
+
+        /**
+         * Returns the element of the set corresponding to the current mapping of the cursor.
+         */
+        Object element(MapStorage.Cursor c) {
+            return new TableEntry(c.key(), c.value(), c.slot());
         }
 
         @Override
         public int size() {
             return MapAdapter.this.size();
         }
+
+        /**
+         * The hashcode of the set of the entries is the one of the map.
+         */
+        @Override
+        public int hashCode() {
+            return MapAdapter.this.hashCode();
+        }
     
     }
 
+    /**
+     * Returns an iterator over the mappings of this map which, unlike the iterator of entrySet(), returns the same HEntry at every step. The cursor walks the storage directly (with OPEN_ADDRESSING_STORAGE, the slots of the table) and the entry is moved to each mapping in turn, so a full scan of the map allocates nothing per mapping. The entry is only valid until the following call to next(): to keep a mapping, its key and value must be copied out of the entry. setValue(Object) on the entry replaces the value of the current mapping in the map, and the iterator's remove() method removes it.
+     * @return an iterator returning a reusable entry positioned on each mapping of the map.
+     */
+    public HIterator entryCursor() {
+        return new EntryCursor();
+    }
+
+    private class EntryCursor implements HIterator, HMap.HEntry {
+
+        private MapStorage.Cursor c = storage.cursor();
+        private Object key = null;
+        private Object value = null;
+
+        @Override
+        public boolean hasNext() {
+            return c.hasNext();
+        }
+
+        /**
+         * Moves the cursor to the next mapping and returns the cursor itself, as the entry of that mapping.
+         */
+        @Override
+        public Object next() {
+            c.next(); // Lancia NoSuchElementException
+            key = c.key();
+            value = c.value();
+            return this;
+        }
+
+        @Override
+        public void remove() {
+            if(key == null) {
+                throw new IllegalStateException();
+            }
+            c.remove();
+            key = null;
+            value = null;
+        }
+
+        public Object getKey() {
+            if(key == null) {
+                throw new IllegalStateException();
+            }
+            return key;
+        }
+
+        public Object getValue() {
+            if(key == null) {
+                throw new IllegalStateException();
+            }
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            if(value == null) {
+                throw new NullPointerException();
+            }
+            if(key == null) {
+                throw new IllegalStateException();
+            }
+            Object tmp = this.value;
+            storage.replace(key, value, c.slot());
+            this.value = value;
+            return tmp;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof HMap.HEntry) || key == null) {
+                return false;
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        public int hashCode() {
+            return key == null ? 0 : key.hashCode() ^ value.hashCode();
+        }
+
+    }
+
     /**
      * {@inheritDoc}
-     * <p>This implementation first checks if the specified object is this map, if so it returns true. Then, it checks if the specified object is a map whose size is identical to the size of this map, if not, it it returns false. If so, it returns entrySet().equals(m.entrySet()), where m is the other map.
+     * <p>This implementation first checks if the specified object is this map, if so it returns true. Then, it checks if the specified object is a map whose size is identical to the size of this map, if not, it it returns false. If the other map is a MapAdapter, it also compares the hashcodes kept by the two storages, which differ if the maps do. Then it walks the mappings of this map with a cursor over the storage and looks up each key in the other map, comparing the values; when the other map is a MapAdapter the key is looked up in its storage directly, so no entry is created on either side.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -149,8 +326,23 @@ public class MapAdapter implements HMap {
         if (m.size() != size()) {
             return false;
         }
+        MapStorage other = null;
+        if (o instanceof MapAdapter) {
+            other = ((MapAdapter) o).storage;
+            if (other.entryHash() != storage.entryHash()) {
+                return false;
+            }
+        }
         try {
-            return entrySet().equals(m.entrySet());
+            MapStorage.Cursor c = storage.cursor();
+            while (c.hasNext()) {
+                c.next();
+                Object v = other != null ? other.get(c.key()) : m.get(c.key());
+                if (v == null || !v.equals(c.value())) {
+                    return false;
+                }
+            }
+            return true;
         }
         catch (ClassCastException cce)   {
             return false;
@@ -162,7 +354,7 @@ public class MapAdapter implements HMap {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's get(Object o) method.
+     * <p>This implementation calls the hashtable's get(Object o) method (with OPEN_ADDRESSING_STORAGE, it probes the table).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -170,42 +362,39 @@ public class MapAdapter implements HMap {
         if(key == null) {
             throw new NullPointerException();
         }
-        return h.get(key);
+        return storage.get(key);
 
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the entrySet, adding up each element's haschode and returning the result.
+     * <p>This implementation returns the sum of the hashcodes of the mappings' entries (key.hashCode() ^ value.hashCode()) kept by the storage, which updates it whenever a mapping is added, replaced or removed, so the map isn't walked.
      */
     @Override
     public int hashCode() {
-        int sum = 0;
-        HSet s = entrySet();
-        HIterator iterator = s.iterator();
-        while(iterator.hasNext()) {
-            HEntry e = (Entry) iterator.next();
-            sum += e.hashCode();
-        }
-        return sum;
+        return storage.entryHash();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's isEmpty() method.
+     * <p>This implementation calls the hashtable's isEmpty() method (with OPEN_ADDRESSING_STORAGE, it checks the mapping count).
      */
     @Override
     public boolean isEmpty() {
-        return h.isEmpty();
+        return storage.size() == 0;
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation returns a set containing the keys of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys.
+     * <p>This implementation returns a set containing the keys of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys. With OPEN_ADDRESSING_STORAGE the iterator walks the table that was in use when it was instantiated, reading the keys from its slots.
+     * <p>The set keeps no elements of its own: it is created at the first call and the same instance is returned by the following ones, so calling this method allocates nothing after the first time.
      */
     @Override
     public HSet keySet() {
-        return new KeySet();
+        if(keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
     }
 
     private class KeySet extends EntrySet {
@@ -225,17 +414,18 @@ public class MapAdapter implements HMap {
 
         private class KeyIterator implements HIterator {
 
-            private Enumeration keys = h.keys();
+            private MapStorage.Cursor keys = storage.cursor();
             private Object lastRetKey = null;
 
             @Override
             public boolean hasNext() {
-                return keys.hasMoreElements();
+                return keys.hasNext();
             }
 
             @Override
             public Object next() {
-                lastRetKey = keys.nextElement(); // Lancia NoSuchElementException
+                keys.next(); // Lancia NoSuchElementException
+                lastRetKey = keys.key();
                 return lastRetKey;
             }
 
@@ -260,11 +450,29 @@ public class MapAdapter implements HMap {
             return MapAdapter.this.remove(o) != null;
         }
 
+        @Override
+        Object element(MapStorage.Cursor c) {
+            return c.key();
+        }
+
+        @Override
+        public HSpliterator spliterator() {
+            return storage.spliterator(SlotSpliterator.KEYS, MapAdapter.this);
+        }
+
+        /**
+         * Returns the sum of the hashcodes of the keys, kept by the map's storage.
+         */
+        @Override
+        public int hashCode() {
+            return storage.keyHash();
+        }
+
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's put(Object, Object) method.
+     * <p>This implementation calls the hashtable's put(Object, Object) method (with OPEN_ADDRESSING_STORAGE, it probes the table and stores the mapping in the matching slot, or in the first free one).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -272,12 +480,12 @@ public class MapAdapter implements HMap {
         if(key == null || value == null) {
             throw new NullPointerException();
         }
-        return h.put(key, value);
+        return storage.put(key, value);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the entrySet of the map passed as the parameter and calls the hashtable's put(Object, Object) method for each of the elements of that entrySet.
+     * <p>This implementation iterates over the entrySet of the map passed as the parameter and calls the hashtable's put(Object, Object) method for each of the elements of that entrySet. If the map is a MapAdapter, its storage is walked with a cursor instead, so no entry is created.
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -285,17 +493,25 @@ public class MapAdapter implements HMap {
         if(m == null) {
             throw new NullPointerException();
         }
+        if(m instanceof MapAdapter) {
+            MapStorage.Cursor c = ((MapAdapter) m).storage.cursor();
+            while(c.hasNext()) {
+                c.next();
+                storage.put(c.key(), c.value());
+            }
+            return;
+        }
         HSet s = m.entrySet();
         HIterator iterator = s.iterator();
         while(iterator.hasNext()) {
-            HEntry e = (Entry) iterator.next();
+            HEntry e = (HEntry) iterator.next();
             put(e.getKey(), e.getValue());
         }
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's remove(Object) method.
+     * <p>This implementation calls the hashtable's remove(Object) method (with OPEN_ADDRESSING_STORAGE, it marks the slot of the mapping as deleted).
      * @throws NullPointerException {@inheritDoc}
      */
     @Override
@@ -303,38 +519,32 @@ public class MapAdapter implements HMap {
         if(key == null) {
             throw new NullPointerException();
         }
-        return h.remove(key);
+        return storage.remove(key);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's size() method.
+     * <p>This implementation calls the hashtable's size() method (with OPEN_ADDRESSING_STORAGE, it returns the mapping count).
      */
     @Override
     public int size() {
-        return h.size();
+        return storage.size();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation returns a collection containing the values of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys.
+     * <p>This implementation returns a collection containing the values of the map and which is backed by the map, so changes to the map are reflected in the set, and vice-versa. If the map is modified in any way other than through the iterator's remove() method while an iteration of the set is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the map when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys. With OPEN_ADDRESSING_STORAGE the iterator walks the table that was in use when it was instantiated, reading the values from its slots.
+     * <p>The collection keeps no elements of its own: it is created at the first call and the same instance is returned by the following ones, so calling this method allocates nothing after the first time.
      */
     @Override
     public HCollection values() {
-        return new ValueCollection();
+        if(values == null) {
+            values = new ValueCollection();
+        }
+        return values;
     }
 
-    private class ValueCollection extends CollectionAdapter {
-
-        @Override
-        public boolean add(Object o) {
-            throw new UnsupportedOperationException();
-        }
-    
-        @Override
-        public boolean addAll(HCollection c) {
-            throw new UnsupportedOperationException();
-        }
+    private class ValueCollection extends CollectionView {
     
         @Override
         public void clear() {
@@ -372,29 +582,46 @@ public class MapAdapter implements HMap {
         }
 
         @Override
-        public boolean isEmpty() {
-            return size() == 0;
+        public HIterator iterator() {
+            return new ValueIterator();
         }
 
+        /**
+         * Splits the range of slots of the map's table (with HASHTABLE_STORAGE, a snapshot of the mappings) instead of the indexes of a list.
+         */
         @Override
-        public HIterator iterator() {
-            return new ValueIterator();
+        public HSpliterator spliterator() {
+            return storage.spliterator(SlotSpliterator.VALUES, MapAdapter.this);
+        }
+
+        /**
+         * Computed like the hash of a list over the values in the order of the iterator. It isn't cached, as the changes go through the map.
+         */
+        @Override
+        public int hashCode() {
+            int hashCode = 1;
+            HIterator it = iterator();
+            while (it.hasNext()) {
+                hashCode = 31*hashCode + it.next().hashCode();
+            }
+            return hashCode;
         }
 
         private class ValueIterator implements HIterator {
 
-            private Enumeration keys = h.keys();
+            private MapStorage.Cursor keys = storage.cursor();
             private Object lastRetKey = null;
 
             @Override
             public boolean hasNext() {
-                return keys.hasMoreElements();
+                return keys.hasNext();
             }
 
             @Override
             public Object next() {
-                lastRetKey = keys.nextElement(); // Lancia NoSuchElementException
-                return MapAdapter.this.get(lastRetKey);
+                keys.next(); // Lancia NoSuchElementException
+                lastRetKey = keys.key();
+                return keys.value();
             }
 
             @Override
@@ -410,21 +637,33 @@ public class MapAdapter implements HMap {
             
         }
 
+        /**
+         * Removes every mapping to the value, walking the map's storage with a cursor (with the value index, only the keys mapped to the value are visited).
+         */
         @Override
         public boolean remove(Object o) {
             if(o == null) {
                 throw new NullPointerException();
             }
+            return storage.removeValue(o);
+        }
+
+        /**
+         * Walks the mappings with a cursor over the map's storage and removes the ones whose value matches through the cursor, in a single pass.
+         */
+        @Override
+        public boolean removeIf(HPredicate filter) {
+            if(filter == null) {
+                throw new NullPointerException();
+            }
             boolean flag = false;
-            HSet es = MapAdapter.this.entrySet();
-            HIterator it = es.iterator();
-            while(it.hasNext()) {
-                HMap.HEntry e = (HMap.HEntry) it.next();
-                if(e.getValue().equals(o)) {
-                    if(MapAdapter.this.remove(e.getKey()) != null) {
-                        flag = true;
-                    }
-                } 
+            MapStorage.Cursor c = storage.cursor();
+            while(c.hasNext()) {
+                c.next();
+                if(filter.test(c.value())) {
+                    c.remove();
+                    flag = true;
+                }
             }
             return flag;
         }
@@ -436,6 +675,34 @@ public class MapAdapter implements HMap {
 
     }
 
+    /**
+     * Returns an entry of the mapping, which writes through to the map (see TableEntry).
+     */
+    HMap.HEntry entry(Object key, Object value, int slot) {
+        return new TableEntry(key, value, slot);
+    }
+
+    /**
+     * Entry returned by the entrySet's iterator. It remembers the slot its mapping was read from, so that setValue(Object) also replaces the value in the map, in place.
+     */
+    private class TableEntry extends Entry {
+
+        private final int slot;
+
+        TableEntry(Object key, Object value, int slot) {
+            super(key, value);
+            this.slot = slot;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object tmp = super.setValue(value); // Lancia NullPointerException
+            storage.replace(getKey(), value, slot);
+            return tmp;
+        }
+
+    }
+
     /**
      * {@inheritDoc}
      * <p>This implementation doesn't allow entries with null keys and values.
@@ -0,0 +1,166 @@
+package adapter;
+
+/**
+ * Backing storage of a MapAdapter. The storage only keeps the mappings: null keys and values are rejected by the MapAdapter before they get here.
+ */
+
+abstract class MapStorage {
+
+    /**
+     * Returns the number of mappings in the storage.
+     * @return the number of mappings in the storage.
+     */
+    abstract int size();
+
+    /**
+     * Returns the value mapped to the key, or null if there is none.
+     * @param key the key to look up.
+     * @return the value mapped to the key, or null.
+     */
+    abstract Object get(Object key);
+
+    /**
+     * Maps the key to the value, replacing the previous value if there was one.
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value mapped to the key, or null.
+     */
+    abstract Object put(Object key, Object value);
+
+    /**
+     * Replaces the value mapped to the key, if the key is mapped, without adding a mapping otherwise. The slot is a hint returned by Cursor.slot(): if it still holds the key, the value is written there without probing the table.
+     * @param key the key.
+     * @param value the new value.
+     * @param slot the slot where the key was found by a cursor, or -1.
+     * @return true if the key was mapped (and the value has been replaced).
+     */
+    abstract boolean replace(Object key, Object value, int slot);
+
+    /**
+     * Removes the mapping of the key.
+     * @param key the key.
+     * @return the value that was mapped to the key, or null.
+     */
+    abstract Object remove(Object key);
+
+    /**
+     * Returns true if the storage contains a mapping for the key.
+     * @param key the key to look up.
+     * @return true if the storage contains a mapping for the key.
+     */
+    abstract boolean containsKey(Object key);
+
+    /**
+     * Returns true if the storage maps one or more keys to the value.
+     * @param value the value to look for.
+     * @return true if the storage maps one or more keys to the value.
+     */
+    abstract boolean containsValue(Object value);
+
+    /**
+     * Removes every mapping to the value. This implementation walks the mappings with a cursor and removes the matching ones through it.
+     * @param value the value.
+     * @return true if any mapping was removed.
+     */
+    boolean removeValue(Object value) {
+        boolean flag = false;
+        Cursor c = cursor();
+        while(c.hasNext()) {
+            c.next();
+            if(value.equals(c.value())) {
+                c.remove();
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Removes all of the mappings.
+     */
+    abstract void clear();
+
+    /**
+     * Returns the sum of the hashcodes of the keys, kept up to date by the mutators.
+     * @return the hashcode of the set of the keys.
+     */
+    abstract int keyHash();
+
+    /**
+     * Returns the sum of the hashcodes of the mappings (key.hashCode() ^ value.hashCode()), kept up to date by the mutators.
+     * @return the hashcode of the map.
+     */
+    abstract int entryHash();
+
+    /**
+     * Returns a cursor over the mappings of the storage.
+     * @return a cursor positioned before the first mapping.
+     */
+    abstract Cursor cursor();
+
+    /**
+     * Returns a spliterator over the mappings of the storage.
+     * <p>This implementation walks the storage with a cursor, once, and splits a snapshot of the keys and the values.
+     * @param kind the kind of element returned (see SlotSpliterator).
+     * @param map the map the entries are returned for.
+     * @return a spliterator over the mappings of the storage.
+     */
+    SlotSpliterator spliterator(int kind, MapAdapter map) {
+        Object[] ks = new Object[size()];
+        Object[] vs = new Object[ks.length];
+        int n = 0;
+        Cursor c = cursor();
+        while(n < ks.length && c.hasNext()) {
+            c.next();
+            Object v = c.value();
+            if(v != null) {
+                ks[n] = c.key();
+                vs[n++] = v;
+            }
+        }
+        return new SlotSpliterator(ks, vs, 0, n, kind, map, false);
+    }
+
+    /**
+     * Forward-only traversal of the mappings of a storage. After next() the key and the value of the current mapping can be read without any further lookup (when the storage allows it).
+     */
+    static abstract class Cursor {
+
+        /**
+         * Returns true if there are more mappings to visit.
+         * @return true if there are more mappings to visit.
+         */
+        abstract boolean hasNext();
+
+        /**
+         * Moves to the next mapping.
+         * @throws java.util.NoSuchElementException if there are no more mappings to visit.
+         */
+        abstract void next();
+
+        /**
+         * Returns the key of the current mapping.
+         * @return the key of the current mapping.
+         */
+        abstract Object key();
+
+        /**
+         * Returns the value of the current mapping.
+         * @return the value of the current mapping.
+         */
+        abstract Object value();
+
+        /**
+         * Returns the slot of the table holding the current mapping, to be passed to replace(Object, Object, int), or -1 if the storage has no slots the cursor can point to.
+         * @return the slot of the current mapping, or -1.
+         */
+        abstract int slot();
+
+        /**
+         * Removes the current mapping from the storage (without a further lookup, when the storage allows it).
+         */
+        abstract void remove();
+
+    }
+
+}
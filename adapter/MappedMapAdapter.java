@@ -0,0 +1,890 @@
+package adapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Map (interface HMap) whose hash table lives in a file, mapped in memory with FileChannel.map, so that it survives the process: a map opened on an existing file finds the mappings that were written there, without reading or rebuilding them. Keys and values are written to the file as fixed-width records by two HCodec, and every put or remove writes directly to the mapped pages. The file is made of a header (holding the record widths, the length of the table and the mapping count) followed by the table, a sequence of slots of one state byte, the key record and the value record; the table is probed linearly, starting from a hash of the key record. This implementation does not allow null keys and values.
+ * <p>Opening a map only maps the file: the pages of the table are loaded by the operating system when they are first accessed. The table is split into regions of at most 1 GB, each mapped separately, so that it can be larger than a single mapped buffer. When the used slots exceed three quarters of the table, the mappings are rehashed into a new file, which then replaces the old one. The mapped pages are written back to the file by the operating system; force() and close() write them immediately.
+ * <p>As the keys are compared by their records, the key codec must encode equal keys to equal records (see HCodec). The map takes no locks, so it must not be shared between threads without external synchronization, and a file must not be opened by two maps at the same time.
+ */
+
+public class MappedMapAdapter implements HMap, AutoCloseable {
+
+    /**
+     * First four bytes of the file ("HMAP").
+     */
+    private static final int MAGIC = 0x484D4150;
+
+    private static final int VERSION = 1;
+
+    /**
+     * Length of the header, in bytes.
+     */
+    private static final int HEADER = 32;
+
+    private static final int SIZE_OFFSET = 20;
+    private static final int DELETED_OFFSET = 24;
+
+    /**
+     * Largest region of the table mapped by a single buffer, in bytes.
+     */
+    private static final int MAX_REGION = 1 << 30;
+
+    /**
+     * Length of the table of a new map.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Length of the largest table (a power of two).
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte DELETED = 2;
+
+    private final File file;
+    private final HCodec keyCodec;
+    private final HCodec valueCodec;
+    private final int keyWidth;
+    private final int valueWidth;
+    private final int slotWidth;
+
+    /**
+     * Record of the key being looked up, reused by every lookup.
+     */
+    private final ByteBuffer keyRecord;
+
+    private Table table;
+    private int size;
+    private int deleted;
+    private int threshold;
+
+    /**
+     * Views of the map, created at the first call of entrySet(), keySet() and values(). They hold no state but the reference to the map, so a race between two first calls only creates one more view.
+     */
+    private HSet entrySet = null;
+    private HSet keySet = null;
+    private HCollection values = null;
+
+    /**
+     * Opens the map kept in the file, or creates an empty one if the file doesn't exist or is empty.
+     * @param file the file of the map.
+     * @param keyCodec the codec of the keys.
+     * @param valueCodec the codec of the values.
+     * @throws NullPointerException if any of the parameters is null.
+     * @throws IllegalArgumentException if the width of a codec isn't positive.
+     * @throws IOException if the file can't be opened or mapped, or if it isn't a map file written with codecs of the same widths.
+     */
+    public MappedMapAdapter(File file, HCodec keyCodec, HCodec valueCodec) throws IOException {
+        if(file == null || keyCodec == null || valueCodec == null) {
+            throw new NullPointerException();
+        }
+        if(keyCodec.width() <= 0 || valueCodec.width() <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.file = file;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.keyWidth = keyCodec.width();
+        this.valueWidth = valueCodec.width();
+        this.slotWidth = 1 + keyWidth + valueWidth;
+        this.keyRecord = ByteBuffer.allocate(keyWidth);
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        try {
+            if(channel.size() == 0) {
+                table = create(channel, MIN_CAPACITY);
+            }
+            else {
+                table = open(channel);
+            }
+        }
+        catch(IOException e) {
+            channel.close();
+            throw e;
+        }
+        size = table.header.getInt(SIZE_OFFSET);
+        deleted = table.header.getInt(DELETED_OFFSET);
+        threshold = table.capacity / 4 * 3;
+    }
+
+    /**
+     * Mapped table: the header and the regions of the slots of a file.
+     */
+    private static final class Table {
+
+        final FileChannel channel;
+        final MappedByteBuffer header;
+        final MappedByteBuffer[] regions;
+        final int capacity;
+        final int slotsPerRegion;
+        final int slotWidth;
+
+        Table(FileChannel channel, int capacity, int slotWidth) throws IOException {
+            this.channel = channel;
+            this.capacity = capacity;
+            this.slotWidth = slotWidth;
+            this.slotsPerRegion = Math.max(1, MAX_REGION / slotWidth);
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+            int count = (capacity + slotsPerRegion - 1) / slotsPerRegion;
+            regions = new MappedByteBuffer[count];
+            for(int r = 0; r < count; r++) {
+                int slots = Math.min(slotsPerRegion, capacity - r * slotsPerRegion);
+                long start = HEADER + (long) r * slotsPerRegion * slotWidth;
+                regions[r] = channel.map(FileChannel.MapMode.READ_WRITE, start, (long) slots * slotWidth);
+            }
+        }
+
+        /**
+         * Returns the buffer of the region holding the slot.
+         */
+        ByteBuffer region(int slot) {
+            return regions[slot / slotsPerRegion];
+        }
+
+        /**
+         * Returns the index of the state byte of the slot in the buffer of its region.
+         */
+        int position(int slot) {
+            return (slot % slotsPerRegion) * slotWidth;
+        }
+
+        byte state(int slot) {
+            return region(slot).get(position(slot));
+        }
+
+        void force() {
+            header.force();
+            for(int r = 0; r < regions.length; r++) {
+                regions[r].force();
+            }
+        }
+
+    }
+
+    /**
+     * Writes the header of an empty table of the specified length to the channel and maps it.
+     */
+    private Table create(FileChannel channel, int capacity) throws IOException {
+        Table t = new Table(channel, capacity, slotWidth);
+        t.header.putInt(0, MAGIC);
+        t.header.putInt(4, VERSION);
+        t.header.putInt(8, keyWidth);
+        t.header.putInt(12, valueWidth);
+        t.header.putInt(16, capacity);
+        t.header.putInt(SIZE_OFFSET, 0);
+        t.header.putInt(DELETED_OFFSET, 0);
+        return t;
+    }
+
+    /**
+     * Checks the header of an existing file and maps its table. The file must be long enough to hold the whole table, and the counts of the mappings and of the deleted slots must fit in it.
+     */
+    private Table open(FileChannel channel) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(HEADER);
+        while(h.hasRemaining() && channel.read(h, h.position()) > 0) {
+            // Legge l'intestazione
+        }
+        if(h.hasRemaining() || h.getInt(0) != MAGIC || h.getInt(4) != VERSION) {
+            throw new IOException("Not a map file: " + file);
+        }
+        if(h.getInt(8) != keyWidth || h.getInt(12) != valueWidth) {
+            throw new IOException("Record widths don't match the codecs: " + file);
+        }
+        int capacity = h.getInt(16);
+        if(capacity < MIN_CAPACITY || capacity > MAX_CAPACITY || (capacity & (capacity - 1)) != 0) {
+            throw new IOException("Corrupted map file: " + file);
+        }
+        int size = h.getInt(SIZE_OFFSET);
+        int deleted = h.getInt(DELETED_OFFSET);
+        if(size < 0 || deleted < 0 || (long) size + deleted > capacity) {
+            throw new IOException("Corrupted map file: " + file);
+        }
+        if(channel.size() < HEADER + (long) capacity * slotWidth) {
+            throw new IOException("Corrupted map file: " + file); // Il file e' stato troncato: mapparlo lo estenderebbe con slot vuoti
+        }
+        return new Table(channel, capacity, slotWidth);
+    }
+
+    /**
+     * Returns the table of the map, checking that the map hasn't been closed.
+     */
+    private Table table() {
+        if(table == null) {
+            throw new IllegalStateException();
+        }
+        return table;
+    }
+
+    /**
+     * Returns the hash of a record. The hash depends only on the bytes of the record, so that it doesn't change between runs.
+     */
+    private static int hash(ByteBuffer b, int at, int width) {
+        long h = width;
+        int i = 0;
+        for(; i + 8 <= width; i += 8) {
+            h = (h ^ b.getLong(at + i)) * 0x9E3779B97F4A7C15L;
+        }
+        for(; i < width; i++) {
+            h = (h ^ b.get(at + i)) * 0x9E3779B97F4A7C15L;
+        }
+        int x = (int) (h ^ (h >>> 32));
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Returns true if the key record of the slot is equal to the record.
+     */
+    private boolean keyMatches(Table t, int slot, ByteBuffer record) {
+        ByteBuffer b = t.region(slot);
+        int at = t.position(slot) + 1;
+        int i = 0;
+        for(; i + 8 <= keyWidth; i += 8) {
+            if(b.getLong(at + i) != record.getLong(i)) {
+                return false;
+            }
+        }
+        for(; i < keyWidth; i++) {
+            if(b.get(at + i) != record.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the key to keyRecord, returning false if the codec can't encode it.
+     */
+    private boolean encodeKey(Object key) {
+        if(key == null) {
+            throw new NullPointerException();
+        }
+        try {
+            keyCodec.encode(key, keyRecord, 0);
+            return true;
+        }
+        catch(ClassCastException cce) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the slot holding the key encoded in keyRecord, or -1 if the key isn't in the table.
+     */
+    private int find(Table t) {
+        int mask = t.capacity - 1;
+        int i = hash(keyRecord, 0, keyWidth) & mask;
+        byte s;
+        while((s = t.state(i)) != EMPTY) {
+            if(s == FULL && keyMatches(t, i, keyRecord)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private Object decodeKey(Table t, int slot) {
+        return keyCodec.decode(t.region(slot), t.position(slot) + 1);
+    }
+
+    private Object decodeValue(Table t, int slot) {
+        return valueCodec.decode(t.region(slot), t.position(slot) + 1 + keyWidth);
+    }
+
+    private void writeCounts() {
+        table.header.putInt(SIZE_OFFSET, size);
+        table.header.putInt(DELETED_OFFSET, deleted);
+    }
+
+    /**
+     * Writes the mapped pages of the map back to the file.
+     */
+    public void force() {
+        table().force();
+    }
+
+    /**
+     * Writes the mapped pages back to the file and closes it. Any further access to the map throws IllegalStateException.
+     * @throws IOException if the file can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if(table != null) {
+            table.force();
+            table.channel.close();
+            table = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation empties every slot of the table, whose length doesn't change.
+     */
+    @Override
+    public void clear() {
+        Table t = table();
+        for(int r = 0; r < t.regions.length; r++) {
+            ByteBuffer b = t.regions[r];
+            for(int at = 0; at < b.capacity(); at += slotWidth) {
+                b.put(at, EMPTY);
+            }
+        }
+        size = 0;
+        deleted = 0;
+        writeCounts();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the key and probes the table, comparing the key records. If the key can't be encoded by the key codec, it returns false.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        Table t = table();
+        return encodeKey(key) && find(t) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes and compares the value of every mapping.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if(value == null) {
+            throw new NullPointerException();
+        }
+        Table t = table();
+        for(int i = 0; i < t.capacity; i++) {
+            if(t.state(i) == FULL && value.equals(decodeValue(t, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator walks the table that was in use when it was instantiated and decodes each entry when it is returned. The entries write through to the map: setValue(Object) encodes the value into the slot the entry was read from, unless the mapping has been removed in the meantime, in which case only the entry changes.
+     */
+    @Override
+    public HSet entrySet() {
+        if(entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation first checks if the specified object is this map, if so it returns true. Then, it checks if the specified object is a map whose size is identical to the size of this map, if not, it returns false. If so, it decodes every mapping of this map and looks up its key in the other map, comparing the values.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HMap)) {
+            return false;
+        }
+        HMap m = (HMap) o;
+        if(m.size() != size) {
+            return false;
+        }
+        Table t = table();
+        try {
+            for(int i = 0; i < t.capacity; i++) {
+                if(t.state(i) == FULL && !decodeValue(t, i).equals(m.get(decodeKey(t, i)))) {
+                    return false;
+                }
+            }
+        }
+        catch (ClassCastException cce)   {
+            return false;
+        }
+        catch (NullPointerException npe) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the key, probes the table comparing the key records and decodes the value of the matching slot. If the key can't be encoded by the key codec, it returns null.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object get(Object key) {
+        Table t = table();
+        if(!encodeKey(key)) {
+            return null;
+        }
+        int i = find(t);
+        return i < 0 ? null : decodeValue(t, i);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes every mapping, adding up the hashcode of its entry.
+     */
+    @Override
+    public int hashCode() {
+        Table t = table();
+        int sum = 0;
+        for(int i = 0; i < t.capacity; i++) {
+            if(t.state(i) == FULL) {
+                sum += decodeKey(t, i).hashCode() ^ decodeValue(t, i).hashCode();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks the mapping count.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a set which is backed by the map, so changes to the map are reflected in the set, and vice-versa. Its iterator walks the table that was in use when it was instantiated and decodes each key when it is returned.
+     */
+    @Override
+    public HSet keySet() {
+        if(keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the key and the value, then probes the table. If the key is found its value record is overwritten; otherwise the records are written to the first free slot, whose state is written last. The mapping count in the header of the file is updated, and the table is rehashed into a new file if the used slots exceed three quarters of it.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws UncheckedIOException if the table has to be rehashed and the new file can't be written.
+     */
+    @Override
+    public Object put(Object key, Object value) {
+        if(key == null || value == null) {
+            throw new NullPointerException();
+        }
+        Table t = table();
+        keyCodec.encode(key, keyRecord, 0);
+        ByteBuffer valueRecord = ByteBuffer.allocate(valueWidth);
+        valueCodec.encode(value, valueRecord, 0);
+        int mask = t.capacity - 1;
+        int i = hash(keyRecord, 0, keyWidth) & mask;
+        int free = -1;
+        byte s;
+        while((s = t.state(i)) != EMPTY) {
+            if(s == DELETED) {
+                if(free < 0) {
+                    free = i;
+                }
+            }
+            else if(keyMatches(t, i, keyRecord)) {
+                Object old = decodeValue(t, i);
+                t.region(i).put(t.position(i) + 1 + keyWidth, valueRecord, 0, valueWidth);
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        if(free >= 0) {
+            i = free;
+            deleted--;
+        }
+        else if(size + deleted == mask) {
+            throw new IllegalStateException(); // Tabella piena: serve almeno uno slot vuoto per terminare le ricerche
+        }
+        ByteBuffer b = t.region(i);
+        int at = t.position(i);
+        b.put(at + 1, keyRecord, 0, keyWidth);
+        b.put(at + 1 + keyWidth, valueRecord, 0, valueWidth);
+        b.put(at, FULL);
+        size++;
+        writeCounts();
+        if(size + deleted > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the entrySet of the map passed as the parameter and calls put(Object, Object) for each of its elements.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     */
+    @Override
+    public void putAll(HMap m) {
+        if(m == null) {
+            throw new NullPointerException();
+        }
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HEntry e = (HEntry) it.next();
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the key, probes the table and marks the matching slot as deleted (or empty, if the following slot is empty). If the key can't be encoded by the key codec, it returns null.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object remove(Object key) {
+        Table t = table();
+        if(!encodeKey(key)) {
+            return null;
+        }
+        int i = find(t);
+        if(i < 0) {
+            return null;
+        }
+        Object old = decodeValue(t, i);
+        removeSlot(t, i);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns the mapping count.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns a collection which is backed by the map, so changes to the map are reflected in the collection, and vice-versa. Its iterator walks the table that was in use when it was instantiated and decodes each value when it is returned. Its remove(Object) method removes every mapping to the value.
+     */
+    @Override
+    public HCollection values() {
+        if(values == null) {
+            values = new Values();
+        }
+        return values;
+    }
+
+    /**
+     * Removes the mapping held by the slot. If the following slot is empty no probe sequence goes through this slot, so it's emptied instead of being marked as DELETED.
+     */
+    private void removeSlot(Table t, int i) {
+        if(t.state((i + 1) & (t.capacity - 1)) == EMPTY) {
+            t.region(i).put(t.position(i), EMPTY);
+        }
+        else {
+            t.region(i).put(t.position(i), DELETED);
+            deleted++;
+        }
+        size--;
+        writeCounts();
+    }
+
+    /**
+     * Copies the mappings to a table in a new file, next to the current one, which then replaces the current file. The table doubles if the mappings alone fill more than half of the threshold, otherwise it's rebuilt with the same length to drop the deleted slots.
+     */
+    private void rehash() {
+        Table old = table;
+        int capacity = old.capacity;
+        if(size > threshold / 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        File tmp = new File(file.getPath() + ".rehash");
+        try {
+            FileChannel channel = new RandomAccessFile(tmp, "rw").getChannel();
+            channel.truncate(0);
+            Table t = create(channel, capacity);
+            int mask = capacity - 1;
+            for(int j = 0; j < old.capacity; j++) {
+                if(old.state(j) == FULL) {
+                    ByteBuffer from = old.region(j);
+                    int at = old.position(j);
+                    int i = hash(from, at + 1, keyWidth) & mask;
+                    while(t.state(i) != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    t.region(i).put(t.position(i), from, at, slotWidth);
+                }
+            }
+            t.header.putInt(SIZE_OFFSET, size);
+            t.header.putInt(DELETED_OFFSET, 0);
+            t.force();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            old.channel.close();
+            table = t;
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleted = 0;
+        threshold = capacity / 4 * 3;
+    }
+
+    /**
+     * Returns the element of a view of the specified kind (SlotSpliterator.KEYS, VALUES or ENTRIES) corresponding to the mapping held by the slot of the table.
+     */
+    private Object element(int kind, Table t, int slot) {
+        if(kind == SlotSpliterator.KEYS) {
+            return decodeKey(t, slot);
+        }
+        if(kind == SlotSpliterator.VALUES) {
+            return decodeValue(t, slot);
+        }
+        return new SlotEntry(t, slot, decodeKey(t, slot), decodeValue(t, slot));
+    }
+
+    /**
+     * Walks the slots of the table and removes the mappings whose element, in a view of the specified kind, matches, in a single pass.
+     */
+    private boolean removeIf(int kind, HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        Table t = table();
+        boolean flag = false;
+        for(int i = 0; i < t.capacity; i++) {
+            if(t.state(i) == FULL && filter.test(element(kind, t, i))) {
+                removeSlot(t, i);
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Iterator over the slots of the table that was in use when it was created, returning the element of a view of the specified kind for each mapping. The key of every mapping is decoded as it's returned, so that remove() removes the mapping through its slot only if the slot still holds that key, and otherwise removes the key from the map, if it's still mapped.
+     */
+    private class SlotIterator implements HIterator {
+
+        private final int kind;
+        private final Table t = table();
+        private int index = 0;
+        private int current = -1;
+        private Object key = null;
+
+        SlotIterator(int kind) {
+            this.kind = kind;
+        }
+
+        public boolean hasNext() {
+            while(index < t.capacity) {
+                if(t.state(index) == FULL) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        public Object next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = index++;
+            key = decodeKey(t, current);
+            if(kind == SlotSpliterator.KEYS) {
+                return key;
+            }
+            if(kind == SlotSpliterator.VALUES) {
+                return decodeValue(t, current);
+            }
+            return new SlotEntry(t, current, key, decodeValue(t, current));
+        }
+
+        public void remove() {
+            if(current < 0) {
+                throw new IllegalStateException();
+            }
+            if(t == table && t.state(current) == FULL && key.equals(decodeKey(t, current))) {
+                removeSlot(t, current);
+            }
+            else {
+                MappedMapAdapter.this.remove(key); // Lo slot non e' piu' valido: la tabella e' stata ricostruita o la chiave rimossa
+            }
+            current = -1;
+        }
+
+    }
+
+    private class EntrySet extends SetView {
+
+        public void clear() {
+            MappedMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            Object v = get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.ENTRIES);
+        }
+
+        public boolean remove(Object o) {
+            if(!contains(o)) {
+                return false;
+            }
+            MappedMapAdapter.this.remove(((HMap.HEntry) o).getKey());
+            return true;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return MappedMapAdapter.this.removeIf(SlotSpliterator.ENTRIES, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private class KeySet extends SetView {
+
+        public void clear() {
+            MappedMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.KEYS);
+        }
+
+        public boolean remove(Object o) {
+            return MappedMapAdapter.this.remove(o) != null;
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return MappedMapAdapter.this.removeIf(SlotSpliterator.KEYS, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    private class Values extends CollectionView {
+
+        public void clear() {
+            MappedMapAdapter.this.clear();
+        }
+
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        public HIterator iterator() {
+            return new SlotIterator(SlotSpliterator.VALUES);
+        }
+
+        /**
+         * Removes every mapping to the value, walking the slots of the table.
+         */
+        public boolean remove(final Object o) {
+            if(o == null) {
+                throw new NullPointerException();
+            }
+            return removeIf(new HPredicate() {
+                public boolean test(Object v) {
+                    return o.equals(v);
+                }
+            });
+        }
+
+        public boolean removeIf(HPredicate filter) {
+            return MappedMapAdapter.this.removeIf(SlotSpliterator.VALUES, filter);
+        }
+
+        public int size() {
+            return size;
+        }
+
+    }
+
+    /**
+     * Entry returned by the iterator of the entrySet. setValue(Object) encodes the value into the slot the entry was read from, if the slot still holds the key (otherwise, if the table has been rebuilt since, the key is looked up again).
+     */
+    private class SlotEntry implements HMap.HEntry {
+
+        private final Table t;
+        private final int slot;
+        private final Object key;
+        private Object value;
+
+        SlotEntry(Table t, int slot, Object key, Object value) {
+            this.t = t;
+            this.slot = slot;
+            this.key = key;
+            this.value = value;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            if(value == null) {
+                throw new NullPointerException();
+            }
+            Table current = table();
+            keyCodec.encode(key, keyRecord, 0);
+            int i = slot;
+            if(t != current || current.state(i) != FULL || !keyMatches(current, i, keyRecord)) {
+                i = find(current);
+            }
+            ByteBuffer valueRecord = ByteBuffer.allocate(valueWidth);
+            valueCodec.encode(value, valueRecord, 0);
+            if(i >= 0) {
+                current.region(i).put(current.position(i) + 1 + keyWidth, valueRecord, 0, valueWidth);
+            }
+            Object tmp = this.value;
+            this.value = value;
+            return tmp;
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof HMap.HEntry)) {
+                return false;
+            }
+            HMap.HEntry e = (HMap.HEntry) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package adapter;
+
+/**
+ * Predicate which tests whether an element is (or isn't) contained in a collection. It is used to implement removeAll and retainAll on top of removeIf.
+ */
+
+class MembershipPredicate implements HPredicate {
+
+    private final HCollection c;
+    private final boolean contained;
+
+    /**
+     * @param c collection whose contains(Object) method is called by test(Object).
+     * @param contained true to match the elements contained in c, false to match the ones which aren't.
+     */
+    MembershipPredicate(HCollection c, boolean contained) {
+        this.c = c;
+        this.contained = contained;
+    }
+
+    public boolean test(Object o) {
+        return c.contains(o) == contained;
+    }
+
+}
@@ -0,0 +1,724 @@
+package adapter;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+/**
+ * List (interface HList) whose elements are kept outside of the Java heap, in a direct ByteBuffer, as fixed-width records written and read by an HCodec. The list holds no reference to its elements: an element is decoded into a new object only when it is returned (by get(int), an iterator, toArray() and so on), so a large list of small value objects costs the garbage collector a single buffer instead of one object per element. Searches compare the records with the record of the element being searched, without decoding them. This implementation does not allow null elements.
+ * <p>The buffer grows by half of its size when it is full. clear() and close() drop the buffer of the list, so that its memory is released as soon as the buffer is collected instead of being kept for later insertions. Like a ListAdapter with ARRAY_STORAGE, the list takes no locks, so it must not be shared between threads without external synchronization.
+ */
+
+public class OffHeapListAdapter implements HList, AutoCloseable {
+
+    /**
+     * Number of records of the buffer allocated by the first insertion.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0);
+
+    private final HCodec codec;
+
+    /**
+     * Width of a record, in bytes.
+     */
+    private final int width;
+
+    /**
+     * Largest number of records the buffer can hold.
+     */
+    private final int maxCapacity;
+
+    /**
+     * Records of the list. Only the root list has a buffer: the sublists read and write the buffer of their root.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Number of elements of the list (of the sublist, for a sublist).
+     */
+    private int elementCount = 0;
+
+    /**
+     * List whose buffer holds the records: the list itself, unless it's a sublist.
+     */
+    private final OffHeapListAdapter root;
+
+    /**
+     * List the sublist was obtained from, or null if the list isn't a sublist.
+     */
+    private final OffHeapListAdapter parent;
+
+    /**
+     * Index of the first record of the list in the root's buffer.
+     */
+    private final int offset;
+
+    /**
+     * Constructs an empty list whose elements are encoded with the specified codec. The buffer is allocated by the first insertion.
+     * @param codec the codec of the elements.
+     * @throws NullPointerException if the codec is null.
+     * @throws IllegalArgumentException if the width of the codec isn't positive.
+     */
+    public OffHeapListAdapter(HCodec codec) {
+        if(codec == null) {
+            throw new NullPointerException();
+        }
+        if(codec.width() <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        this.maxCapacity = (Integer.MAX_VALUE - 8) / width;
+        this.buffer = EMPTY;
+        this.root = this;
+        this.parent = null;
+        this.offset = 0;
+    }
+
+    /**
+     * Constructs the sublist of the parent list between fromIndex, inclusive, and toIndex, exclusive.
+     */
+    private OffHeapListAdapter(OffHeapListAdapter parent, int fromIndex, int toIndex) {
+        this.codec = parent.codec;
+        this.width = parent.width;
+        this.maxCapacity = parent.maxCapacity;
+        this.root = parent.root;
+        this.parent = parent;
+        this.offset = parent.offset + fromIndex;
+        this.elementCount = toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the codec of the elements of this list.
+     * @return the codec of the elements of this list.
+     */
+    public HCodec codec() {
+        return codec;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the element to a record, then makes room for it by moving the following records of the buffer.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Object element) {
+        if(element == null) {
+            throw new NullPointerException();
+        }
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        ByteBuffer record = encode(new Object[] {element});
+        open(index, 1);
+        root.buffer.put(address(index), record, 0, width);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls add(int, Object) with the size of the list as the index.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     */
+    @Override
+    public boolean add(Object o) {
+        add(elementCount, o);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls addAll(int, HCollection) with the size of the list as the index.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(HCollection c) {
+        return addAll(elementCount, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the elements of the collection (using toArray()) to a temporary heap buffer and then copies all of their records at once, so that the buffer grows at most once and the following records are moved only once. If the collection is an OffHeapListAdapter with the same codec, its records are copied without decoding them. If an element is null or can't be encoded, the exception is thrown before the list is changed.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        ByteBuffer records;
+        int count;
+        if(c instanceof OffHeapListAdapter && ((OffHeapListAdapter) c).codec == codec) {
+            OffHeapListAdapter l = (OffHeapListAdapter) c;
+            count = l.elementCount;
+            records = ByteBuffer.allocate(count * width);
+            records.put(0, l.root.buffer, l.address(0), count * width);
+        }
+        else {
+            Object[] a = c.toArray();
+            count = a.length;
+            records = encode(a);
+        }
+        if(count == 0) {
+            return false;
+        }
+        open(index, count);
+        root.buffer.put(address(index), records, 0, count * width);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>For the root list, this implementation drops the buffer, whose memory is released once the buffer is collected; for a sublist, it moves the following records of the buffer over the ones of the sublist.
+     */
+    @Override
+    public void clear() {
+        if(parent == null) {
+            buffer = EMPTY;
+            elementCount = 0;
+        }
+        else {
+            close(0, elementCount);
+        }
+    }
+
+    /**
+     * Removes all of the elements of the list and drops its buffer, as clear() does.
+     */
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls indexOf(Object).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the collection and checks if its elements are all contained in the list using contains(Object).
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean containsAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        HIterator cit = c.iterator();
+        while(cit.hasNext()) {
+            if(!contains(cit.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation first checks if the specified object is this list. If so, it returns true; if not, it checks if the specified object is a list. If not, it returns false; if so, it iterates over both lists, comparing corresponding pairs of elements, as ListAdapter.equals(Object) does.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HList)) {
+            return false;
+        }
+        HListIterator it1 = listIterator();
+        HListIterator it2 = ((HList) o).listIterator();
+        while(it1.hasNext() && it2.hasNext()) {
+            Object o2 = it2.next();
+            if(!it1.next().equals(o2)) {
+                return false;
+            }
+        }
+        return !(it1.hasNext() || it2.hasNext());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes the record of the element.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object get(int index) {
+        boundCheck(index);
+        return codec.decode(root.buffer, address(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation uses exactly the code that is used to define the list hash function in the documentation for the List.hashCode method, decoding the elements one at a time.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        HIterator it = iterator();
+        while(it.hasNext()) {
+            hashCode = 31*hashCode + it.next().hashCode();
+        }
+        return hashCode;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the element and compares its record with the records of the list, without decoding them. If the element can't be encoded by the codec, it returns -1.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object o) {
+        ByteBuffer record = search(o);
+        if(record == null) {
+            return -1;
+        }
+        for(int i = 0; i < elementCount; i++) {
+            if(matches(i, record)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks the element count.
+     */
+    @Override
+    public boolean isEmpty() {
+        return elementCount == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls the listIterator(int) method.
+     */
+    @Override
+    public HIterator iterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation encodes the element and compares its record with the records of the list, from the last one, without decoding them. If the element can't be encoded by the codec, it returns -1.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public int lastIndexOf(Object o) {
+        ByteBuffer record = search(o);
+        if(record == null) {
+            return -1;
+        }
+        for(int i = elementCount - 1; i >= 0; i--) {
+            if(matches(i, record)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls the listIterator(int) method.
+     */
+    @Override
+    public HListIterator listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation uses an integer cursor over the records of the list and decodes each element when it is returned. If the list is modified in any way other than through the iterator while an iteration is in progress, the iterator is not invalidated, but its cursor isn't updated either.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public HListIterator listIterator(int index) {
+        if(index < 0 || index > elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new RecordIterator(index);
+    }
+
+    private class RecordIterator implements HListIterator {
+
+        private int cursor;
+        private int lastRet = -1;
+
+        RecordIterator(int index) {
+            cursor = index;
+        }
+
+        public boolean hasNext() {
+            return cursor < elementCount;
+        }
+
+        public Object next() {
+            int i = cursor;
+            if(i >= elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            lastRet = i;
+            return codec.decode(root.buffer, address(i));
+        }
+
+        public boolean hasPrevious() {
+            return cursor != 0;
+        }
+
+        public Object previous() {
+            int i = cursor - 1;
+            if(i < 0 || i >= elementCount) {
+                throw new NoSuchElementException();
+            }
+            cursor = i;
+            lastRet = i;
+            return codec.decode(root.buffer, address(i));
+        }
+
+        public int nextIndex() {
+            return cursor;
+        }
+
+        public int previousIndex() {
+            return cursor-1;
+        }
+
+        public void remove() {
+            if(lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            OffHeapListAdapter.this.remove(lastRet);
+            if(lastRet < cursor) {
+                cursor--;
+            }
+            lastRet = -1;
+        }
+
+        public void set(Object o) {
+            if(lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            OffHeapListAdapter.this.set(lastRet, o);
+        }
+
+        public void add(Object o) {
+            OffHeapListAdapter.this.add(cursor, o);
+            cursor++;
+            lastRet = -1;
+        }
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes the record of the element, then moves the following records of the buffer over it.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object remove(int index) {
+        Object o = get(index);
+        close(index, 1);
+        return o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation looks for the element with indexOf(Object) and moves the following records of the buffer over its record.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index < 0) {
+            return false;
+        }
+        close(index, 1);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements contained in the collection, so every occurrence of those elements is removed in a single pass. If the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean removeAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation makes a single pass over the records of the list, decoding and testing each element and moving the records which are kept down over the removed ones, so that the following records are moved only once.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean removeIf(HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        ByteBuffer b = root.buffer;
+        int r = 0;
+        int w = 0;
+        try {
+            for(; r < elementCount; r++) {
+                if(!filter.test(codec.decode(b, address(r)))) {
+                    if(w != r) {
+                        move(b, address(r), address(w), width);
+                    }
+                    w++;
+                }
+            }
+        }
+        finally {
+            if(w != r) {
+                int end = root.elementCount * width;
+                move(b, address(r), address(w), end - address(r));
+                resize(w - r);
+            }
+        }
+        return r != w;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements not contained in the collection. If the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements, its elements are first copied to a transient SetAdapter (with OPEN_ADDRESSING_STORAGE), which is tested instead.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public boolean retainAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), false));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes the record of the previous element and overwrites it with the record of the new one.
+     * @throws NullPointerException {@inheritDoc}
+     * @throws ClassCastException {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Object set(int index, Object element) {
+        if(element == null) {
+            throw new NullPointerException();
+        }
+        Object old = get(index);
+        ByteBuffer record = encode(new Object[] {element});
+        root.buffer.put(address(index), record, 0, width);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns the element count.
+     */
+    @Override
+    public int size() {
+        return elementCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation returns an OffHeapListAdapter which reads and writes the buffer of this list, at an offset. The returned list is backed by this list, so changes in the returned list are reflected in this list, and vice-versa. Structural changes made through the sublist also update the size of this list (and of the lists this list was obtained from); the behavior of the sublist becomes inconsistent with this list if the latter is structurally modified in any other way, but the sublist won't be invalidated.
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public HList subList(int fromIndex, int toIndex) {
+        if(fromIndex < 0 || toIndex > elementCount || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new OffHeapListAdapter(this, fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes the elements of the list into a new array, whose length is equal to the size of the list.
+     */
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation decodes the elements of the list into a new array, as ListAdapter.toArray(Object[]) does: the length of the array is the largest between the one of the array passed as the parameter and the size of the list, and the elements whose index is greater or equal to the list's size are set to null.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray(Object[] a) {
+        if(a == null) {
+            throw new NullPointerException();
+        }
+        Object[] v = new Object[Math.max(a.length, elementCount)];
+        ByteBuffer b = root.buffer;
+        for(int i = 0; i < elementCount; i++) {
+            v[i] = codec.decode(b, address(i));
+        }
+        return v;
+    }
+
+    private void boundCheck(int index) {
+        if(index < 0 || index >= elementCount) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Returns the index in the root's buffer of the first byte of the record of the element at the index of the list.
+     */
+    private int address(int index) {
+        return (offset + index) * width;
+    }
+
+    /**
+     * Encodes the elements to the records of a new heap buffer, throwing NullPointerException if one of them is null.
+     */
+    private ByteBuffer encode(Object[] a) {
+        if(a.length > maxCapacity) {
+            throw new OutOfMemoryError();
+        }
+        ByteBuffer records = ByteBuffer.allocate(a.length * width).order(ByteOrder.nativeOrder());
+        for(int i = 0; i < a.length; i++) {
+            if(a[i] == null) {
+                throw new NullPointerException();
+            }
+            codec.encode(a[i], records, i * width);
+        }
+        return records;
+    }
+
+    /**
+     * Returns the record of the element being searched, or null if the codec can't encode it.
+     */
+    private ByteBuffer search(Object o) {
+        if(o == null) {
+            throw new NullPointerException();
+        }
+        try {
+            return encode(new Object[] {o});
+        }
+        catch(ClassCastException cce) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the record of the element at the index of the list is equal to the record.
+     */
+    private boolean matches(int index, ByteBuffer record) {
+        ByteBuffer b = root.buffer;
+        int at = address(index);
+        int longs = width & ~7;
+        int i = 0;
+        for(; i < longs; i += 8) {
+            if(b.getLong(at + i) != record.getLong(i)) {
+                return false;
+            }
+        }
+        for(; i < width; i++) {
+            if(b.get(at + i) != record.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes room for count records at the index of the list, moving the following records of the root's buffer, and adds count to the size of the list and of the lists it was obtained from.
+     */
+    private void open(int index, int count) {
+        OffHeapListAdapter r = root;
+        int n = r.elementCount;
+        if(count > r.buffer.capacity() / width - n) {
+            r.grow(n + count);
+        }
+        int at = address(index);
+        move(r.buffer, at, at + count * width, n * width - at);
+        resize(count);
+    }
+
+    /**
+     * Removes count records at the index of the list, moving the following records of the root's buffer over them, and subtracts count from the size of the list and of the lists it was obtained from.
+     */
+    private void close(int index, int count) {
+        OffHeapListAdapter r = root;
+        int at = address(index);
+        int from = at + count * width;
+        move(r.buffer, from, at, r.elementCount * width - from);
+        resize(-count);
+    }
+
+    private void resize(int delta) {
+        for(OffHeapListAdapter l = this; l != null; l = l.parent) {
+            l.elementCount += delta;
+        }
+    }
+
+    /**
+     * Moves length bytes of the buffer from one index to another, as System.arraycopy does for overlapping ranges: eight bytes at a time, forward or backward depending on the direction of the move.
+     */
+    private static void move(ByteBuffer b, int from, int to, int length) {
+        if(length <= 0 || from == to) {
+            return;
+        }
+        int longs = length & ~7;
+        if(to < from) {
+            int i = 0;
+            for(; i < longs; i += 8) {
+                b.putLong(to + i, b.getLong(from + i));
+            }
+            for(; i < length; i++) {
+                b.put(to + i, b.get(from + i));
+            }
+        }
+        else {
+            int i = length;
+            while(i > longs) {
+                i--;
+                b.put(to + i, b.get(from + i));
+            }
+            while(i > 0) {
+                i -= 8;
+                b.putLong(to + i, b.getLong(from + i));
+            }
+        }
+    }
+
+    /**
+     * Replaces the buffer with a direct buffer larger by half (or able to hold the requested number of records, if larger), copying the records.
+     */
+    private void grow(int minCapacity) {
+        if(minCapacity < 0 || minCapacity > maxCapacity) {
+            throw new OutOfMemoryError();
+        }
+        int capacity = buffer.capacity() / width;
+        long newCapacity = Math.max((long) capacity + (capacity >> 1), (long) DEFAULT_CAPACITY);
+        newCapacity = Math.min(Math.max(newCapacity, minCapacity), maxCapacity);
+        ByteBuffer b = ByteBuffer.allocateDirect((int) newCapacity * width).order(ByteOrder.nativeOrder());
+        b.put(0, buffer, 0, elementCount * width);
+        buffer = b;
+    }
+
+}
@@ -0,0 +1,235 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+/**
+ * SetStorage backed by a key-only open-addressing hash table with linear probing. The elements are stored directly in a power-of-two array, with no value slot and no node per element, and probed the same way as in OpenHashStorage (including the DELETED markers left by removals). It takes no locks, so it must be confined to a single thread (or externally synchronized).
+ */
+
+class OpenHashSetStorage extends SetStorage {
+
+    /**
+     * Length of the table of an empty storage.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Length of the largest table (a power of two).
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    Object[] keys;
+    int size = 0;
+    private int deleted = 0;
+
+    /**
+     * Sum of the hashcodes of the elements.
+     */
+    private int hash = 0;
+    private int threshold;
+
+    OpenHashSetStorage() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the slot holding the element, or -1 if the element isn't in the table.
+     */
+    int find(Object o) {
+        Object[] ks = keys;
+        int mask = ks.length - 1;
+        int i = OpenHashStorage.slot(o, mask);
+        Object k;
+        while((k = ks[i]) != null) {
+            if(k != OpenHashStorage.DELETED && (k == o || o.equals(k))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>A single probe sequence looks for the element and, if it reaches an empty slot without finding it, stores the element in the first free slot it went through.
+     */
+    boolean add(Object o) {
+        Object[] ks = keys;
+        int mask = ks.length - 1;
+        int i = OpenHashStorage.slot(o, mask);
+        int free = -1;
+        Object k;
+        while((k = ks[i]) != null) {
+            if(k == OpenHashStorage.DELETED) {
+                if(free < 0) {
+                    free = i;
+                }
+            }
+            else if(k == o || o.equals(k)) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        if(free >= 0) {
+            i = free;
+            deleted--;
+        }
+        else if(size + deleted == mask) {
+            throw new IllegalStateException(); // Tabella piena: serve almeno uno slot vuoto per terminare le ricerche
+        }
+        ks[i] = o;
+        size++;
+        hash += o.hashCode();
+        if(size + deleted > threshold) {
+            rehash();
+        }
+        return true;
+    }
+
+    boolean remove(Object o) {
+        int i = find(o);
+        if(i < 0) {
+            return false;
+        }
+        removeSlot(i);
+        return true;
+    }
+
+    /**
+     * Removes the element held by the slot, as OpenHashStorage.removeSlot(int) does.
+     */
+    private void removeSlot(int i) {
+        hash -= keys[i].hashCode();
+        if(keys[(i + 1) & (keys.length - 1)] == null) {
+            keys[i] = null;
+        }
+        else {
+            keys[i] = OpenHashStorage.DELETED;
+            deleted++;
+        }
+        size--;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The slots are walked in order; removed elements leave their slot empty or DELETED, so the remaining slots don't move.
+     */
+    boolean removeIf(HPredicate filter) {
+        Object[] ks = keys;
+        boolean flag = false;
+        for(int i = 0; i < ks.length; i++) {
+            Object k = ks[i];
+            if(k != null && k != OpenHashStorage.DELETED && filter.test(k)) {
+                removeSlot(i);
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+    boolean contains(Object o) {
+        return find(o) >= 0;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+        deleted = 0;
+        hash = 0;
+    }
+
+    int hash() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The elements are gathered with a single pass over the slots of the table.
+     */
+    Object[] toArray() {
+        Object[] a = new Object[size];
+        Object[] ks = keys;
+        int n = 0;
+        for(int i = 0; i < ks.length; i++) {
+            Object k = ks[i];
+            if(k != null && k != OpenHashStorage.DELETED) {
+                a[n++] = k;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The spliterator splits the range of slots of the table that is in use, without copying it.
+     */
+    SlotSpliterator spliterator() {
+        return new SlotSpliterator(keys, null, 0, keys.length, SlotSpliterator.KEYS, null, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The enumeration walks the slots of the table that was in use when it was created: elements removed afterwards are skipped, while a rehash caused by an insertion leaves the enumeration on the old table.
+     */
+    Enumeration elements() {
+        return new SlotEnumeration();
+    }
+
+    private class SlotEnumeration implements Enumeration {
+
+        private final Object[] ks = keys;
+        private int index = 0;
+
+        public boolean hasMoreElements() {
+            while(index < ks.length) {
+                Object k = ks[index];
+                if(k != null && k != OpenHashStorage.DELETED) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        public Object nextElement() {
+            if(!hasMoreElements()) {
+                throw new NoSuchElementException();
+            }
+            return ks[index++];
+        }
+
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        threshold = capacity / 4 * 3;
+    }
+
+    private void rehash() {
+        Object[] oldKeys = keys;
+        int capacity = oldKeys.length;
+        if(size > threshold / 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        deleted = 0;
+        int mask = capacity - 1;
+        for(int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if(k != null && k != OpenHashStorage.DELETED) {
+                int i = OpenHashStorage.slot(k, mask);
+                while(keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+            }
+        }
+    }
+
+}
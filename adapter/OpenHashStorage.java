@@ -0,0 +1,292 @@
+package adapter;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * MapStorage backed by an open-addressing hash table with linear probing. Keys and values are stored in two parallel arrays whose length is a power of two, so a mapping costs two array slots instead of an entry object, and a lookup walks adjacent slots. It takes no locks, so it must be confined to a single thread (or externally synchronized).
+ * <p>Removed mappings leave a DELETED marker in the key array, so that the slots of the other mappings never move while the table isn't rehashed. The table is rehashed only by put(Object, Object), when the used slots (mappings and markers) exceed three quarters of the table: it doubles if the mappings alone fill more than half of that, otherwise it's rebuilt with the same length to drop the markers.
+ */
+
+class OpenHashStorage extends MapStorage {
+
+    /**
+     * Marker left in the key array by a removed mapping.
+     */
+    static final Object DELETED = new Object();
+
+    /**
+     * Length of the table of an empty storage.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Length of the largest table (a power of two).
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    Object[] keys;
+    Object[] values;
+    int size = 0;
+    private int deleted = 0;
+
+    /**
+     * Sums of the hashcodes of the keys and of the mappings.
+     */
+    private int keyHash = 0;
+    private int entryHash = 0;
+    private int threshold;
+
+    OpenHashStorage() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the first slot probed for the key in a table of mask + 1 slots. The hash code is scrambled with the golden ratio so that sequential hash codes (such as the ones of Integer keys) don't end up in one long run of slots.
+     */
+    static int slot(Object key, int mask) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the key, or -1 if the key isn't in the table.
+     */
+    int find(Object key) {
+        Object[] ks = keys;
+        int mask = ks.length - 1;
+        int i = slot(key, mask);
+        Object k;
+        while((k = ks[i]) != null) {
+            if(k != DELETED && (k == key || key.equals(k))) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Object get(Object key) {
+        int i = find(key);
+        return i < 0 ? null : values[i];
+    }
+
+    Object put(Object key, Object value) {
+        Object[] ks = keys;
+        int mask = ks.length - 1;
+        int i = slot(key, mask);
+        int free = -1;
+        Object k;
+        while((k = ks[i]) != null) {
+            if(k == DELETED) {
+                if(free < 0) {
+                    free = i;
+                }
+            }
+            else if(k == key || key.equals(k)) {
+                Object old = values[i];
+                values[i] = value;
+                int kh = k.hashCode();
+                entryHash += (kh ^ value.hashCode()) - (kh ^ old.hashCode());
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        if(free >= 0) {
+            i = free;
+            deleted--;
+        }
+        else if(size + deleted == mask) {
+            throw new IllegalStateException(); // Tabella piena: serve almeno uno slot vuoto per terminare le ricerche
+        }
+        ks[i] = key;
+        values[i] = value;
+        size++;
+        int kh = key.hashCode();
+        keyHash += kh;
+        entryHash += kh ^ value.hashCode();
+        if(size + deleted > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    boolean replace(Object key, Object value, int slot) {
+        Object[] ks = keys;
+        if(slot < 0 || slot >= ks.length || ks[slot] != key) {
+            slot = find(key); // Lo slot non contiene piu' la chiave (rimossa o tabella ricostruita)
+            if(slot < 0) {
+                return false;
+            }
+        }
+        int kh = ks[slot].hashCode();
+        entryHash += (kh ^ value.hashCode()) - (kh ^ values[slot].hashCode());
+        values[slot] = value;
+        return true;
+    }
+
+    Object remove(Object key) {
+        int i = find(key);
+        if(i < 0) {
+            return null;
+        }
+        Object old = values[i];
+        removeSlot(i);
+        return old;
+    }
+
+    /**
+     * Removes the mapping held by the slot. If the following slot is empty no probe sequence goes through this slot, so it's emptied instead of being marked as DELETED.
+     */
+    void removeSlot(int i) {
+        int kh = keys[i].hashCode();
+        keyHash -= kh;
+        entryHash -= kh ^ values[i].hashCode();
+        if(keys[(i + 1) & (keys.length - 1)] == null) {
+            keys[i] = null;
+        }
+        else {
+            keys[i] = DELETED;
+            deleted++;
+        }
+        values[i] = null;
+        size--;
+    }
+
+    boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    boolean containsValue(Object value) {
+        Object[] vs = values;
+        for(int i = 0; i < vs.length; i++) {
+            if(vs[i] != null && value.equals(vs[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+        deleted = 0;
+        keyHash = 0;
+        entryHash = 0;
+    }
+
+    int keyHash() {
+        return keyHash;
+    }
+
+    int entryHash() {
+        return entryHash;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The spliterator splits the range of slots of the table that is in use, without copying it, and the entries it returns keep their slot.
+     */
+    SlotSpliterator spliterator(int kind, MapAdapter map) {
+        return new SlotSpliterator(keys, values, 0, keys.length, kind, map, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The cursor walks the slots of the table in order, reading the key and the value of each mapping directly from the arrays. It keeps the arrays that were in use when it was created: mappings removed afterwards are skipped, while a rehash caused by an insertion leaves the cursor on the old table.
+     */
+    Cursor cursor() {
+        return new SlotCursor();
+    }
+
+    private class SlotCursor extends Cursor {
+
+        private final Object[] ks = keys;
+        private final Object[] vs = values;
+        private int index = 0;
+        private int current = -1;
+        private Object key = null;
+
+        boolean hasNext() {
+            while(index < ks.length) {
+                Object k = ks[index];
+                if(k != null && k != DELETED) {
+                    return true;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        void next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = index++;
+            key = ks[current];
+        }
+
+        Object key() {
+            return key;
+        }
+
+        Object value() {
+            return vs[current];
+        }
+
+        /**
+         * Returns the current slot, or -1 if the table has been rebuilt since the cursor was created or the slot no longer holds the key the cursor moved to (the mapping has been removed, and the slot possibly reused by another key).
+         */
+        int slot() {
+            return ks == keys && ks[current] == key ? current : -1;
+        }
+
+        /**
+         * Removes the mapping through its slot if the slot still holds the key, otherwise removes the key from the storage, if it's still mapped (as HASHTABLE_STORAGE does).
+         */
+        void remove() {
+            if(slot() != -1) {
+                removeSlot(current);
+            }
+            else {
+                OpenHashStorage.this.remove(key); // Lo slot non e' piu' valido: la tabella e' stata ricostruita o la chiave rimossa
+            }
+        }
+
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        threshold = capacity / 4 * 3;
+    }
+
+    private void rehash() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length;
+        if(size > threshold / 2 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        deleted = 0;
+        int mask = capacity - 1;
+        for(int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if(k != null && k != DELETED) {
+                int i = slot(k, mask);
+                while(keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = k;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package adapter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fork/join implementation of the bulk operations of HCollection. A task keeps splitting its spliterator, forking a task for each prefix split off, while the estimated size of the spliterator is larger than the parallelism threshold; then it processes what is left of the spliterator itself and joins the forked tasks. The tasks run in the common ForkJoinPool.
+ */
+
+final class ParallelOps {
+
+    private ParallelOps() {
+    }
+
+    static void forEach(HSpliterator s, long threshold, HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        if(s.estimateSize() <= threshold) {
+            s.forEachRemaining(action);
+        }
+        else {
+            ForkJoinPool.commonPool().invoke(new ForEachTask(s, threshold, action));
+        }
+    }
+
+    static Object reduce(HSpliterator s, long threshold, HReducer reducer) {
+        if(reducer == null) {
+            throw new NullPointerException();
+        }
+        ReduceTask task = new ReduceTask(s, threshold, reducer);
+        return s.estimateSize() <= threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    static Object search(HSpliterator s, long threshold, HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
+        }
+        SearchTask task = new SearchTask(s, threshold, filter, new AtomicReference());
+        return s.estimateSize() <= threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Task of a bulk operation: compute() splits the spliterator and forks the tasks for the prefixes, which are chained through the next field so that they can be joined in turn.
+     */
+    @SuppressWarnings("serial")
+    private static abstract class BulkTask extends RecursiveTask {
+
+        final HSpliterator s;
+        final long threshold;
+        BulkTask next = null;
+
+        BulkTask(HSpliterator s, long threshold) {
+            this.s = s;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Returns a task of the same operation for the specified prefix.
+         */
+        abstract BulkTask fork(HSpliterator prefix);
+
+        /**
+         * Processes what is left of the spliterator, sequentially.
+         */
+        abstract Object local();
+
+        /**
+         * Combines the result of this task with the one of a forked task.
+         */
+        abstract Object combine(Object r, Object other);
+
+        protected Object compute() {
+            BulkTask forked = null;
+            HSpliterator prefix;
+            while(s.estimateSize() > threshold && (prefix = s.trySplit()) != null) {
+                BulkTask t = fork(prefix);
+                t.next = forked;
+                forked = t;
+                t.fork();
+            }
+            Object r = local();
+            for(; forked != null; forked = forked.next) {
+                r = combine(r, forked.join());
+            }
+            return r;
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ForEachTask extends BulkTask {
+
+        private final HConsumer action;
+
+        ForEachTask(HSpliterator s, long threshold, HConsumer action) {
+            super(s, threshold);
+            this.action = action;
+        }
+
+        BulkTask fork(HSpliterator prefix) {
+            return new ForEachTask(prefix, threshold, action);
+        }
+
+        Object local() {
+            s.forEachRemaining(action);
+            return null;
+        }
+
+        Object combine(Object r, Object other) {
+            return null;
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ReduceTask extends BulkTask implements HConsumer {
+
+        private final HReducer reducer;
+        private Object result = null;
+
+        ReduceTask(HSpliterator s, long threshold, HReducer reducer) {
+            super(s, threshold);
+            this.reducer = reducer;
+        }
+
+        BulkTask fork(HSpliterator prefix) {
+            return new ReduceTask(prefix, threshold, reducer);
+        }
+
+        public void accept(Object o) {
+            result = result == null ? o : reducer.apply(result, o);
+        }
+
+        Object local() {
+            s.forEachRemaining(this);
+            return result;
+        }
+
+        /**
+         * The forked tasks cover the elements preceding this task's, so their result comes first.
+         */
+        Object combine(Object r, Object other) {
+            if(other == null) {
+                return r;
+            }
+            return r == null ? other : reducer.apply(other, r);
+        }
+
+    }
+
+    /**
+     * Task of a search: all the tasks share the result, and each stops as soon as any of them has found an element.
+     */
+    @SuppressWarnings("serial")
+    private static final class SearchTask extends BulkTask implements HConsumer {
+
+        private final HPredicate filter;
+        private final AtomicReference result;
+
+        SearchTask(HSpliterator s, long threshold, HPredicate filter, AtomicReference result) {
+            super(s, threshold);
+            this.filter = filter;
+            this.result = result;
+        }
+
+        BulkTask fork(HSpliterator prefix) {
+            return new SearchTask(prefix, threshold, filter, result);
+        }
+
+        public void accept(Object o) {
+            if(filter.test(o)) {
+                result.compareAndSet(null, o);
+            }
+        }
+
+        Object local() {
+            while(result.get() == null && s.tryAdvance(this)) {
+                // Si ferma al primo elemento trovato da un qualsiasi task
+            }
+            return result.get();
+        }
+
+        Object combine(Object r, Object other) {
+            return result.get();
+        }
+
+    }
+
+}
@@ -0,0 +1,468 @@
+package adapter;
+
+/**
+ * ListStorage backed by a rope: a balanced binary tree (kept balanced as an AVL tree) whose leaves hold chunks of up to LEAF_CAPACITY consecutive elements, and whose inner nodes count the elements below them. get(int), set(int, Object), add(int, Object) and remove(int) walk a single path from the root, so they take O(log n) time at any position; addAll(int, Object[], int) and removeRange(int, int) split the tree at the range and join the parts again, instead of moving the tail. It takes no locks, so it must be confined to a single thread (or externally synchronized).
+ */
+
+class RopeStorage extends ListStorage {
+
+    /**
+     * Largest number of elements held by a leaf.
+     */
+    static final int LEAF_CAPACITY = 64;
+
+    /**
+     * Node of the rope: a leaf holds the elements in items[0, count), an inner node has two children, which are never null. Every node knows the number of elements and the height of its subtree.
+     */
+    private static final class Node {
+        Node left = null;
+        Node right = null;
+        Object[] items = null;
+        int count = 0;
+        int size;
+        int height;
+
+        Node(Object[] items, int count) {
+            this.items = items;
+            this.count = count;
+            size = count;
+            height = 1;
+        }
+
+        Node(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+            update();
+        }
+
+        boolean isLeaf() {
+            return items != null;
+        }
+
+        void update() {
+            size = left.size + right.size;
+            height = 1 + Math.max(left.height, right.height);
+        }
+    }
+
+    private Node root = null;
+
+    /**
+     * Index within the leaf found by the last call to leaf(int).
+     */
+    private int leafIndex = 0;
+
+    int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    Object get(int index) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node t = leaf(index);
+        return t.items[leafIndex];
+    }
+
+    Object set(int index, Object o) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        Node t = leaf(index);
+        Object old = t.items[leafIndex];
+        t.items[leafIndex] = o;
+        return old;
+    }
+
+    /**
+     * Returns the leaf holding the element at a valid index, and sets leafIndex to the position of the element in the leaf.
+     */
+    private Node leaf(int index) {
+        Node t = root;
+        while(!t.isLeaf()) {
+            if(index < t.left.size) {
+                t = t.left;
+            }
+            else {
+                index -= t.left.size;
+                t = t.right;
+            }
+        }
+        leafIndex = index;
+        return t;
+    }
+
+    void add(Object o) {
+        add(size(), o);
+    }
+
+    void add(int index, Object o) {
+        if(index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(root == null) {
+            root = newLeaf(o);
+        }
+        else {
+            root = insert(root, index, o);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The elements are made into a balanced rope of full leaves, which is joined between the two parts of this rope split at the index, so the elements already in the rope are not moved.
+     */
+    void addAll(int index, Object[] a, int count) {
+        if(index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if(count == 0) {
+            return;
+        }
+        Node[] parts = split(root, index);
+        root = join(join(parts[0], build(a, 0, count)), parts[1]);
+    }
+
+    Object remove(int index) {
+        if(index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        Object o = get(index);
+        root = delete(root, index);
+        return o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The range is split off the rope and copied to an array, which is compacted like the one of an ArrayStorage and made into a new balanced rope, joined back between the two other parts.
+     */
+    int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+        Node[] right = split(root, toIndex);
+        Node[] left = split(right[0], fromIndex);
+        Object[] a = new Object[toIndex - fromIndex];
+        copy(left[1], a, 0);
+        int r = 0;
+        int w = 0;
+        try {
+            for(; r < a.length; r++) {
+                Object o = a[r];
+                if(!filter.test(o)) {
+                    a[w++] = o;
+                }
+            }
+        }
+        finally {
+            System.arraycopy(a, r, a, w, a.length - r);
+            Node range = r == w ? left[1] : build(a, 0, a.length - (r - w));
+            root = join(join(left[0], range), right[1]);
+        }
+        return r - w;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The rope is split at both ends of the range and the outer parts are joined, in O(log n) time.
+     */
+    void removeRange(int fromIndex, int toIndex) {
+        Node[] right = split(root, toIndex);
+        Node[] left = split(right[0], fromIndex);
+        root = join(left[0], right[1]);
+    }
+
+    boolean remove(Object o) {
+        int index = indexOf(o);
+        if(index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    int indexOf(Object o) {
+        return indexOf(root, 0, o, 0, size());
+    }
+
+    int lastIndexOf(Object o) {
+        return lastIndexOf(root, 0, o, 0, size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the subtrees overlapping the range are visited.
+     */
+    int indexOf(Object o, int fromIndex, int toIndex) {
+        return indexOf(root, 0, o, fromIndex, toIndex);
+    }
+
+    int lastIndexOf(Object o, int fromIndex, int toIndex) {
+        return lastIndexOf(root, 0, o, fromIndex, toIndex);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    Object[] toArray() {
+        Object[] a = new Object[size()];
+        copy(root, a, 0);
+        return a;
+    }
+
+    private static Node newLeaf(Object o) {
+        Object[] items = new Object[LEAF_CAPACITY];
+        items[0] = o;
+        return new Node(items, 1);
+    }
+
+    /**
+     * Inserts the element at a valid index of a non-empty subtree and returns the subtree, rebalanced. A full leaf gets a new sibling: the element alone if it goes at either end of the leaf, otherwise the second half of the leaf.
+     */
+    private static Node insert(Node t, int index, Object o) {
+        if(t.isLeaf()) {
+            if(t.count < LEAF_CAPACITY) {
+                System.arraycopy(t.items, index, t.items, index + 1, t.count - index);
+                t.items[index] = o;
+                t.count++;
+                t.size++;
+                return t;
+            }
+            if(index == t.count) {
+                return new Node(t, newLeaf(o));
+            }
+            if(index == 0) {
+                return new Node(newLeaf(o), t);
+            }
+            Node r = splitLeaf(t, t.count / 2);
+            if(index <= t.count) {
+                insert(t, index, o);
+            }
+            else {
+                insert(r, index - t.count, o);
+            }
+            return new Node(t, r);
+        }
+        if(index <= t.left.size) {
+            t.left = insert(t.left, index, o);
+        }
+        else {
+            t.right = insert(t.right, index - t.left.size, o);
+        }
+        return balance(t);
+    }
+
+    /**
+     * Removes the element at a valid index of the subtree and returns the subtree, rebalanced, or null if it's left empty. An inner node whose children are two leaves which fit in one is replaced by a single leaf; as that can make a subtree two levels lower, a node whose children differ in height by more than 2 is rebuilt with join(Node, Node).
+     */
+    private static Node delete(Node t, int index) {
+        if(t.isLeaf()) {
+            System.arraycopy(t.items, index + 1, t.items, index, t.count - index - 1);
+            t.items[--t.count] = null;
+            t.size--;
+            return t.count == 0 ? null : t;
+        }
+        if(index < t.left.size) {
+            t.left = delete(t.left, index);
+        }
+        else {
+            t.right = delete(t.right, index - t.left.size);
+        }
+        if(t.left == null) {
+            return t.right;
+        }
+        if(t.right == null) {
+            return t.left;
+        }
+        int d = t.left.height - t.right.height;
+        if(d > 2 || d < -2 || (t.left.isLeaf() && t.right.isLeaf() && t.left.count + t.right.count <= LEAF_CAPACITY)) {
+            // Due foglie fuse possono accorciare il figlio di due livelli
+            return join(t.left, t.right);
+        }
+        return balance(t);
+    }
+
+    /**
+     * Moves the elements of the leaf from the index on to a new leaf, which is returned.
+     */
+    private static Node splitLeaf(Node t, int index) {
+        Object[] items = new Object[LEAF_CAPACITY];
+        int n = t.count - index;
+        System.arraycopy(t.items, index, items, 0, n);
+        for(int i = index; i < t.count; i++) {
+            t.items[i] = null;
+        }
+        t.count = index;
+        t.size = index;
+        return new Node(items, n);
+    }
+
+    /**
+     * Appends the elements of b to the leaf a, which must have room for them, and returns a.
+     */
+    private static Node mergeLeaves(Node a, Node b) {
+        System.arraycopy(b.items, 0, a.items, a.count, b.count);
+        a.count += b.count;
+        a.size = a.count;
+        return a;
+    }
+
+    /**
+     * Splits the tree at the index (0 &lt;= index &lt;= size) and returns the tree of the elements before it and the tree of the elements from it on, either of which may be null. The nodes along the path are rejoined with join(Node, Node), so the split takes O(log n) time.
+     */
+    private static Node[] split(Node t, int index) {
+        if(t == null || index == 0) {
+            return new Node[] {null, t};
+        }
+        if(index == t.size) {
+            return new Node[] {t, null};
+        }
+        if(t.isLeaf()) {
+            Node r = splitLeaf(t, index);
+            return new Node[] {t, r};
+        }
+        if(index <= t.left.size) {
+            Node[] parts = split(t.left, index);
+            return new Node[] {parts[0], join(parts[1], t.right)};
+        }
+        Node[] parts = split(t.right, index - t.left.size);
+        return new Node[] {join(t.left, parts[0]), parts[1]};
+    }
+
+    /**
+     * Concatenates two balanced trees, either of which may be null: the lower tree is hung on the facing spine of the taller one, at the node of about its height, and the nodes above are rebalanced. It takes time proportional to the difference of their heights.
+     */
+    private static Node join(Node a, Node b) {
+        if(a == null) {
+            return b;
+        }
+        if(b == null) {
+            return a;
+        }
+        if(a.height > b.height + 1) {
+            a.right = join(a.right, b);
+            return balance(a);
+        }
+        if(b.height > a.height + 1) {
+            b.left = join(a, b.left);
+            return balance(b);
+        }
+        if(a.isLeaf() && b.isLeaf() && a.count + b.count <= LEAF_CAPACITY) {
+            return mergeLeaves(a, b);
+        }
+        return new Node(a, b);
+    }
+
+    /**
+     * Restores the balance of an inner node whose children are balanced and differ in height by at most 2, with a single or double rotation, and returns the root of the subtree.
+     */
+    private static Node balance(Node t) {
+        int d = t.left.height - t.right.height;
+        if(d > 1) {
+            if(t.left.left.height < t.left.right.height) {
+                t.left = rotateLeft(t.left);
+            }
+            return rotateRight(t);
+        }
+        if(d < -1) {
+            if(t.right.right.height < t.right.left.height) {
+                t.right = rotateRight(t.right);
+            }
+            return rotateLeft(t);
+        }
+        t.update();
+        return t;
+    }
+
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        t.update();
+        l.right = t;
+        l.update();
+        return l;
+    }
+
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        t.update();
+        r.left = t;
+        r.update();
+        return r;
+    }
+
+    /**
+     * Builds a balanced tree of full leaves holding the elements of the array between from, inclusive, and to, exclusive. Returns null if the range is empty.
+     */
+    private static Node build(Object[] a, int from, int to) {
+        int n = to - from;
+        if(n == 0) {
+            return null;
+        }
+        if(n <= LEAF_CAPACITY) {
+            Object[] items = new Object[LEAF_CAPACITY];
+            System.arraycopy(a, from, items, 0, n);
+            return new Node(items, n);
+        }
+        int leaves = (n + LEAF_CAPACITY - 1) / LEAF_CAPACITY;
+        int mid = from + (leaves / 2) * LEAF_CAPACITY;
+        return new Node(build(a, from, mid), build(a, mid, to));
+    }
+
+    /**
+     * Copies the elements of the subtree to the array, in order, from the specified position, and returns the position after the last one.
+     */
+    private static int copy(Node t, Object[] a, int at) {
+        if(t == null) {
+            return at;
+        }
+        if(t.isLeaf()) {
+            System.arraycopy(t.items, 0, a, at, t.count);
+            return at + t.count;
+        }
+        return copy(t.right, a, copy(t.left, a, at));
+    }
+
+    /**
+     * Searches the part of the range covered by the subtree, whose first element has the index base.
+     */
+    private static int indexOf(Node t, int base, Object o, int fromIndex, int toIndex) {
+        if(t == null || fromIndex >= base + t.size || toIndex <= base) {
+            return -1;
+        }
+        if(t.isLeaf()) {
+            int end = Math.min(toIndex - base, t.count);
+            for(int i = Math.max(fromIndex - base, 0); i < end; i++) {
+                if(o.equals(t.items[i])) {
+                    return base + i;
+                }
+            }
+            return -1;
+        }
+        int index = indexOf(t.left, base, o, fromIndex, toIndex);
+        if(index >= 0) {
+            return index;
+        }
+        return indexOf(t.right, base + t.left.size, o, fromIndex, toIndex);
+    }
+
+    private static int lastIndexOf(Node t, int base, Object o, int fromIndex, int toIndex) {
+        if(t == null || fromIndex >= base + t.size || toIndex <= base) {
+            return -1;
+        }
+        if(t.isLeaf()) {
+            int start = Math.max(fromIndex - base, 0);
+            for(int i = Math.min(toIndex - base, t.count) - 1; i >= start; i--) {
+                if(o.equals(t.items[i])) {
+                    return base + i;
+                }
+            }
+            return -1;
+        }
+        int index = lastIndexOf(t.right, base + t.left.size, o, fromIndex, toIndex);
+        if(index >= 0) {
+            return index;
+        }
+        return lastIndexOf(t.left, base, o, fromIndex, toIndex);
+    }
+
+}
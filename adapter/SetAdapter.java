@@ -1,31 +1,61 @@
 package adapter;
 
 import java.util.Enumeration;
-import java.util.Hashtable;
 
 /**
  * Adapter class from CLDC 1.1 Hashtable to JSE 1.4.2 Set (interface HSet).
 This class implements an Object Adapter, therefore it stores a Hastable instance which is used by the Set's methods. This implementation does not allow null elements.
+ * <p>The set can alternatively be created with OPEN_ADDRESSING_STORAGE, in which case the elements are kept in an unsynchronized key-only open-addressing table instead of the hashtable. Such a set must not be shared between threads without external synchronization.
  */
 
 public class SetAdapter implements HSet {
 
-    private Hashtable hashtable = new Hashtable();
+    /**
+     * Storage mode which keeps the elements in a CLDC 1.1 Hashtable, mapping each element to itself. Every access to the set is synchronized on the hashtable. This is the default mode.
+     */
+    public static final int HASHTABLE_STORAGE = 0;
+
+    /**
+     * Storage mode which keeps the elements in a key-only open-addressing table which is never locked.
+     */
+    public static final int OPEN_ADDRESSING_STORAGE = 1;
+
+    private SetStorage storage;
+
+    /**
+     * Constructs an empty set backed by a Hashtable (HASHTABLE_STORAGE).
+     */
+    public SetAdapter() {
+        this(HASHTABLE_STORAGE);
+    }
+
+    /**
+     * Constructs an empty set with the specified storage mode.
+     * @param mode either HASHTABLE_STORAGE or OPEN_ADDRESSING_STORAGE.
+     * @throws IllegalArgumentException if the storage mode is not one of the above.
+     */
+    public SetAdapter(int mode) {
+        if(mode == HASHTABLE_STORAGE) {
+            storage = new HashtableSetStorage();
+        }
+        else if(mode == OPEN_ADDRESSING_STORAGE) {
+            storage = new OpenHashSetStorage();
+        }
+        else {
+            throw new IllegalArgumentException();
+        }
+    }
 
     /**
      * {@inheritDoc}
-     * <p>This implementations checks if the object is already contained in the set using contains(Object), and if it isn't it adds the object to the set calling the hashtable's put(Object, Object) method.
+     * <p>This implementations calls the hashtable's put(Object, Object) method, mapping the object to itself, and uses the returned previous value to tell whether the object was already contained in the set, so that the object is hashed only once (with OPEN_ADDRESSING_STORAGE, a single probe of the table either finds the object or stores it in a free slot).
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean add(Object o) {
         if(o == null) {
             throw new NullPointerException();
         }
-        if(contains(o)) {
-            return false;
-        }
-        hashtable.put(o, o);
-        return true;
+        return storage.add(o);
     }
 
     /**
@@ -50,22 +80,22 @@ public class SetAdapter implements HSet {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's clear() method.
+     * <p>This implementation calls the hashtable's clear() method (with OPEN_ADDRESSING_STORAGE, it empties the slots of the table).
      */
     public void clear() {
-        hashtable.clear();
+        storage.clear();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation call's the hashtable's containsKey(Object) method.
+     * <p>This implementation call's the hashtable's containsKey(Object) method (with OPEN_ADDRESSING_STORAGE, it probes the table).
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean contains(Object o) {
         if(o == null) {
             throw new NullPointerException();
         }
-        return hashtable.containsKey(o);
+        return storage.contains(o);
     }
 
     /**
@@ -115,35 +145,39 @@ public class SetAdapter implements HSet {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the set, adding up each element's haschode and returning the result.
+     * <p>This implementation returns the sum of the elements' hashcodes kept by the storage, which adds or subtracts the hashcode of each element added or removed, so the set isn't walked.
      */
     public int hashCode(){
-        int hashCode = 0;
-        HIterator it = iterator();
-        while (it.hasNext()) {
-            hashCode += it.next().hashCode();
-        }
-        return hashCode;
+        return storage.hash();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's isEmpty() method.
+     * <p>This implementation calls the hashtable's isEmpty() method (with OPEN_ADDRESSING_STORAGE, it checks the element count).
      */
     public boolean isEmpty(){
-        return hashtable.isEmpty();
+        return storage.size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation splits a snapshot of the elements of the hashtable, taken in a single pass; with OPEN_ADDRESSING_STORAGE it splits the range of slots of the table, without copying it.
+     */
+    @Override
+    public HSpliterator spliterator() {
+        return storage.spliterator();
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation uses the enumeration returned by the hashtable's keys() method to iterate over the set. If the set is modified in any way other than through the iterator's remove() method while an iteration is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the set when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys.
+     * <p>This implementation uses the enumeration returned by the hashtable's keys() method to iterate over the set. If the set is modified in any way other than through the iterator's remove() method while an iteration is in progress, the changes won't be reflected in the iterator but the latter will not be invalidated. The iterator, in fact, keeps an enumeration of the keys present in the set when the iterator is instantiated. Therefore even if structural changes are made to the map, the iterator will continue to operate on the same enumeration of keys. With OPEN_ADDRESSING_STORAGE the iterator walks the table that was in use when it was instantiated.
      */
     public HIterator iterator(){
         return new SetIterator();
     }
 
     private class SetIterator implements HIterator {
-        private Enumeration keys = hashtable.keys();
+        private Enumeration keys = storage.elements();
         private Object lastRetKey = null;
 
         public boolean hasNext() {
@@ -168,29 +202,28 @@ public class SetAdapter implements HSet {
 
     /**
      * {@inheritDoc}
-     * <p>This implementations checks if the object is already contained in the set using contains(Object), and if it isn't it removes the object from the set calling the hashtable's remove(Object) method.
+     * <p>This implementations calls the hashtable's remove(Object) method and uses the returned value to tell whether the object was contained in the set (with OPEN_ADDRESSING_STORAGE, it marks the slot of the object as deleted).
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean remove(Object o) {
         if(o == null) {
             throw new NullPointerException();
         }
-        if(!contains(o)) {
-            return false;
-        }
-        hashtable.remove(o);
-        return true;
+        return storage.remove(o);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the collection and removes its elements from the set using remove(Object).
+     * <p>If the set is larger than the collection, this implementation iterates over the collection and removes its elements from the set using remove(Object). Otherwise it calls removeIf(HPredicate) with a predicate which matches the elements contained in the collection (probing a transient SetAdapter with the elements of the collection if the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements).
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean removeAll(HCollection c) {
         if(c == null) {
             throw new NullPointerException();
         }
+        if(size() <= c.size()) {
+            return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), true));
+        }
         boolean flag = false;
         HIterator cit = c.iterator();
         while(cit.hasNext()) {
@@ -203,31 +236,41 @@ public class SetAdapter implements HSet {
 
     /**
      * {@inheritDoc}
-     * <p>This implementation iterates over the set and removes from the set the elements which are not contained in the collection (using the iterator's remove() method).
+     * <p>This implementation calls removeIf(HPredicate) with a predicate which matches the elements not contained in the collection (probing a transient SetAdapter with the elements of the collection if the collection isn't a set and has more than ListAdapter.LOOKUP_THRESHOLD elements).
      * @throws NullPointerException {@inheritDoc}
      */
     public boolean retainAll(HCollection c){
         if(c == null) {
             throw new NullPointerException();
         }
-        boolean flag = false;
-        HIterator it = iterator();
-        while(it.hasNext()) {
-            Object o = it.next();
-            if(!c.contains(o)) {
-                it.remove();
-                flag = true;
-            }
+        return removeIf(new MembershipPredicate(ListAdapter.lookupOf(c), false));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation makes a single pass over the hashtable's keys (with OPEN_ADDRESSING_STORAGE, over the slots of the table), removing the matching elements as it goes.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean removeIf(HPredicate filter) {
+        if(filter == null) {
+            throw new NullPointerException();
         }
-        return flag;
+        return storage.removeIf(filter);
     }
 
     /**
      * {@inheritDoc}
-     * <p>This implementation calls the hashtable's size() method.
+     * <p>This implementation calls the hashtable's size() method (with OPEN_ADDRESSING_STORAGE, it returns the element count).
      */
     public int size() {
-        return hashtable.size();
+        return storage.size();
+    }
+
+    /**
+     * Returns a new array with the elements of the set, copied straight from the storage without going through iterator(). Used by ListAdapter.addAll(int, HCollection).
+     */
+    Object[] storageToArray() {
+        return storage.toArray();
     }
 
     /**
@@ -0,0 +1,78 @@
+package adapter;
+
+import java.util.Enumeration;
+
+/**
+ * Backing storage of a SetAdapter. The storage only keeps the elements: null elements are rejected by the SetAdapter before they get here.
+ */
+
+abstract class SetStorage {
+
+    /**
+     * Returns the number of elements in the storage.
+     * @return the number of elements in the storage.
+     */
+    abstract int size();
+
+    /**
+     * Adds the element if it isn't already in the storage.
+     * @param o the element to add.
+     * @return true if the element was added, false if it was already in the storage.
+     */
+    abstract boolean add(Object o);
+
+    /**
+     * Removes the element if it is in the storage.
+     * @param o the element to remove.
+     * @return true if the element was removed.
+     */
+    abstract boolean remove(Object o);
+
+    /**
+     * Removes the elements which satisfy the predicate, in a single pass over the storage.
+     * @param filter predicate which returns true for the elements to be removed.
+     * @return true if any element was removed.
+     */
+    abstract boolean removeIf(HPredicate filter);
+
+    /**
+     * Returns true if the storage contains the element.
+     * @param o the element to look up.
+     * @return true if the storage contains the element.
+     */
+    abstract boolean contains(Object o);
+
+    /**
+     * Removes all of the elements.
+     */
+    abstract void clear();
+
+    /**
+     * Returns the sum of the hashcodes of the elements, kept up to date by the mutators.
+     * @return the hashcode of the set.
+     */
+    abstract int hash();
+
+    /**
+     * Returns a new array containing all of the elements.
+     * @return a new array containing all of the elements.
+     */
+    abstract Object[] toArray();
+
+    /**
+     * Returns an enumeration of the elements in the storage.
+     * @return an enumeration of the elements in the storage.
+     */
+    abstract Enumeration elements();
+
+    /**
+     * Returns a spliterator over the elements in the storage.
+     * <p>This implementation splits a snapshot of the elements, taken with toArray().
+     * @return a spliterator over the elements in the storage.
+     */
+    SlotSpliterator spliterator() {
+        Object[] a = toArray();
+        return new SlotSpliterator(a, null, 0, a.length, SlotSpliterator.KEYS, null, false);
+    }
+
+}
@@ -0,0 +1,70 @@
+package adapter;
+
+/**
+ * Skeleton of a set which is a view of another structure (such as the keys or the entries of a map) and keeps no elements of its own. It adds the equals(Object) and hashCode() methods of a set to CollectionView.
+ */
+
+abstract class SetView extends CollectionView implements HSet {
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation checks that the object is a set of the same size whose elements are all contained in this view.
+     */
+    public boolean equals(Object o) {
+        if(o == this) {
+            return true;
+        }
+        if(!(o instanceof HSet)) {
+            return false;
+        }
+        HSet s = (HSet) o;
+        if(s.size() != size()) {
+            return false;
+        }
+        try {
+            return containsAll(s);
+        }
+        catch (ClassCastException cce)   {
+            return false;
+        }
+        catch (NullPointerException npe) {
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation iterates over the view and returns the sum of the hashcodes of the elements.
+     */
+    public int hashCode() {
+        int sum = 0;
+        HIterator it = iterator();
+        while(it.hasNext()) {
+            sum += it.next().hashCode();
+        }
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>This implementation behaves like SetAdapter.removeAll(HCollection): if the view is not larger than the collection it calls removeIf(HPredicate), otherwise it iterates over the collection and calls remove(Object) for each element.
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean removeAll(HCollection c) {
+        if(c == null) {
+            throw new NullPointerException();
+        }
+        if(size() <= c.size()) {
+            return super.removeAll(c);
+        }
+        boolean flag = false;
+        HIterator cit = c.iterator();
+        while(cit.hasNext()) {
+            if(remove(cit.next())) {
+                flag = true;
+            }
+        }
+        return flag;
+    }
+
+}
@@ -0,0 +1,103 @@
+package adapter;
+
+/**
+ * HSpliterator over a range of slots of a hash table, kept in a key array and (for maps) a parallel value array. Empty and deleted slots are skipped; splitting halves the range of slots. The same class walks snapshots of the storages which can't be walked by slot (the CLDC Hashtable), and the batches taken from an iterator.
+ */
+
+class SlotSpliterator implements HSpliterator {
+
+    /**
+     * Kinds of element returned: the key, the value or an entry of the slot.
+     */
+    static final int KEYS = 0;
+    static final int VALUES = 1;
+    static final int ENTRIES = 2;
+
+    private final Object[] keys;
+    private final Object[] values;
+    private int index;
+    private final int fence;
+    private final int kind;
+    private final MapAdapter map;
+
+    /**
+     * True if the arrays are the table of a storage (so the entries can keep their slot), false if they're a snapshot.
+     */
+    private final boolean table;
+
+    /**
+     * Constructs a spliterator over the slots between fromIndex, inclusive, and toIndex, exclusive.
+     * @param values the value array, or null if only keys are returned.
+     * @param map the map the entries are returned for, or null if no entries are returned.
+     */
+    SlotSpliterator(Object[] keys, Object[] values, int fromIndex, int toIndex, int kind, MapAdapter map, boolean table) {
+        this.keys = keys;
+        this.values = values;
+        this.index = fromIndex;
+        this.fence = toIndex;
+        this.kind = kind;
+        this.map = map;
+        this.table = table;
+    }
+
+    /**
+     * Returns the element of the slot, or null if the slot is empty or deleted.
+     */
+    private Object element(int i) {
+        Object k = keys[i];
+        if(k == null || k == OpenHashStorage.DELETED) {
+            return null;
+        }
+        if(kind == KEYS) {
+            return k;
+        }
+        Object v = values[i];
+        if(kind == VALUES) {
+            return v;
+        }
+        return map.entry(k, v, table ? i : -1);
+    }
+
+    public boolean tryAdvance(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        while(index < fence) {
+            Object o = element(index++);
+            if(o != null) {
+                action.accept(o);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void forEachRemaining(HConsumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        int i = index;
+        index = fence;
+        for(; i < fence; i++) {
+            Object o = element(i);
+            if(o != null) {
+                action.accept(o);
+            }
+        }
+    }
+
+    public HSpliterator trySplit() {
+        int mid = (index + fence) >>> 1;
+        if(mid <= index) {
+            return null;
+        }
+        HSpliterator prefix = new SlotSpliterator(keys, values, index, mid, kind, map, table);
+        index = mid;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return fence - index;
+    }
+
+}
@@ -0,0 +1,107 @@
+package adapter;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * java.util.Spliterator backed by an HSpliterator, through which the streams of the collections traverse and split their storage directly. It reports the exact size of the collection until it's split, unless the collection is a weakly consistent view; the spliterators over index ranges (IndexSpliterator) keep reporting exact sizes after splitting too (SIZED and SUBSIZED), while the ranges of slots of a hash table only have an estimated size.
+ */
+
+final class StreamSpliterator implements Spliterator {
+
+    private final HSpliterator s;
+
+    /**
+     * Exact number of remaining elements, or -1 if it isn't known.
+     */
+    private long size;
+
+    /**
+     * Characteristics reported whatever the size.
+     */
+    private final int characteristics;
+
+    /**
+     * True if the estimated size of the HSpliterator, and of those split from it, is exact.
+     */
+    private final boolean exact;
+
+    private StreamSpliterator(HSpliterator s, long size, int characteristics, boolean exact) {
+        this.s = s;
+        this.size = size;
+        this.characteristics = characteristics;
+        this.exact = exact;
+    }
+
+    /**
+     * Returns the spliterator of the stream of the collection. The streams of the weakly consistent views (CONCURRENT, see CollectionView.streamCharacteristics()) report only an estimated size, as the collection may grow or shrink while they run.
+     */
+    static Spliterator of(HCollection c) {
+        HSpliterator s = c.spliterator();
+        int characteristics = NONNULL;
+        boolean exact = s instanceof IndexSpliterator;
+        if(exact || (c instanceof HList && s instanceof IteratorSpliterator)) {
+            characteristics |= ORDERED;
+        }
+        if(c instanceof HSet) {
+            characteristics |= DISTINCT;
+        }
+        if(c instanceof CollectionView) {
+            characteristics |= ((CollectionView) c).streamCharacteristics();
+        }
+        if((characteristics & CONCURRENT) != 0) {
+            return new StreamSpliterator(s, -1, characteristics, false);
+        }
+        return new StreamSpliterator(s, c.size(), characteristics, exact);
+    }
+
+    /**
+     * Returns an HConsumer which passes the elements to the action.
+     */
+    private static HConsumer consumer(final Consumer action) {
+        if(action == null) {
+            throw new NullPointerException();
+        }
+        return new HConsumer() {
+            public void accept(Object o) {
+                action.accept(o);
+            }
+        };
+    }
+
+    public boolean tryAdvance(Consumer action) {
+        if(!s.tryAdvance(consumer(action))) {
+            return false;
+        }
+        if(size > 0) {
+            size--;
+        }
+        return true;
+    }
+
+    public void forEachRemaining(Consumer action) {
+        s.forEachRemaining(consumer(action));
+        size = 0;
+    }
+
+    public Spliterator trySplit() {
+        HSpliterator prefix = s.trySplit();
+        if(prefix == null) {
+            return null;
+        }
+        size = exact ? s.estimateSize() : -1;
+        return new StreamSpliterator(prefix, exact ? prefix.estimateSize() : -1, characteristics, exact);
+    }
+
+    public long estimateSize() {
+        return size >= 0 ? size : s.estimateSize();
+    }
+
+    public int characteristics() {
+        if(exact) {
+            return characteristics | SIZED | SUBSIZED;
+        }
+        return size >= 0 ? characteristics | SIZED : characteristics;
+    }
+
+}
@@ -0,0 +1,221 @@
+package adapter;
+
+/**
+ * MapStorage which keeps, next to the mappings, a reverse index from every value to the keys mapped to it, so that containsValue(Object) and removeValue(Object) are lookups instead of scans of the whole table. Both the mappings and the index are kept in storages of the same mode (Hashtable or open addressing).
+ * <p>The index maps a value to its only key or, when several keys are mapped to the value, to a SetStorage holding them. Every update of the mappings updates the index too, so the updates are synchronized on the storage.
+ */
+
+class ValueIndexedStorage extends MapStorage {
+
+    private final MapStorage mappings;
+    private final MapStorage index;
+    private final boolean open;
+
+    /**
+     * Constructs an empty storage.
+     * @param open true to keep the mappings and the index in open-addressing tables, false to keep them in hashtables.
+     */
+    ValueIndexedStorage(boolean open) {
+        this.open = open;
+        if(open) {
+            mappings = new OpenHashStorage();
+            index = new OpenHashStorage();
+        }
+        else {
+            mappings = new HashtableStorage();
+            index = new HashtableStorage();
+        }
+    }
+
+    int size() {
+        return mappings.size();
+    }
+
+    Object get(Object key) {
+        return mappings.get(key);
+    }
+
+    synchronized Object put(Object key, Object value) {
+        Object old = mappings.put(key, value);
+        if(old != null) {
+            if(old.equals(value)) {
+                return old;
+            }
+            unindex(old, key);
+        }
+        index(value, key);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The previous value is looked up first, to be dropped from the index.
+     */
+    synchronized boolean replace(Object key, Object value, int slot) {
+        Object old = mappings.get(key);
+        if(old == null) {
+            return false;
+        }
+        mappings.replace(key, value, slot);
+        if(!old.equals(value)) {
+            unindex(old, key);
+            index(value, key);
+        }
+        return true;
+    }
+
+    synchronized Object remove(Object key) {
+        Object old = mappings.remove(key);
+        if(old != null) {
+            unindex(old, key);
+        }
+        return old;
+    }
+
+    boolean containsKey(Object key) {
+        return mappings.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The value is looked up in the index.
+     */
+    synchronized boolean containsValue(Object value) {
+        return index.containsKey(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The keys mapped to the value are taken from the index, so only their mappings are visited.
+     */
+    synchronized boolean removeValue(Object value) {
+        Object keys = index.remove(value);
+        if(keys == null) {
+            return false;
+        }
+        if(keys instanceof SetStorage) {
+            Object[] a = ((SetStorage) keys).toArray();
+            for(int i = 0; i < a.length; i++) {
+                mappings.remove(a[i]);
+            }
+        }
+        else {
+            mappings.remove(keys);
+        }
+        return true;
+    }
+
+    synchronized void clear() {
+        mappings.clear();
+        index.clear();
+    }
+
+    int keyHash() {
+        return mappings.keyHash();
+    }
+
+    int entryHash() {
+        return mappings.entryHash();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The cursor walks the mappings' storage; removing through it also drops the mapping from the index.
+     */
+    Cursor cursor() {
+        return new IndexedCursor(mappings.cursor());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The spliterator walks the mappings' storage, which is only read.
+     */
+    SlotSpliterator spliterator(int kind, MapAdapter map) {
+        return mappings.spliterator(kind, map);
+    }
+
+    private class IndexedCursor extends Cursor {
+
+        private final Cursor c;
+
+        IndexedCursor(Cursor c) {
+            this.c = c;
+        }
+
+        boolean hasNext() {
+            return c.hasNext();
+        }
+
+        void next() {
+            c.next();
+        }
+
+        Object key() {
+            return c.key();
+        }
+
+        Object value() {
+            return c.value();
+        }
+
+        int slot() {
+            return c.slot();
+        }
+
+        /**
+         * If the cursor no longer walks the live table (a hashtable, or a table rebuilt since the cursor was created), the value it holds may be stale, so the key is removed through the storage, which unindexes the value actually removed.
+         */
+        void remove() {
+            synchronized(ValueIndexedStorage.this) {
+                Object key = c.key();
+                if(c.slot() == -1) {
+                    ValueIndexedStorage.this.remove(key);
+                    return;
+                }
+                Object value = c.value();
+                c.remove();
+                if(value != null) {
+                    unindex(value, key);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Adds the key to the keys mapped to the value.
+     */
+    private void index(Object value, Object key) {
+        Object keys = index.get(value);
+        if(keys == null) {
+            index.put(value, key);
+        }
+        else if(keys instanceof SetStorage) {
+            ((SetStorage) keys).add(key);
+        }
+        else {
+            SetStorage s = open ? (SetStorage) new OpenHashSetStorage() : new HashtableSetStorage();
+            s.add(keys);
+            s.add(key);
+            index.put(value, s);
+        }
+    }
+
+    /**
+     * Removes the key from the keys mapped to the value. A set left with a single key is replaced by the key itself; a single key is dropped only if it is the specified one.
+     */
+    private void unindex(Object value, Object key) {
+        Object keys = index.get(value);
+        if(keys instanceof SetStorage) {
+            SetStorage s = (SetStorage) keys;
+            s.remove(key);
+            if(s.size() == 1) {
+                index.put(value, s.elements().nextElement());
+            }
+        }
+        else if(keys != null && keys.equals(key)) {
+            index.remove(value);
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package adapter;
+
+import java.util.Vector;
+
+/**
+ * ListStorage backed by a CLDC 1.1 Vector. Every access goes through the vector's synchronized methods, so the storage can be shared between threads. The ArrayIndexOutOfBoundsExceptions thrown by the vector are translated to IndexOutOfBoundsExceptions.
+ */
+
+class VectorStorage extends ListStorage {
+
+    private Vector v = new Vector();
+
+    /**
+     * Volatile copy of the version: unlike the other storages, the vector may be changed by a thread and hashed by another. Concurrent mutators may lose an increment, but each increment follows its own change, so a hash computed between two reads of the same version is up to date.
+     */
+    private volatile int version = 0;
+
+    private volatile long cachedHash = -1L << 32;
+
+    int version() {
+        return version;
+    }
+
+    void changed() {
+        version++;
+    }
+
+    long cachedHash() {
+        return cachedHash;
+    }
+
+    void cacheHash(int version, int hash) {
+        cachedHash = ((long) version << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    int size() {
+        return v.size();
+    }
+
+    Object get(int index) {
+        try {
+            return v.elementAt(index);
+        }
+        catch(ArrayIndexOutOfBoundsException e) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    Object set(int index, Object o) {
+        Object old = get(index); // Contiene controllo bounds
+        v.setElementAt(o, index);
+        return old;
+    }
+
+    void add(Object o) {
+        v.addElement(o);
+    }
+
+    void add(int index, Object o) {
+        try {
+            v.insertElementAt(o, index);
+        }
+        catch(ArrayIndexOutOfBoundsException e) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The vector is locked for the whole insertion: it's grown once with setSize(int), then the tail is moved up by count positions and the elements are copied into the gap.
+     */
+    void addAll(int index, Object[] a, int count) {
+        synchronized(v) {
+            int n = v.size();
+            if(index < 0 || index > n) {
+                throw new IndexOutOfBoundsException();
+            }
+            v.setSize(n + count);
+            for(int i = n - 1; i >= index; i--) {
+                v.setElementAt(v.elementAt(i), i + count);
+            }
+            for(int i = 0; i < count; i++) {
+                v.setElementAt(a[i], index + i);
+            }
+        }
+    }
+
+    Object remove(int index) {
+        Object o = get(index); // Contiene controllo bounds
+        v.removeElementAt(index);
+        return o;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The vector is locked for the whole pass: the survivors and the tail are moved down with setElementAt(Object, int) and the vector is truncated once with setSize(int).
+     */
+    int removeIf(HPredicate filter, int fromIndex, int toIndex) {
+        synchronized(v) {
+            int r = fromIndex;
+            int w = fromIndex;
+            try {
+                for(; r < toIndex; r++) {
+                    Object o = v.elementAt(r);
+                    if(!filter.test(o)) {
+                        v.setElementAt(o, w++);
+                    }
+                }
+            }
+            finally {
+                if(w != r) {
+                    removeRange(w, r);
+                }
+            }
+            return r - w;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The tail is moved with elementAt(int) and setElementAt(Object, int) holding the vector's lock, then the vector is truncated with setSize(int).
+     */
+    void removeRange(int fromIndex, int toIndex) {
+        synchronized(v) {
+            int n = v.size();
+            for(int i = toIndex; i < n; i++) {
+                v.setElementAt(v.elementAt(i), fromIndex + (i - toIndex));
+            }
+            v.setSize(n - (toIndex - fromIndex));
+        }
+    }
+
+    boolean remove(Object o) {
+        return v.removeElement(o);
+    }
+
+    int indexOf(Object o) {
+        return v.indexOf(o);
+    }
+
+    int lastIndexOf(Object o) {
+        return v.lastIndexOf(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The range is scanned with elementAt(int) holding the vector's lock, as the vector's own indexOf(Object, int) only bounds the search from below.
+     */
+    int indexOf(Object o, int fromIndex, int toIndex) {
+        synchronized(v) {
+            int n = Math.min(toIndex, v.size());
+            for(int i = fromIndex; i < n; i++) {
+                if(o.equals(v.elementAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The range is scanned with elementAt(int) holding the vector's lock.
+     */
+    int lastIndexOf(Object o, int fromIndex, int toIndex) {
+        synchronized(v) {
+            for(int i = Math.min(toIndex, v.size()) - 1; i >= fromIndex; i--) {
+                if(o.equals(v.elementAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    void clear() {
+        v.removeAllElements();
+    }
+
+    Object[] toArray() {
+        synchronized(v) {
+            Object[] a = new Object[v.size()];
+            v.copyInto(a);
+            return a;
+        }
+    }
+
+}
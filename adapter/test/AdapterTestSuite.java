@@ -10,7 +10,7 @@ import org.junit.runners.Suite;
 //JUnit Suite Test
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-    TestSetAdapter.class, TestListAdapter.class, TestListAdapterSublist.class, TestMapAdapter.class, TestMapAdapterEntrySet.class, TestMapAdapterKeySet.class, TestMapAdapterValues.class
+    TestSetAdapter.class, TestSetAdapterOpenAddressing.class, TestListAdapter.class, TestListAdapterSublist.class, TestListAdapterArrayStorage.class, TestListAdapterSublistArrayStorage.class, TestListAdapterGapBuffer.class, TestListAdapterSublistGapBuffer.class, TestListAdapterRope.class, TestListAdapterSublistRope.class, TestIntListAdapter.class, TestLongListAdapter.class, TestOffHeapListAdapter.class, TestMapAdapter.class, TestMapAdapterEntrySet.class, TestMapAdapterKeySet.class, TestMapAdapterValues.class, TestMapAdapterOpenAddressing.class, TestMapAdapterEntrySetOpenAddressing.class, TestMapAdapterKeySetOpenAddressing.class, TestMapAdapterValuesOpenAddressing.class, TestMapAdapterValueIndex.class, TestIntMapAdapter.class, TestLongMapAdapter.class, TestMappedMapAdapter.class, TestConcurrentMapAdapter.class, TestParallelBulkOps.class, TestStreams.class, TestMapAdapterValuesValueIndex.class
 })
 
 /**
@@ -0,0 +1,275 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case class for ConcurrentMapAdapter
+ * @safe.summary This classes tests the HMap methods and the views of ConcurrentMapAdapter, then updates and iterates over it from several threads at the same time
+ */
+public class TestConcurrentMapAdapter {
+
+    private static final int THREADS = 4;
+
+    private ConcurrentMapAdapter m = null;
+
+    /**
+     * Setup method, initializes the ConcurrentMapAdapter
+     */
+
+    @Before
+    public void setUp() {
+        m = new ConcurrentMapAdapter();
+    }
+
+    /**
+     * Test put and get beyond the initial capacity of the segments
+     * @safe.precondition map initialized
+     * @safe.postcondition 10000 mappings in the map
+     * @safe.testcases Puts 10000 mappings, so that every segment is rehashed several times, and checks every value, containsKey and containsValue.
+     */
+    @Test
+    public void testPutAndGet() {
+        for(int i = 0; i < 10000; i++) {
+            assertNull(m.put(Integer.valueOf(i), "v" + i));
+        }
+        assertEquals(10000, m.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals("v" + i, m.get(Integer.valueOf(i)));
+        }
+        assertNull(m.get(Integer.valueOf(10000)));
+        assertTrue(m.containsKey(Integer.valueOf(9999)));
+        assertFalse(m.containsKey("9999"));
+        assertTrue(m.containsValue("v9999"));
+        assertFalse(m.containsValue("v10000"));
+    }
+
+    /**
+     * Test put of a key already mapped and remove
+     * @safe.precondition map initialized, "a" mapped to 1
+     * @safe.postcondition map empty
+     * @safe.testcases Test that put returns the previous value without changing the size, and that remove returns the removed value and null for a missing key.
+     */
+    @Test
+    public void testReplaceAndRemove() {
+        m.put("a", Integer.valueOf(1));
+        assertEquals(Integer.valueOf(1), m.put("a", Integer.valueOf(2)));
+        assertEquals(1, m.size());
+        assertEquals(Integer.valueOf(2), m.remove("a"));
+        assertNull(m.remove("a"));
+        assertTrue(m.isEmpty());
+    }
+
+    /**
+     * Test a map with a single segment and colliding chains
+     * @safe.precondition map with one segment
+     * @safe.postcondition the mappings left after removing every third key
+     * @safe.testcases Fills a single segment, removes keys in the middle of the chains and checks that the other mappings are still found.
+     */
+    @Test
+    public void testSingleSegment() {
+        m = new ConcurrentMapAdapter(1);
+        for(int i = 0; i < 1000; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(-i));
+        }
+        for(int i = 0; i < 1000; i += 3) {
+            assertEquals(Integer.valueOf(-i), m.remove(Integer.valueOf(i)));
+        }
+        assertEquals(666, m.size());
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 == 0 ? null : Integer.valueOf(-i), m.get(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test null keys and values and an invalid concurrency level
+     * @safe.precondition map initialized
+     * @safe.postcondition NullPointerException and IllegalArgumentException thrown, map still empty
+     * @safe.testcases Test that put, get and remove with null throw NullPointerException, and that a concurrency level of 0 throws IllegalArgumentException.
+     */
+    @Test
+    public void testNull() {
+        try {
+            m.put(null, "a");
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.put("a", null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.get(null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.remove(null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            new ConcurrentMapAdapter(0);
+            assertTrue(false);
+        }
+        catch(IllegalArgumentException iae) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test the views and their iterators
+     * @safe.precondition map initialized, 100 mappings from i to i % 10
+     * @safe.postcondition the mappings with an even key and a value other than 2 left, their values negated through the entries
+     * @safe.testcases Removes through the iterator of the keySet and through values().remove (which removes every mapping to the value), then changes the values through the entries of the entrySet.
+     */
+    @Test
+    public void testViews() {
+        for(int i = 0; i < 100; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i % 10));
+        }
+        assertEquals(100, m.keySet().size());
+        assertTrue(m.values().contains(Integer.valueOf(9)));
+        HIterator it = m.keySet().iterator();
+        int count = 0;
+        while(it.hasNext()) {
+            Integer key = (Integer) it.next();
+            count++;
+            if(key.intValue() % 2 != 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, count);
+        assertEquals(50, m.size());
+        assertTrue(m.values().remove(Integer.valueOf(2)));
+        assertFalse(m.values().remove(Integer.valueOf(2)));
+        assertEquals(40, m.size());
+        it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            e.setValue(Integer.valueOf(-((Integer) e.getValue()).intValue()));
+        }
+        for(int i = 0; i < 100; i++) {
+            Object expected = i % 2 != 0 || i % 10 == 2 ? null : Integer.valueOf(-(i % 10));
+            assertEquals(expected, m.get(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test equals, hashCode and the bulk operations of the views
+     * @safe.precondition map initialized, 100 mappings, MapAdapter with the same mappings
+     * @safe.postcondition the maps are equal, then the keys 0-9 removed and only 50 retained
+     * @safe.testcases Compares the maps and their entrySets, then removes keys through keySet().removeAll and retainAll.
+     */
+    @Test
+    public void testEqualsAndBulk() {
+        MapAdapter other = new MapAdapter();
+        ListAdapter keys = new ListAdapter();
+        for(int i = 0; i < 100; i++) {
+            m.put(Integer.valueOf(i), "v" + i);
+            other.put(Integer.valueOf(i), "v" + i);
+            if(i < 10) {
+                keys.add(Integer.valueOf(i));
+            }
+        }
+        assertEquals(other, m);
+        assertEquals(m, other);
+        assertEquals(other.hashCode(), m.hashCode());
+        assertEquals(other.entrySet(), m.entrySet());
+        assertEquals(other.keySet().hashCode(), m.keySet().hashCode());
+        assertTrue(m.keySet().removeAll(keys));
+        assertEquals(90, m.size());
+        keys.clear();
+        keys.add(Integer.valueOf(50));
+        assertTrue(m.keySet().retainAll(keys));
+        assertEquals(1, m.size());
+        assertEquals("v50", m.get(Integer.valueOf(50)));
+        m.clear();
+        assertTrue(m.isEmpty());
+    }
+
+    /**
+     * Test updates from several threads at the same time
+     * @safe.precondition map initialized
+     * @safe.postcondition every thread's mappings in the map
+     * @safe.testcases Runs 4 threads, each putting 20000 distinct keys and removing half of them, and checks the size and every mapping once they have finished.
+     */
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for(int t = 0; t < THREADS; t++) {
+            final int base = t * 100000;
+            threads[t] = new Thread() {
+                public void run() {
+                    for(int i = 0; i < 20000; i++) {
+                        m.put(Integer.valueOf(base + i), Integer.valueOf(i));
+                    }
+                    for(int i = 0; i < 20000; i += 2) {
+                        m.remove(Integer.valueOf(base + i));
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for(int t = 0; t < THREADS; t++) {
+            threads[t].join();
+        }
+        assertEquals(THREADS * 10000, m.size());
+        for(int t = 0; t < THREADS; t++) {
+            for(int i = 0; i < 20000; i++) {
+                assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), m.get(Integer.valueOf(t * 100000 + i)));
+            }
+        }
+    }
+
+    /**
+     * Test iterating while another thread updates the map
+     * @safe.precondition map initialized, keys 0-9999 mapped
+     * @safe.postcondition every key mapped before the iteration returned exactly once
+     * @safe.testcases Iterates over the keySet while another thread adds keys from 10000 on and rehashes the segments, and checks that no exception is thrown and that every key present from the start is returned once.
+     */
+    @Test
+    public void testWeaklyConsistentIterator() throws InterruptedException {
+        for(int i = 0; i < 10000; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        Thread writer = new Thread() {
+            public void run() {
+                for(int i = 10000; i < 60000; i++) {
+                    m.put(Integer.valueOf(i), Integer.valueOf(i));
+                }
+            }
+        };
+        writer.start();
+        boolean[] seen = new boolean[10000];
+        HIterator it = m.keySet().iterator();
+        while(it.hasNext()) {
+            int key = ((Integer) it.next()).intValue();
+            if(key < 10000) {
+                assertFalse(seen[key]);
+                seen[key] = true;
+            }
+        }
+        writer.join();
+        for(int i = 0; i < 10000; i++) {
+            assertTrue(seen[i]);
+        }
+        assertEquals(60000, m.size());
+    }
+
+}
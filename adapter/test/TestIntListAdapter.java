@@ -0,0 +1,383 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Test case class for IntListAdapter
+ * @safe.summary This classes tests the unboxed methods of IntListAdapter, the HList methods which box and unbox its values, its iterators and its sublists
+ */
+public class TestIntListAdapter {
+
+    private IntListAdapter l = null;
+
+    /**
+     * Setup method, initializes the IntListAdapter
+     */
+
+    @Before
+    public void setUp() {
+        l = new IntListAdapter();
+    }
+
+    /**
+     * Test addInt and getInt beyond the initial capacity
+     * @safe.precondition List initialized
+     * @safe.postcondition The values 0-9999 in the list
+     * @safe.testcases Appends 10000 values, so that the array grows several times, and checks the size and every value, both unboxed and boxed.
+     */
+    @Test
+    public void testAddIntAndGet() {
+        for(int i = 0; i < 10000; i++) {
+            l.addInt(i);
+        }
+        assertEquals(10000, l.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals(i, l.getInt(i));
+            assertEquals(Integer.valueOf(i), l.get(i));
+        }
+    }
+
+    /**
+     * Test addInt(int, int) in the middle of the list
+     * @safe.precondition List initialized, the values 0-4 added
+     * @safe.postcondition 100 inserted at index 2
+     * @safe.testcases Test that the value is inserted at the index and the following values are shifted to the right.
+     */
+    @Test
+    public void testAddIntAtIndex() {
+        for(int i = 0; i < 5; i++) {
+            l.addInt(i);
+        }
+        l.addInt(2, 100);
+        assertEquals(6, l.size());
+        assertEquals(1, l.getInt(1));
+        assertEquals(100, l.getInt(2));
+        assertEquals(2, l.getInt(3));
+        assertEquals(4, l.getInt(5));
+    }
+
+    /**
+     * Test addInt(int, int) with an index out of range
+     * @safe.precondition List initialized
+     * @safe.postcondition IndexOutOfBoundsException thrown
+     * @safe.testcases Test that inserting at index 1 in an empty list throws IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddIntAtIndexOutOfBounds() {
+        l.addInt(1, 0);
+    }
+
+    /**
+     * Test add(Object) with null
+     * @safe.precondition List initialized
+     * @safe.postcondition NullPointerException thrown
+     * @safe.testcases Test that add(null) throws NullPointerException.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testAddWithNull() {
+        l.add(null);
+    }
+
+    /**
+     * Test add(Object) with an object which isn't an Integer
+     * @safe.precondition List initialized
+     * @safe.postcondition ClassCastException thrown
+     * @safe.testcases Test that adding a String throws ClassCastException.
+     */
+    @Test(expected = ClassCastException.class)
+    public void testAddWithWrongType() {
+        l.add("1");
+    }
+
+    /**
+     * Test setInt
+     * @safe.precondition List initialized, the values 0-2 added
+     * @safe.postcondition The value at index 1 replaced by 7
+     * @safe.testcases Test that setInt returns the previous value and that set(int, Object) returns it boxed.
+     */
+    @Test
+    public void testSetInt() {
+        for(int i = 0; i < 3; i++) {
+            l.addInt(i);
+        }
+        assertEquals(1, l.setInt(1, 7));
+        assertEquals(Integer.valueOf(7), l.set(1, Integer.valueOf(8)));
+        assertEquals(8, l.getInt(1));
+    }
+
+    /**
+     * Test getInt with an index out of range
+     * @safe.precondition List initialized, one value added
+     * @safe.postcondition IndexOutOfBoundsException thrown
+     * @safe.testcases Test that getInt(1) throws IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetIntOutOfBounds() {
+        l.addInt(0);
+        l.getInt(1);
+    }
+
+    /**
+     * Test removeInt and remove(Object)
+     * @safe.precondition List initialized, the values 0-9 added
+     * @safe.postcondition 0 and 5 removed
+     * @safe.testcases Test that removeInt(0) returns 0, that remove(Object) removes the value 5 and returns true, and that it returns false for a missing value and for an object which isn't an Integer.
+     */
+    @Test
+    public void testRemove() {
+        for(int i = 0; i < 10; i++) {
+            l.addInt(i);
+        }
+        assertEquals(0, l.removeInt(0));
+        assertTrue(l.remove(Integer.valueOf(5)));
+        assertFalse(l.remove(Integer.valueOf(5)));
+        assertFalse(l.remove("6"));
+        assertEquals(8, l.size());
+        assertEquals(-1, l.indexOfInt(5));
+        assertEquals(4, l.indexOfInt(6));
+    }
+
+    /**
+     * Test indexOfInt, lastIndexOfInt and contains
+     * @safe.precondition List initialized, the values 0-4 added twice
+     * @safe.postcondition None
+     * @safe.testcases Test the first and last index of a value, that a missing value gives -1, and that contains returns false for an object of another type.
+     */
+    @Test
+    public void testIndexOf() {
+        for(int j = 0; j < 2; j++) {
+            for(int i = 0; i < 5; i++) {
+                l.addInt(i);
+            }
+        }
+        assertEquals(3, l.indexOfInt(3));
+        assertEquals(8, l.lastIndexOfInt(3));
+        assertEquals(3, l.indexOf(Integer.valueOf(3)));
+        assertEquals(8, l.lastIndexOf(Integer.valueOf(3)));
+        assertEquals(-1, l.indexOfInt(5));
+        assertTrue(l.containsInt(4));
+        assertTrue(l.contains(Integer.valueOf(4)));
+        assertFalse(l.contains("4"));
+    }
+
+    /**
+     * Test the unboxed list iterator
+     * @safe.precondition List initialized, the values 0-9 added
+     * @safe.postcondition The odd values doubled, the even values removed, -1 inserted at the end
+     * @safe.testcases Walks the list forward with nextInt, removing and replacing values and inserting one at the end, then walks it backwards with previousInt and checks the values.
+     */
+    @Test
+    public void testListIterator() {
+        for(int i = 0; i < 10; i++) {
+            l.addInt(i);
+        }
+        HIntListIterator it = l.listIterator();
+        while(it.hasNext()) {
+            int v = it.nextInt();
+            if(v % 2 == 0) {
+                it.remove();
+            }
+            else {
+                it.setInt(v * 2);
+            }
+        }
+        it.addInt(-1);
+        assertEquals(6, l.size());
+        assertEquals(-1, it.previousInt());
+        for(int i = 4; it.hasPrevious(); i--) {
+            assertEquals(i, it.previousIndex());
+            assertEquals((2 * i + 1) * 2, it.previousInt());
+        }
+    }
+
+    /**
+     * Test next with no more elements
+     * @safe.precondition List initialized
+     * @safe.postcondition NoSuchElementException thrown
+     * @safe.testcases Test that calling next on the iterator of an empty list throws NoSuchElementException.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorNextOnEmpty() {
+        l.iterator().next();
+    }
+
+    /**
+     * Test addAll with an IntListAdapter and with a ListAdapter
+     * @safe.precondition List initialized, the values 0 and 1 added
+     * @safe.postcondition The list contains 0, the list itself, 5, 6 and 1
+     * @safe.testcases Inserts the list into itself, then a ListAdapter of boxed values, and checks the result; then checks that a collection containing a null element throws NullPointerException and leaves the list unchanged.
+     */
+    @Test
+    public void testAddAll() {
+        l.addInt(0);
+        l.addInt(1);
+        assertTrue(l.addAll(1, l));
+        ListAdapter boxed = new ListAdapter();
+        boxed.add(Integer.valueOf(5));
+        boxed.add(Integer.valueOf(6));
+        assertTrue(l.addAll(3, boxed));
+        int[] expected = {0, 0, 1, 5, 6, 1};
+        assertEquals(expected.length, l.size());
+        for(int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], l.getInt(i));
+        }
+        assertFalse(l.addAll(new ListAdapter()));
+        HList withWrongType = new ListAdapter();
+        withWrongType.add(Integer.valueOf(9));
+        withWrongType.add("9");
+        try {
+            l.addAll(withWrongType);
+        }
+        catch(ClassCastException cce) {
+            assertEquals(expected.length, l.size());
+            return;
+        }
+        assertTrue(false);
+    }
+
+    /**
+     * Test removeAll, retainAll and removeIf
+     * @safe.precondition List initialized, the values 0-99 added
+     * @safe.postcondition The list contains the odd values below 50
+     * @safe.testcases Removes the values 50-99 with removeAll, keeps the odd values with retainAll and checks that removeIf with a predicate matching nothing returns false.
+     */
+    @Test
+    public void testBulkRemoval() {
+        HList high = new ListAdapter();
+        HList odd = new ListAdapter();
+        for(int i = 0; i < 100; i++) {
+            l.addInt(i);
+            if(i >= 50) {
+                high.add(Integer.valueOf(i));
+            }
+            if(i % 2 == 1) {
+                odd.add(Integer.valueOf(i));
+            }
+        }
+        assertTrue(l.removeAll(high));
+        assertTrue(l.retainAll(odd));
+        assertFalse(l.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return false;
+            }
+        }));
+        assertEquals(25, l.size());
+        for(int i = 0; i < 25; i++) {
+            assertEquals(2 * i + 1, l.getInt(i));
+        }
+    }
+
+    /**
+     * Test equals and hashCode against a ListAdapter
+     * @safe.precondition List initialized, the values 0-19 added to it, to a ListAdapter and to a second IntListAdapter
+     * @safe.postcondition None
+     * @safe.testcases Test that the three lists are equal to each other and have the same hashcode, and that they differ after a value of the list is changed.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        HList boxed = new ListAdapter();
+        IntListAdapter other = new IntListAdapter();
+        for(int i = 0; i < 20; i++) {
+            l.addInt(i * 1000003);
+            boxed.add(Integer.valueOf(i * 1000003));
+            other.addInt(i * 1000003);
+        }
+        assertTrue(l.equals(boxed));
+        assertTrue(boxed.equals(l));
+        assertTrue(l.equals(other));
+        assertEquals(boxed.hashCode(), l.hashCode());
+        l.setInt(3, -1);
+        assertFalse(l.equals(boxed));
+        assertFalse(l.equals(other));
+    }
+
+    /**
+     * Test subList
+     * @safe.precondition List initialized, the values 0-9 added
+     * @safe.postcondition The values 3-6 replaced by 100, 4, 6
+     * @safe.testcases Takes the sublist [3, 7) and a sublist of it, changes values and structure through them, and checks the sizes of the lists and the values of the backing list.
+     */
+    @Test
+    public void testSubList() {
+        for(int i = 0; i < 10; i++) {
+            l.addInt(i);
+        }
+        HList sub = l.subList(3, 7);
+        assertEquals(4, sub.size());
+        assertEquals(Integer.valueOf(3), sub.get(0));
+        HList subsub = sub.subList(1, 3);
+        subsub.add(Integer.valueOf(100));
+        assertEquals(3, subsub.size());
+        assertEquals(5, sub.size());
+        assertEquals(11, l.size());
+        assertTrue(sub.remove(Integer.valueOf(3)));
+        assertTrue(sub.remove(Integer.valueOf(5)));
+        sub.add(0, Integer.valueOf(100));
+        int[] expected = {0, 1, 2, 100, 4, 100, 6, 7, 8, 9};
+        assertEquals(expected.length, l.size());
+        for(int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], l.getInt(i));
+        }
+        sub.clear();
+        assertEquals(6, l.size());
+        assertEquals(7, l.getInt(3));
+    }
+
+    /**
+     * Test subList with an invalid range
+     * @safe.precondition List initialized, 5 values added
+     * @safe.postcondition IndexOutOfBoundsException thrown
+     * @safe.testcases Test that subList(3, 2) throws IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSubListInvalidRange() {
+        for(int i = 0; i < 5; i++) {
+            l.addInt(i);
+        }
+        l.subList(3, 2);
+    }
+
+    /**
+     * Test toIntArray and toArray
+     * @safe.precondition List initialized, the values 0-4 added
+     * @safe.postcondition None
+     * @safe.testcases Test that toIntArray returns the values and toArray returns them boxed, and that toArray(Object[]) with a longer array fills the remaining slots with null.
+     */
+    @Test
+    public void testToArray() {
+        for(int i = 0; i < 5; i++) {
+            l.addInt(i);
+        }
+        int[] values = l.toIntArray();
+        Object[] boxed = l.toArray();
+        Object[] longer = l.toArray(new Object[7]);
+        assertEquals(5, values.length);
+        assertEquals(5, boxed.length);
+        assertEquals(7, longer.length);
+        for(int i = 0; i < 5; i++) {
+            assertEquals(i, values[i]);
+            assertEquals(Integer.valueOf(i), boxed[i]);
+        }
+        assertEquals(null, longer[5]);
+    }
+
+    /**
+     * Test constructor with a negative capacity
+     * @safe.precondition None
+     * @safe.postcondition IllegalArgumentException thrown
+     * @safe.testcases Test that creating an IntListAdapter with capacity -1 throws IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithNegativeCapacity() {
+        new IntListAdapter(-1);
+    }
+
+}
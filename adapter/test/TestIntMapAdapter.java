@@ -0,0 +1,318 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case class for IntMapAdapter
+ * @safe.summary This classes tests the unboxed methods of IntMapAdapter, the HMap methods which box and unbox its keys and its views
+ */
+public class TestIntMapAdapter {
+
+    private IntMapAdapter m = null;
+
+    /**
+     * Setup method, initializes the IntMapAdapter
+     */
+
+    @Before
+    public void setUp() {
+        m = new IntMapAdapter();
+    }
+
+    /**
+     * Test put and get beyond the initial capacity
+     * @safe.precondition map initialized
+     * @safe.postcondition 10000 mappings in the map
+     * @safe.testcases Puts 10000 mappings with unboxed keys, so that the table is rehashed several times, and checks every value through both get(int) and get(Object).
+     */
+    @Test
+    public void testPutAndGet() {
+        for(int i = 0; i < 10000; i++) {
+            assertNull(m.put(i, "v" + i));
+        }
+        assertEquals(10000, m.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals("v" + i, m.get(i));
+            assertEquals("v" + i, m.get(Integer.valueOf(i)));
+        }
+        assertNull(m.get(10000));
+        assertTrue(m.containsKey(9999));
+        assertFalse(m.containsKey(-1));
+    }
+
+    /**
+     * Test put of a key already mapped
+     * @safe.precondition map initialized, 1 mapped to "a"
+     * @safe.postcondition 1 mapped to "b"
+     * @safe.testcases Test that put returns the previous value and doesn't change the size.
+     */
+    @Test
+    public void testPutReplaces() {
+        m.put(1, "a");
+        assertEquals("a", m.put(Integer.valueOf(1), "b"));
+        assertEquals(1, m.size());
+        assertEquals("b", m.get(1));
+    }
+
+    /**
+     * Test put with a null value
+     * @safe.precondition map initialized
+     * @safe.postcondition NullPointerException thrown
+     * @safe.testcases Test that put(int, null) throws NullPointerException.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testPutWithNullValue() {
+        m.put(1, null);
+    }
+
+    /**
+     * Test put(Object, Object) with a key which isn't an Integer
+     * @safe.precondition map initialized
+     * @safe.postcondition ClassCastException thrown
+     * @safe.testcases Test that putting a String key throws ClassCastException.
+     */
+    @Test(expected = ClassCastException.class)
+    public void testPutWithWrongKeyType() {
+        m.put("1", "a");
+    }
+
+    /**
+     * Test get, containsKey and remove with keys of another type
+     * @safe.precondition map initialized, 1 mapped to "a"
+     * @safe.postcondition The map is unchanged
+     * @safe.testcases Test that a key which isn't an Integer is never found.
+     */
+    @Test
+    public void testWrongKeyType() {
+        m.put(1, "a");
+        assertNull(m.get("1"));
+        assertFalse(m.containsKey("1"));
+        assertNull(m.remove("1"));
+        assertEquals(1, m.size());
+    }
+
+    /**
+     * Test remove followed by put
+     * @safe.precondition map initialized, 1000 mappings added
+     * @safe.postcondition the map contains the odd keys, mapped to new values
+     * @safe.testcases Removes the even keys, checks that the odd ones can still be found behind the removed slots, then puts them again and checks that the size doesn't change.
+     */
+    @Test
+    public void testRemoveThenPut() {
+        for(int i = 0; i < 1000; i++) {
+            m.put(i, Integer.valueOf(i));
+        }
+        for(int i = 0; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i), m.remove(i));
+        }
+        assertEquals(500, m.size());
+        for(int i = 1; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i), m.put(i, "x"));
+        }
+        assertEquals(500, m.size());
+        assertNull(m.remove(0));
+    }
+
+    /**
+     * Test repeated put and remove of distinct keys
+     * @safe.precondition map initialized
+     * @safe.postcondition the map is empty
+     * @safe.testcases Puts and removes 100000 distinct keys one at a time, so that the table fills up with removed slots and has to be cleaned, and checks that the map ends up empty.
+     */
+    @Test
+    public void testPutRemoveCleansTable() {
+        for(int i = 0; i < 100000; i++) {
+            m.put(i, "v");
+            assertEquals("v", m.remove(i));
+        }
+        assertTrue(m.isEmpty());
+        assertFalse(m.keyIterator().hasNext());
+    }
+
+    /**
+     * Test keyIterator and the keySet
+     * @safe.precondition map initialized, the keys 0-99 added
+     * @safe.postcondition the even keys removed through the iterator
+     * @safe.testcases Walks the keys with nextInt() removing the even ones, then checks the keySet's size and contains.
+     */
+    @Test
+    public void testKeyIterator() {
+        for(int i = 0; i < 100; i++) {
+            m.put(i, "v");
+        }
+        HIntIterator it = m.keyIterator();
+        int count = 0;
+        while(it.hasNext()) {
+            if(it.nextInt() % 2 == 0) {
+                it.remove();
+            }
+            count++;
+        }
+        assertEquals(100, count);
+        HSet keys = m.keySet();
+        assertEquals(50, keys.size());
+        assertTrue(keys.contains(Integer.valueOf(1)));
+        assertFalse(keys.contains(Integer.valueOf(2)));
+        assertTrue(keys.remove(Integer.valueOf(1)));
+        assertEquals(49, m.size());
+    }
+
+    /**
+     * Test remove through keyIterator after the current key is removed through the map
+     * @safe.precondition map initialized, the keys 0-4 added, the iterator moved to the first key, which is then removed through the map and replaced by the keys 1000-1005
+     * @safe.postcondition the keys added later kept
+     * @safe.testcases Checks that remove on the iterator doesn't remove one of the keys which may have reused the slot of the removed one.
+     */
+    @Test
+    public void testKeyIteratorRemoveAfterMapRemove() {
+        for(int i = 0; i < 5; i++) {
+            m.put(i, "v");
+        }
+        HIntIterator it = m.keyIterator();
+        int key = it.nextInt();
+        m.remove(key);
+        for(int i = 1000; i < 1006; i++) {
+            m.put(i, "w");
+        }
+        it.remove();
+        assertEquals(10, m.size());
+        assertFalse(m.containsKey(key));
+        for(int i = 1000; i < 1006; i++) {
+            assertTrue(m.containsKey(i));
+        }
+    }
+
+    /**
+     * Test the entrySet
+     * @safe.precondition map initialized, i mapped to i for i in 0-99
+     * @safe.postcondition every value doubled
+     * @safe.testcases Doubles every value with setValue on the entries of the entrySet, then checks the map, contains and remove on the entrySet.
+     */
+    @Test
+    public void testEntrySet() {
+        for(int i = 0; i < 100; i++) {
+            m.put(i, Integer.valueOf(i));
+        }
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            Integer v = (Integer) e.getValue();
+            assertEquals(v, e.setValue(Integer.valueOf(v.intValue() * 2)));
+        }
+        for(int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(2 * i), m.get(i));
+        }
+        MapAdapter other = new MapAdapter();
+        other.put(Integer.valueOf(3), Integer.valueOf(6));
+        HMap.HEntry e = (HMap.HEntry) other.entrySet().iterator().next();
+        assertTrue(m.entrySet().contains(e));
+        assertTrue(m.entrySet().remove(e));
+        assertFalse(m.containsKey(3));
+        assertEquals(99, m.entrySet().size());
+    }
+
+    /**
+     * Test the values collection
+     * @safe.precondition map initialized, i mapped to i % 3 for i in 0-29
+     * @safe.postcondition the mappings to 0 removed
+     * @safe.testcases Test contains on the values, that remove(Object) removes every mapping to the value and that retainAll keeps only the mappings to the values of the collection.
+     */
+    @Test
+    public void testValues() {
+        for(int i = 0; i < 30; i++) {
+            m.put(i, Integer.valueOf(i % 3));
+        }
+        HCollection values = m.values();
+        assertTrue(values.contains(Integer.valueOf(2)));
+        assertTrue(values.remove(Integer.valueOf(0)));
+        assertEquals(20, m.size());
+        assertFalse(m.containsValue(Integer.valueOf(0)));
+        HList one = new ListAdapter();
+        one.add(Integer.valueOf(1));
+        assertTrue(values.retainAll(one));
+        assertEquals(10, values.size());
+    }
+
+    /**
+     * Test equals and hashCode against a MapAdapter
+     * @safe.precondition map initialized, the same 50 mappings added to it, to a MapAdapter and to a second IntMapAdapter
+     * @safe.postcondition None
+     * @safe.testcases Test that the maps are equal to each other and have the same hashcode, and that they differ after a value is changed.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        MapAdapter boxed = new MapAdapter();
+        IntMapAdapter other = new IntMapAdapter(50);
+        for(int i = 0; i < 50; i++) {
+            m.put(i * 7919, "v" + i);
+            boxed.put(Integer.valueOf(i * 7919), "v" + i);
+            other.put(i * 7919, "v" + i);
+        }
+        assertTrue(m.equals(boxed));
+        assertTrue(boxed.equals(m));
+        assertTrue(m.equals(other));
+        assertEquals(boxed.hashCode(), m.hashCode());
+        assertEquals(boxed.keySet().hashCode(), m.keySet().hashCode());
+        assertTrue(m.keySet().equals(boxed.keySet()));
+        m.put(0, "x");
+        assertFalse(m.equals(boxed));
+        assertFalse(m.equals(other));
+    }
+
+    /**
+     * Test putAll from an IntMapAdapter and from a MapAdapter
+     * @safe.precondition map initialized, an IntMapAdapter and a MapAdapter with 10 mappings each
+     * @safe.postcondition the map contains the 20 mappings
+     * @safe.testcases Test that putAll copies the mappings of both kinds of map.
+     */
+    @Test
+    public void testPutAll() {
+        IntMapAdapter other = new IntMapAdapter();
+        MapAdapter boxed = new MapAdapter();
+        for(int i = 0; i < 10; i++) {
+            other.put(i, "a");
+            boxed.put(Integer.valueOf((i + 10)), "b");
+        }
+        m.putAll(other);
+        m.putAll(boxed);
+        assertEquals(20, m.size());
+        assertEquals("a", m.get(9));
+        assertEquals("b", m.get(10));
+    }
+
+    /**
+     * Test clear
+     * @safe.precondition map initialized, 10 mappings added
+     * @safe.postcondition the map is empty
+     * @safe.testcases Test that after clear the map is empty and its keys are no longer found.
+     */
+    @Test
+    public void testClear() {
+        for(int i = 0; i < 10; i++) {
+            m.put(i, "v");
+        }
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertFalse(m.containsKey(1));
+        assertFalse(m.entrySet().iterator().hasNext());
+    }
+
+    /**
+     * Test constructor with a negative expected size
+     * @safe.precondition None
+     * @safe.postcondition IllegalArgumentException thrown
+     * @safe.testcases Test that creating an IntMapAdapter with expected size -1 throws IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithNegativeSize() {
+        new IntMapAdapter(-1);
+    }
+
+}
@@ -17,7 +17,7 @@ import java.util.NoSuchElementException;
 
 public class TestListAdapter {
 
-	private ListAdapter l = null;
+	protected ListAdapter l = null;
 
     /**
      * Setup method, initializes the ListAdapter
@@ -222,6 +222,75 @@ public class TestListAdapter {
 		l.add(6, new CollectionAdapter());
 	}
 
+    /**
+     * Test addAll(int, c) with a ListAdapter with ARRAY_STORAGE
+     * @safe.precondition List initialized with the integers from 0 to 9, collection with ARRAY_STORAGE initialized with the integers from 100 to 104
+     * @safe.postcondition The elements of the collection are inserted in position 5
+     * @safe.testcases Test that addAll returns true, the size has increased, the elements of the collection are in position 5 to 9 in order and the tail of the list has been shifted after them.
+     */
+	@Test
+	public void testAddAllWithParamsFromArrayStorage() {
+		HList c = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+		for(int i = 0; i < 10; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		for(int i = 100; i < 105; i++) {
+			c.add(Integer.valueOf(i));
+		}
+		assertTrue(l.addAll(5, c));
+		assertEquals(15, l.size());
+		for(int i = 0; i < 5; i++) {
+			assertEquals(Integer.valueOf(i), l.get(i));
+			assertEquals(Integer.valueOf(100 + i), l.get(5 + i));
+			assertEquals(Integer.valueOf(5 + i), l.get(10 + i));
+		}
+		assertEquals(5, c.size());
+	}
+
+    /**
+     * Test addAll(int, c) with a SetAdapter
+     * @safe.precondition List initialized with two objects, set initialized with the integers from 0 to 99
+     * @safe.postcondition The elements of the set are inserted in position 1
+     * @safe.testcases Test that addAll returns true, the size has increased, every element of the set is between the two objects of the list.
+     */
+	@Test
+	public void testAddAllWithParamsFromSetAdapter() {
+		HSet c = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+		Object o1 = new Object();
+		Object o2 = new Object();
+		l.add(o1);
+		l.add(o2);
+		for(int i = 0; i < 100; i++) {
+			c.add(Integer.valueOf(i));
+		}
+		assertTrue(l.addAll(1, c));
+		assertEquals(102, l.size());
+		assertEquals(o1, l.get(0));
+		assertEquals(o2, l.get(101));
+		for(int i = 1; i < 101; i++) {
+			assertTrue(c.contains(l.get(i)));
+		}
+	}
+
+    /**
+     * Test addAll(int, c) with the list itself
+     * @safe.precondition List initialized with the integers from 0 to 2
+     * @safe.postcondition The list contains 0, 0, 1, 2, 1, 2
+     * @safe.testcases Test that inserting the list into itself in position 1 copies the original elements, even though the tail is shifted.
+     */
+	@Test
+	public void testAddAllWithParamsItself() {
+		for(int i = 0; i < 3; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		assertTrue(l.addAll(1, l));
+		int[] expected = {0, 0, 1, 2, 1, 2};
+		assertEquals(expected.length, l.size());
+		for(int i = 0; i < expected.length; i++) {
+			assertEquals(Integer.valueOf(expected[i]), l.get(i));
+		}
+	}
+
     /**
      * Test clear
      * @safe.precondition List initialized, 5 Objects and Object o added, size greater than 0
@@ -1181,6 +1250,73 @@ public class TestListAdapter {
     public void testRetainAllWithNull() {
         l.retainAll(null);
 	}
+
+	/**
+     * Test removeAll with a large list
+     * @safe.precondition List initialized with the integers from 0 to 999, each one added twice, collection initialized with the even integers from 0 to 998
+     * @safe.postcondition The list contains the odd integers, each one twice, in the original order
+     * @safe.testcases Test that calling removeAll(c) with a collection larger than the lookup threshold returns true, removes every occurrence of the elements of the collection and keeps the order of the other elements
+     */
+	@Test
+	public void testRemoveAllLargeCollection() {
+		HList c = new ListAdapter();
+		for(int i = 0; i < 1000; i++) {
+			l.add(Integer.valueOf(i));
+			l.add(Integer.valueOf(i));
+			if(i % 2 == 0) {
+				c.add(Integer.valueOf(i));
+			}
+		}
+		assertTrue(l.removeAll(c));
+		assertEquals(1000, l.size());
+		for(int i = 0; i < 1000; i++) {
+			assertEquals(Integer.valueOf(2 * (i / 2) + 1), l.get(i));
+		}
+		assertFalse(l.removeAll(c));
+	}
+
+	/**
+     * Test retainAll with a large list
+     * @safe.precondition List initialized with the integers from 0 to 999, collection initialized with the multiples of 3 from 0 to 1497
+     * @safe.postcondition The list contains the multiples of 3 from 0 to 999, in order
+     * @safe.testcases Test that calling retainAll(c) with a list larger than the lookup threshold returns true and keeps only the elements contained in the collection, in the original order
+     */
+	@Test
+	public void testRetainAllLargeCollection() {
+		HList c = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+		for(int i = 0; i < 1000; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		for(int i = 0; i < 500; i++) {
+			c.add(Integer.valueOf(3 * i));
+		}
+		assertTrue(l.retainAll(c));
+		assertEquals(334, l.size());
+		for(int i = 0; i < 334; i++) {
+			assertEquals(Integer.valueOf(3 * i), l.get(i));
+		}
+		assertFalse(l.retainAll(c));
+	}
+
+	/**
+     * Test containsAll with large lists
+     * @safe.precondition List initialized with the integers from 0 to 999, collection initialized with the integers from 500 to 999
+     * @safe.postcondition None
+     * @safe.testcases Test that containsAll(c) returns true, and returns false once an element not contained in the list is added to the collection
+     */
+	@Test
+	public void testContainsAllLargeCollection() {
+		HList c = new ListAdapter();
+		for(int i = 0; i < 1000; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		for(int i = 500; i < 1000; i++) {
+			c.add(Integer.valueOf(i));
+		}
+		assertTrue(l.containsAll(c));
+		c.add(Integer.valueOf(1000));
+		assertFalse(l.containsAll(c));
+	}
 	
 	/**
      * Test set
@@ -1375,4 +1511,152 @@ public class TestListAdapter {
         l.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf with a predicate matching the even elements
+     * @safe.precondition List initialized, the elements 0-99 added twice to the list
+     * @safe.postcondition The even elements are removed
+     * @safe.testcases Test that removeIf returns true, that the list contains only the odd elements, in their original order, and that its size is halved.
+     */
+    @Test
+    public void testRemoveIfEven() {
+        for(int j = 0; j < 2; j++) {
+            for(int i = 0; i < 100; i++) {
+                l.add(Integer.valueOf(i));
+            }
+        }
+        assertTrue(l.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        }));
+        assertEquals(100, l.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf((2 * i + 1) % 100), l.get(i));
+        }
+    }
+
+    /**
+     * Test removeIf with a predicate matching no element
+     * @safe.precondition List initialized, 10 objects added to the list
+     * @safe.postcondition The list is unchanged
+     * @safe.testcases Test that removeIf returns false and that the size of the list doesn't change.
+     */
+    @Test
+    public void testRemoveIfNoMatch() {
+        for(int i = 0; i < 10; i++) {
+            l.add(Integer.valueOf(i));
+        }
+        assertFalse(l.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return false;
+            }
+        }));
+        assertEquals(10, l.size());
+    }
+
+    /**
+     * Test removeIf with null
+     * @safe.precondition List initialized
+     * @safe.postcondition NullPointerException thrown
+     * @safe.testcases Test that calling removeIf(null) throws NullPointerException.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testRemoveIfWithNull() {
+        l.removeIf(null);
+    }
+
+    /**
+     * Test that the cached hashCode follows every change of the list
+     * @safe.precondition List initialized, elements 0-19 added
+     * @safe.postcondition hashCode equal to the hash of an equal list after each change
+     * @safe.testcases Calls hashCode, then changes the list with set, add, remove, removeIf, through a sublist and through a listIterator, checking after each change that hashCode equals the one of a copy of the list built from scratch.
+     */
+    @Test
+    public void testHashCodeAfterChanges() {
+        for(int i = 0; i < 20; i++) {
+            l.add(Integer.valueOf(i));
+        }
+        assertEquals(copyHash(), l.hashCode());
+        l.set(3, Integer.valueOf(-3));
+        assertEquals(copyHash(), l.hashCode());
+        l.add(0, Integer.valueOf(100));
+        assertEquals(copyHash(), l.hashCode());
+        l.remove(Integer.valueOf(5));
+        assertEquals(copyHash(), l.hashCode());
+        l.subList(2, 6).set(1, Integer.valueOf(42));
+        assertEquals(copyHash(), l.hashCode());
+        l.subList(2, 6).clear();
+        assertEquals(copyHash(), l.hashCode());
+        HListIterator it = l.listIterator();
+        it.next();
+        it.set(Integer.valueOf(7));
+        it.add(Integer.valueOf(8));
+        assertEquals(copyHash(), l.hashCode());
+        l.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        });
+        assertEquals(copyHash(), l.hashCode());
+        HList sub = l.subList(1, 3);
+        int h = sub.hashCode();
+        l.set(1, Integer.valueOf(99));
+        assertFalse(h == sub.hashCode());
+        l.clear();
+        assertEquals(1, l.hashCode());
+    }
+
+    private int copyHash() {
+        HList copy = new ListAdapter();
+        for(int i = 0; i < l.size(); i++) {
+            copy.add(l.get(i));
+        }
+        return copy.hashCode();
+    }
+
+    /**
+     * Test removeRange(int, int)
+     * @safe.precondition list initialized, with VECTOR_STORAGE and ARRAY_STORAGE, holding 0 to 9
+     * @safe.postcondition elements 2 to 5 removed, then the whole list cleared
+     * @safe.testcases Test that removeRange removes exactly the elements of the range and shifts the tail, that an empty range leaves the list unchanged, that invalid ranges throw IndexOutOfBoundsException and that the hashCode follows the changes.
+     */
+    @Test
+    public void testRemoveRange() {
+        ListAdapter[] lists = {new ListAdapter(), new ListAdapter(ListAdapter.ARRAY_STORAGE)};
+        for(int j = 0; j < lists.length; j++) {
+            ListAdapter list = lists[j];
+            for(int i = 0; i < 10; i++) {
+                list.add(Integer.valueOf(i));
+            }
+            int h = list.hashCode();
+            list.removeRange(3, 3);
+            assertEquals(10, list.size());
+            assertEquals(h, list.hashCode());
+            list.removeRange(2, 6);
+            assertEquals(6, list.size());
+            int[] expected = {0, 1, 6, 7, 8, 9};
+            for(int i = 0; i < expected.length; i++) {
+                assertEquals(Integer.valueOf(expected[i]), list.get(i));
+            }
+            assertFalse(h == list.hashCode());
+            try {
+                list.removeRange(4, 7);
+                assertTrue(false);
+            }
+            catch(IndexOutOfBoundsException e) {
+                assertEquals(6, list.size());
+            }
+            try {
+                list.removeRange(3, 2);
+                assertTrue(false);
+            }
+            catch(IndexOutOfBoundsException e) {
+                assertEquals(6, list.size());
+            }
+            list.removeRange(0, 6);
+            assertTrue(list.isEmpty());
+            assertEquals(1, list.hashCode());
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for ListAdapter with ARRAY_STORAGE
+ * @safe.summary This classes runs all the tests of TestListAdapter on a ListAdapter backed by an array, and tests the behaviour specific to the array storage
+ */
+
+public class TestListAdapterArrayStorage extends TestListAdapter {
+
+    /**
+     * Setup method, initializes the ListAdapter with ARRAY_STORAGE
+     */
+
+	@Before
+	@Override
+	public void setUp() {
+		l = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+	}
+
+    /**
+     * Test constructor with an unknown storage mode
+     * @safe.precondition None
+     * @safe.postcondition IllegalArgumentException thrown
+     * @safe.testcases Creates a ListAdapter with storage mode 4 and checks that IllegalArgumentException is thrown.
+     */
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorWithUnknownStorage() {
+		new ListAdapter(4);
+	}
+
+    /**
+     * Test add(Object) beyond the initial capacity
+     * @safe.precondition List initialized
+     * @safe.postcondition 1000 elements inserted
+     * @safe.testcases Adds 1000 elements to the list, so that the array grows several times, and checks that they are all present in order.
+     */
+	@Test
+	public void testAddGrowsArray() {
+		for(int i = 0; i < 1000; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		assertEquals(1000, l.size());
+		for(int i = 0; i < 1000; i++) {
+			assertEquals(Integer.valueOf(i), l.get(i));
+		}
+	}
+
+    /**
+     * Test add(int, Object) and remove(int) in the middle of a full array
+     * @safe.precondition List initialized, 10 elements added to the list
+     * @safe.postcondition The list contains the elements from 0 to 9
+     * @safe.testcases Inserts an element in the middle of the list, checks that the tail has been shifted, removes it and checks that the tail has been shifted back.
+     */
+	@Test
+	public void testAddAndRemoveInTheMiddle() {
+		for(int i = 0; i < 10; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		l.add(5, Integer.valueOf(100));
+		assertEquals(11, l.size());
+		assertEquals(Integer.valueOf(100), l.get(5));
+		assertEquals(Integer.valueOf(9), l.get(10));
+		assertEquals(Integer.valueOf(100), l.remove(5));
+		assertEquals(10, l.size());
+		for(int i = 0; i < 10; i++) {
+			assertEquals(Integer.valueOf(i), l.get(i));
+		}
+	}
+
+    /**
+     * Test clear followed by add
+     * @safe.precondition List initialized, 20 elements added to the list
+     * @safe.postcondition The list contains one element
+     * @safe.testcases Clears the list, adds one element and checks that the iterator only returns that element.
+     */
+	@Test
+	public void testClearThenAdd() {
+		for(int i = 0; i < 20; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		l.clear();
+		l.add(Integer.valueOf(42));
+		HIterator it = l.iterator();
+		assertEquals(Integer.valueOf(42), it.next());
+		assertFalse(it.hasNext());
+	}
+
+}
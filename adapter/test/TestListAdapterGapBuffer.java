@@ -0,0 +1,126 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for ListAdapter with GAP_BUFFER_STORAGE
+ * @safe.summary This classes runs all the tests of TestListAdapter on a ListAdapter backed by a gap buffer, and tests the editing around a moving cursor which is specific to the gap buffer
+ */
+
+public class TestListAdapterGapBuffer extends TestListAdapter {
+
+    /**
+     * Setup method, initializes the ListAdapter with GAP_BUFFER_STORAGE
+     */
+
+	@Before
+	@Override
+	public void setUp() {
+		l = new ListAdapter(ListAdapter.GAP_BUFFER_STORAGE);
+	}
+
+    /**
+     * Checks that the list holds the same elements as the reference list, in the same order.
+     */
+    private void assertSameElements(HList expected) {
+        assertEquals(expected.size(), l.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), l.get(i));
+        }
+        assertEquals(expected, l);
+        assertEquals(expected.hashCode(), l.hashCode());
+    }
+
+    /**
+     * Test insertions and removals through a listIterator moving back and forth
+     * @safe.precondition List initialized, 1000 elements added to the list and to a reference list with ARRAY_STORAGE
+     * @safe.postcondition The list holds the same elements as the reference list
+     * @safe.testcases Moves the cursors of both lists by the same steps, inserting and removing elements at the cursor as a text editor would, and checks after every batch of edits that the two lists are equal.
+     */
+	@Test
+	public void testEditAtMovingCursor() {
+		HList reference = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+		for(int i = 0; i < 1000; i++) {
+			l.add(Integer.valueOf(i));
+			reference.add(Integer.valueOf(i));
+		}
+		HListIterator it = l.listIterator(500);
+		HListIterator ref = reference.listIterator(500);
+		int seed = 17;
+		for(int step = 0; step < 2000; step++) {
+			seed = seed * 1103515245 + 12345;
+			int op = (seed >>> 16) % 4;
+			if(op == 0) {
+				it.add(Integer.valueOf(-step));
+				ref.add(Integer.valueOf(-step));
+			}
+			else if(op == 1 && it.hasPrevious()) {
+				assertEquals(ref.previous(), it.previous());
+				it.remove();
+				ref.remove();
+			}
+			else if(op == 2 && it.hasNext()) {
+				assertEquals(ref.next(), it.next());
+			}
+			else if(it.hasPrevious()) {
+				assertEquals(ref.previous(), it.previous());
+			}
+			assertEquals(ref.nextIndex(), it.nextIndex());
+			if(step % 100 == 0) {
+				assertSameElements(reference);
+			}
+		}
+		assertSameElements(reference);
+	}
+
+    /**
+     * Test the searches and the bulk operations with the gap in the middle of the list
+     * @safe.precondition List initialized, 0 to 99 added, then one element inserted and removed at index 50 so that the gap is there
+     * @safe.postcondition The list holds the odd elements from 0 to 99 and 100 to 104 after 49
+     * @safe.testcases Checks indexOf and lastIndexOf of elements on both sides of the gap, then inserts with addAll(int, HCollection) and removes with removeIf and removeRange, checking the result against the expected elements.
+     */
+	@Test
+	public void testGapInTheMiddle() {
+		for(int i = 0; i < 100; i++) {
+			l.add(Integer.valueOf(i));
+		}
+		l.add(50, Integer.valueOf(-1));
+		assertEquals(Integer.valueOf(-1), l.remove(50));
+		assertEquals(10, l.indexOf(Integer.valueOf(10)));
+		assertEquals(90, l.lastIndexOf(Integer.valueOf(90)));
+		assertEquals(-1, l.indexOf(Integer.valueOf(-1)));
+		assertTrue(l.contains(Integer.valueOf(50)));
+		HList added = new ListAdapter();
+		for(int i = 100; i < 105; i++) {
+			added.add(Integer.valueOf(i));
+		}
+		assertTrue(l.addAll(50, added));
+		assertEquals(105, l.size());
+		assertEquals(Integer.valueOf(100), l.get(50));
+		assertEquals(Integer.valueOf(50), l.get(55));
+		l.removeIf(new HPredicate() {
+			public boolean test(Object o) {
+				int i = ((Integer) o).intValue();
+				return i < 100 && i % 2 == 0;
+			}
+		});
+		assertEquals(55, l.size());
+		assertEquals(Integer.valueOf(1), l.get(0));
+		assertEquals(Integer.valueOf(49), l.get(24));
+		assertEquals(Integer.valueOf(100), l.get(25));
+		assertEquals(Integer.valueOf(51), l.get(30));
+		((ListAdapter) l).removeRange(25, 30);
+		assertEquals(50, l.size());
+		for(int i = 0; i < 50; i++) {
+			assertEquals(Integer.valueOf(2 * i + 1), l.get(i));
+		}
+		assertFalse(l.contains(Integer.valueOf(100)));
+	}
+
+}
@@ -0,0 +1,119 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test case class for ListAdapter with ROPE_STORAGE
+ * @safe.summary This classes runs all the tests of TestListAdapter on a ListAdapter backed by a rope, and tests positional edits and bulk operations on lists large enough to span many leaves of the rope
+ */
+
+public class TestListAdapterRope extends TestListAdapter {
+
+    private static final int N = 20000;
+
+    /**
+     * Setup method, initializes the ListAdapter with ROPE_STORAGE
+     */
+
+	@Before
+	@Override
+	public void setUp() {
+		l = new ListAdapter(ListAdapter.ROPE_STORAGE);
+	}
+
+    /**
+     * Checks that the list holds the same elements as the reference list, in the same order.
+     */
+    private void assertSameElements(HList expected) {
+        assertEquals(expected.size(), l.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), l.get(i));
+        }
+        Object[] a = l.toArray();
+        for(int i = 0; i < a.length; i++) {
+            assertEquals(expected.get(i), a[i]);
+        }
+        assertEquals(expected.hashCode(), l.hashCode());
+    }
+
+    /**
+     * Test add(int, Object), remove(int) and set(int, Object) at pseudo-random positions
+     * @safe.precondition List initialized, N elements added to the list and to a reference list with ARRAY_STORAGE
+     * @safe.postcondition The list holds the same elements as the reference list
+     * @safe.testcases Applies the same sequence of insertions, removals and replacements at pseudo-random positions to both lists, so that leaves are split, merged and the tree is rebalanced, and checks that the lists stay equal.
+     */
+	@Test
+	public void testRandomPositionalEdits() {
+		HList reference = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+		for(int i = 0; i < N; i++) {
+			l.add(Integer.valueOf(i));
+			reference.add(Integer.valueOf(i));
+		}
+		int seed = 42;
+		for(int step = 0; step < 3 * N; step++) {
+			seed = seed * 1103515245 + 12345;
+			int r = seed >>> 1;
+			int op = r % 3;
+			if(op == 0 || reference.isEmpty()) {
+				int index = r % (reference.size() + 1);
+				l.add(index, Integer.valueOf(-step));
+				reference.add(index, Integer.valueOf(-step));
+			}
+			else if(op == 1) {
+				int index = r % reference.size();
+				assertEquals(reference.remove(index), l.remove(index));
+			}
+			else {
+				int index = r % reference.size();
+				assertEquals(reference.set(index, Integer.valueOf(step)), l.set(index, Integer.valueOf(step)));
+			}
+		}
+		assertSameElements(reference);
+		assertEquals(reference.indexOf(Integer.valueOf(-3)), l.indexOf(Integer.valueOf(-3)));
+		assertEquals(reference.lastIndexOf(Integer.valueOf(5)), l.lastIndexOf(Integer.valueOf(5)));
+	}
+
+    /**
+     * Test the bulk operations which split and join the rope
+     * @safe.precondition List initialized, N elements added to the list and to a reference list with ARRAY_STORAGE
+     * @safe.postcondition The list holds the same elements as the reference list
+     * @safe.testcases Inserts N elements in the middle with addAll(int, HCollection), removes a range with removeRange, removes the multiples of 3 from a sublist with removeIf and clears a nested sublist, on both lists, checking after each step that they are equal.
+     */
+	@Test
+	public void testSplitAndJoin() {
+		ListAdapter reference = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+		HList added = new ListAdapter();
+		for(int i = 0; i < N; i++) {
+			l.add(Integer.valueOf(i));
+			reference.add(Integer.valueOf(i));
+			added.add(Integer.valueOf(-i));
+		}
+		assertTrue(l.addAll(N / 3, added));
+		reference.addAll(N / 3, added);
+		assertSameElements(reference);
+		((ListAdapter) l).removeRange(N / 5, N + N / 7);
+		reference.removeRange(N / 5, N + N / 7);
+		assertSameElements(reference);
+		HPredicate multiplesOf3 = new HPredicate() {
+			public boolean test(Object o) {
+				return ((Integer) o).intValue() % 3 == 0;
+			}
+		};
+		assertTrue(l.subList(100, l.size() - 100).removeIf(multiplesOf3));
+		reference.subList(100, reference.size() - 100).removeIf(multiplesOf3);
+		assertSameElements(reference);
+		l.subList(10, 5000).subList(1, 4000).clear();
+		reference.subList(10, 5000).subList(1, 4000).clear();
+		assertSameElements(reference);
+		((ListAdapter) l).removeRange(0, l.size());
+		assertTrue(l.isEmpty());
+		l.add(Integer.valueOf(1));
+		assertEquals(Integer.valueOf(1), l.get(0));
+	}
+
+}
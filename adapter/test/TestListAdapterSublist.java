@@ -17,7 +17,7 @@ import java.util.NoSuchElementException;
 
 public class TestListAdapterSublist {
 
-	private HList l = null;
+	protected HList l = null;
 
 	/**
      * Setup method, initializes the sublist
@@ -1380,4 +1380,144 @@ public class TestListAdapterSublist {
         l.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf on the sublist
+     * @safe.precondition sublist initialized, 10 Integers (0-9) added to the sublist
+     * @safe.postcondition The even elements of the sublist are removed, the elements of the backing list outside of the sublist are unchanged
+     * @safe.testcases Test that removeIf returns true, that the sublist contains only the odd elements and that the backing list still begins and ends with its original elements.
+     */
+    @Test
+    public void testRemoveIf() {
+        ListAdapter list = new ListAdapter();
+        list.add(Integer.valueOf(0));
+        list.add(Integer.valueOf(0));
+        HList sub = list.subList(1, 1);
+        for(int i = 0; i < 10; i++) {
+            sub.add(Integer.valueOf(i));
+        }
+        assertTrue(sub.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        }));
+        assertEquals(5, sub.size());
+        assertEquals(7, list.size());
+        for(int i = 0; i < 5; i++) {
+            assertEquals(Integer.valueOf(2 * i + 1), sub.get(i));
+        }
+        assertEquals(Integer.valueOf(0), list.get(0));
+        assertEquals(Integer.valueOf(0), list.get(6));
+    }
+
+
+    /**
+     * Test that the searches of the sublist only look at its own range
+     * @safe.precondition list holding 7 0 1 2 7 3 7 4, with both storages, sublist from 1 to 7 and nested sublist from 1 to 4 of it
+     * @safe.postcondition the first 7 of the nested sublist removed, the occurrences outside of it unchanged
+     * @safe.testcases Test that indexOf and lastIndexOf find the occurrences inside the range even when the backing list has others before and after it, that an element present only outside the range is not found, and that remove(Object) removes the occurrence inside the range.
+     */
+    @Test
+    public void testRangeBoundedSearch() {
+        ListAdapter[] lists = {new ListAdapter(), new ListAdapter(ListAdapter.ARRAY_STORAGE)};
+        int[] values = {7, 0, 1, 2, 7, 3, 7, 4};
+        for(int j = 0; j < lists.length; j++) {
+            ListAdapter list = lists[j];
+            for(int i = 0; i < values.length; i++) {
+                list.add(Integer.valueOf(values[i]));
+            }
+            HList sub = list.subList(1, 7);
+            assertEquals(3, sub.indexOf(Integer.valueOf(7)));
+            assertEquals(5, sub.lastIndexOf(Integer.valueOf(7)));
+            assertEquals(-1, sub.indexOf(Integer.valueOf(4)));
+            assertFalse(sub.contains(Integer.valueOf(4)));
+            HList nested = sub.subList(1, 4);
+            assertEquals(2, nested.indexOf(Integer.valueOf(7)));
+            assertEquals(2, nested.lastIndexOf(Integer.valueOf(7)));
+            assertEquals(-1, nested.indexOf(Integer.valueOf(0)));
+            assertFalse(nested.remove(Integer.valueOf(3)));
+            assertTrue(nested.remove(Integer.valueOf(7)));
+            assertEquals(2, nested.size());
+            assertEquals(5, sub.size());
+            assertEquals(7, list.size());
+            assertEquals(Integer.valueOf(7), list.get(0));
+            assertEquals(Integer.valueOf(3), list.get(4));
+            assertEquals(5, list.lastIndexOf(Integer.valueOf(7)));
+        }
+    }
+
+    /**
+     * Test clear and removeRange on a window of a large list
+     * @safe.precondition list, with both storages, holding 0 to 9999, sublist from 1000 to 9000 and nested sublist from 1000 to 2000 of it
+     * @safe.postcondition the nested window removed by removeRange, then the sublist cleared
+     * @safe.testcases Test that removeRange on the nested sublist and clear on the sublist remove exactly their windows, update the sizes of the views and keep the elements of the backing list around them.
+     */
+    @Test
+    public void testClearWindow() {
+        ListAdapter[] lists = {new ListAdapter(), new ListAdapter(ListAdapter.ARRAY_STORAGE)};
+        for(int j = 0; j < lists.length; j++) {
+            ListAdapter list = lists[j];
+            for(int i = 0; i < 10000; i++) {
+                list.add(Integer.valueOf(i));
+            }
+            HList sub = list.subList(1000, 9000);
+            ListAdapter nested = (ListAdapter) sub.subList(1000, 2000);
+            nested.removeRange(0, 500);
+            assertEquals(500, nested.size());
+            assertEquals(7500, sub.size());
+            assertEquals(9500, list.size());
+            assertEquals(Integer.valueOf(2500), nested.get(0));
+            assertEquals(Integer.valueOf(1999), list.get(1999));
+            assertEquals(Integer.valueOf(2500), list.get(2000));
+            sub.clear();
+            assertTrue(sub.isEmpty());
+            assertEquals(2000, list.size());
+            assertEquals(Integer.valueOf(999), list.get(999));
+            assertEquals(Integer.valueOf(9000), list.get(1000));
+            assertEquals(Integer.valueOf(9999), list.get(1999));
+        }
+    }
+
+    /**
+     * Test deeply nested sublists
+     * @safe.precondition list, with both storages, holding 0 to 999, and 100 sublists each nested in the previous one, from 1 to its size - 1
+     * @safe.postcondition one element added through the innermost sublist and one removed through its iterator
+     * @safe.testcases Test that the innermost sublist reads and writes the right elements of the list, and that adding and removing through it, also through its listIterator, updates the sizes of every enclosing sublist.
+     */
+    @Test
+    public void testDeeplyNested() {
+        ListAdapter[] lists = {new ListAdapter(), new ListAdapter(ListAdapter.ARRAY_STORAGE)};
+        for(int j = 0; j < lists.length; j++) {
+            ListAdapter list = lists[j];
+            for(int i = 0; i < 1000; i++) {
+                list.add(Integer.valueOf(i));
+            }
+            HList[] views = new HList[100];
+            HList sub = list;
+            for(int d = 0; d < views.length; d++) {
+                sub = sub.subList(1, sub.size() - 1);
+                views[d] = sub;
+            }
+            HList inner = views[views.length - 1];
+            assertEquals(800, inner.size());
+            assertEquals(Integer.valueOf(100), inner.get(0));
+            assertEquals(Integer.valueOf(899), inner.get(799));
+            inner.set(0, Integer.valueOf(-1));
+            assertEquals(Integer.valueOf(-1), list.get(100));
+            inner.add(Integer.valueOf(-2));
+            assertEquals(Integer.valueOf(-2), list.get(900));
+            HListIterator it = inner.listIterator(801);
+            assertEquals(Integer.valueOf(-2), it.previous());
+            it.remove();
+            it.previous();
+            it.add(Integer.valueOf(-3));
+            assertEquals(1001, list.size());
+            for(int d = 0; d < views.length; d++) {
+                assertEquals(999 - 2 * d, views[d].size());
+            }
+            assertEquals(Integer.valueOf(-3), list.get(899));
+            assertEquals(Integer.valueOf(899), inner.get(800));
+            assertEquals(Integer.valueOf(899), views[0].get(899));
+        }
+    }
+
+}
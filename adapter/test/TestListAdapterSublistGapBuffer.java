@@ -0,0 +1,28 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Before;
+
+/**
+ * Test case class for the sublist of a ListAdapter with GAP_BUFFER_STORAGE
+ * @safe.summary This classes runs all the tests of TestListAdapterSublist on a sublist of a ListAdapter backed by a gap buffer
+ */
+
+public class TestListAdapterSublistGapBuffer extends TestListAdapterSublist {
+
+	/**
+     * Setup method, initializes the sublist of a ListAdapter with GAP_BUFFER_STORAGE
+     */
+
+	@Before
+	@Override
+	public void setUp() {
+		ListAdapter list = new ListAdapter(ListAdapter.GAP_BUFFER_STORAGE);
+		list.add(Integer.valueOf(5));
+		list.add(Integer.valueOf(10));
+        HList sublist = list.subList(1, 1);
+        l = sublist;
+	}
+
+}
@@ -0,0 +1,28 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Before;
+
+/**
+ * Test case class for the sublist of a ListAdapter with ROPE_STORAGE
+ * @safe.summary This classes runs all the tests of TestListAdapterSublist on a sublist of a ListAdapter backed by a rope
+ */
+
+public class TestListAdapterSublistRope extends TestListAdapterSublist {
+
+	/**
+     * Setup method, initializes the sublist of a ListAdapter with ROPE_STORAGE
+     */
+
+	@Before
+	@Override
+	public void setUp() {
+		ListAdapter list = new ListAdapter(ListAdapter.ROPE_STORAGE);
+		list.add(Integer.valueOf(5));
+		list.add(Integer.valueOf(10));
+        HList sublist = list.subList(1, 1);
+        l = sublist;
+	}
+
+}
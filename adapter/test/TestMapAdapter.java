@@ -23,7 +23,15 @@ public class TestMapAdapter {
 
     @Before
     public void setUp() {
-        m = new MapAdapter();
+        m = newMap();
+    }
+
+    /**
+     * Creates the map under test.
+     * @return an empty MapAdapter.
+     */
+    protected MapAdapter newMap() {
+        return new MapAdapter();
     }
 
     /**
@@ -185,8 +193,8 @@ public class TestMapAdapter {
      */
 	@Test
     public void testEqualsEmptyList() {
-		HSet otherSet = new SetAdapter();
-        assertTrue(s.equals(otherSet));
+		HMap otherMap = new MapAdapter();
+        assertTrue(m.equals(otherMap));
 	}
 
     /**
@@ -197,7 +205,7 @@ public class TestMapAdapter {
      */
 	@Test
 	public void testEqualsEqualToItself() {
-		assertTrue(s.equals(m));
+		assertTrue(m.equals(m));
 	}
 
     /**
@@ -206,9 +214,9 @@ public class TestMapAdapter {
      * @safe.postcondition none
      * @safe.testcases Test that calling s.equals(null) returns false
      */
-    @Test(expected = NullPointerException.class)
+    @Test
     public void testEqualsWithNull() {
-        m.equals(null);
+        assertFalse(m.equals(null));
     }
 
     /**
@@ -221,7 +229,7 @@ public class TestMapAdapter {
     public void testGetWithKeyContained() {
         Object o = new Object();
         m.put(Integer.valueOf(3), o);
-        assertEquals(m.get(0), o);
+        assertEquals(o, m.get(3));
     }
 
     /**
@@ -527,4 +535,282 @@ public class TestMapAdapter {
         assertEquals(1, m.size());
     }
 
-}
\ No newline at end of file
+    /**
+     * Test entryCursor
+     * @safe.precondition map initialized, the mappings i=i+1 for i in 0-49 added to the map
+     * @safe.postcondition The cursor visited every mapping
+     * @safe.testcases Test that the cursor returns the same entry at every step, that the key and the value of the entry match the map and that the number of steps is the size of the map.
+     */
+    @Test
+    public void testEntryCursor() {
+        for(int i = 0; i < 50; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i + 1));
+        }
+        HIterator it = ((MapAdapter) m).entryCursor();
+        Object first = null;
+        int count = 0;
+        while(it.hasNext()) {
+            HEntry e = (HEntry) it.next();
+            if(first == null) {
+                first = e;
+            }
+            assertTrue(first == e);
+            assertEquals(m.get(e.getKey()), e.getValue());
+            count++;
+        }
+        assertEquals(50, count);
+    }
+
+    /**
+     * Test setValue and remove through entryCursor
+     * @safe.precondition map initialized, the mappings i=i for i in 0-9 added to the map
+     * @safe.postcondition The even keys are removed, the odd ones are mapped to their opposite
+     * @safe.testcases Test that setValue on the cursor entry updates the map and returns the old value, and that remove on the cursor removes the current mapping.
+     */
+    @Test
+    public void testEntryCursorSetValueAndRemove() {
+        for(int i = 0; i < 10; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        HIterator it = ((MapAdapter) m).entryCursor();
+        while(it.hasNext()) {
+            HEntry e = (HEntry) it.next();
+            int k = ((Integer) e.getKey()).intValue();
+            if(k % 2 == 0) {
+                it.remove();
+            }
+            else {
+                assertEquals(Integer.valueOf(k), e.setValue(Integer.valueOf(-k)));
+            }
+        }
+        assertEquals(5, m.size());
+        for(int i = 1; i < 10; i += 2) {
+            assertEquals(Integer.valueOf(-i), m.get(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test remove through entryCursor after the current mapping is removed through the map
+     * @safe.precondition maps with both storages, the mappings i=i for i in 0-4 added to each map, the cursor moved to the first mapping, which is then removed through the map
+     * @safe.postcondition Only the key of the cursor is removed, the mappings added later are kept
+     * @safe.testcases Test that remove on the cursor doesn't throw if the slot has been emptied, doesn't remove another mapping if the slot has been reused by one of the keys 1000-1005, and removes the key if it has been put again, as with HASHTABLE_STORAGE.
+     */
+    @Test
+    public void testEntryCursorRemoveAfterMapRemove() {
+        int[] modes = {MapAdapter.HASHTABLE_STORAGE, MapAdapter.OPEN_ADDRESSING_STORAGE};
+        for(int j = 0; j < modes.length; j++) {
+            for(int step = 0; step < 3; step++) {
+                MapAdapter map = new MapAdapter(modes[j]);
+                for(int i = 0; i < 5; i++) {
+                    map.put(Integer.valueOf(i), Integer.valueOf(i));
+                }
+                HIterator it = map.entryCursor();
+                Object key = ((HEntry) it.next()).getKey();
+                map.remove(key);
+                if(step == 1) {
+                    for(int i = 1000; i < 1006; i++) {
+                        map.put(Integer.valueOf(i), Integer.valueOf(i));
+                    }
+                }
+                if(step == 2) {
+                    map.put(key, "again");
+                }
+                it.remove();
+                assertFalse(map.containsKey(key));
+                assertEquals(step == 1 ? 10 : 4, map.size());
+                for(int i = 1000; step == 1 && i < 1006; i++) {
+                    assertEquals(Integer.valueOf(i), map.get(Integer.valueOf(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test hashCode against the entries' hashcodes
+     * @safe.precondition map initialized, 20 mappings added to the map
+     * @safe.postcondition hashCode returns the sum of the hashcodes of the entries
+     * @safe.testcases Test that hashCode equals the sum of the hashcodes of the elements of entrySet.
+     */
+    @Test
+    public void testHashCodeSumOfEntries() {
+        for(int i = 0; i < 20; i++) {
+            m.put(Integer.valueOf(i), "v" + i);
+        }
+        int sum = 0;
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            sum += it.next().hashCode();
+        }
+        assertEquals(sum, m.hashCode());
+    }
+
+    /**
+     * Test putAll from a MapAdapter
+     * @safe.precondition map initialized, a second map with OPEN_ADDRESSING_STORAGE containing 100 mappings
+     * @safe.postcondition The map contains every mapping of the second map
+     * @safe.testcases Test that after putAll the two maps are equal.
+     */
+    @Test
+    public void testPutAllFromOtherStorage() {
+        MapAdapter other = new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE);
+        for(int i = 0; i < 100; i++) {
+            other.put(Integer.valueOf(i), Integer.valueOf(2 * i));
+        }
+        m.putAll(other);
+        assertEquals(100, m.size());
+        assertEquals(other, m);
+    }
+
+    /**
+     * Test putAll from the other HMap implementations
+     * @safe.precondition map initialized, a ConcurrentMapAdapter, an IntMapAdapter and a LongMapAdapter containing 100 mappings each
+     * @safe.postcondition The map contains every mapping of the other maps
+     * @safe.testcases Test that putAll walks the entrySet of maps which aren't MapAdapters, whose entries are of other classes, and that the map is then equal to each of them.
+     */
+    @Test
+    public void testPutAllFromOtherImplementations() {
+        HMap[] others = {new ConcurrentMapAdapter(), new IntMapAdapter(), new LongMapAdapter()};
+        for(int j = 0; j < others.length; j++) {
+            HMap other = others[j];
+            for(int i = 0; i < 100; i++) {
+                Object key = other instanceof LongMapAdapter ? (Object) Long.valueOf(i) : (Object) Integer.valueOf(i);
+                other.put(key, "v" + i);
+            }
+            m.clear();
+            m.putAll(other);
+            assertEquals(100, m.size());
+            assertEquals(other, m);
+            assertEquals(m, other);
+            assertTrue(m.entrySet().containsAll(other.entrySet()));
+        }
+    }
+
+    /**
+     * Test that hashCode follows every change of the map
+     * @safe.precondition map initialized, 50 mappings added to the map
+     * @safe.postcondition hashCode equal to the sum of the entries' hashcodes after each change
+     * @safe.testcases Replaces values with put and through the entries of entrySet, removes mappings with remove, through the views and their iterators, and clears the map, checking hashCode (and the keySet's hashCode) against the sums computed by iterating after each step.
+     */
+    @Test
+    public void testHashCodeAfterChanges() {
+        for(int i = 0; i < 50; i++) {
+            m.put(Integer.valueOf(i), "v" + i);
+        }
+        checkHashes();
+        m.put(Integer.valueOf(3), "w");
+        checkHashes();
+        HIterator it = m.entrySet().iterator();
+        HMap.HEntry e = (HMap.HEntry) it.next();
+        e.setValue("x");
+        it.next();
+        it.remove();
+        checkHashes();
+        m.remove(Integer.valueOf(10));
+        m.keySet().remove(Integer.valueOf(11));
+        m.values().remove("v12");
+        checkHashes();
+        m.keySet().removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 3 == 0;
+            }
+        });
+        checkHashes();
+        m.clear();
+        assertEquals(0, m.hashCode());
+        assertEquals(0, m.keySet().hashCode());
+    }
+
+    private void checkHashes() {
+        int sum = 0;
+        int keySum = 0;
+        HIterator it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            sum += e.hashCode();
+            keySum += e.getKey().hashCode();
+        }
+        assertEquals(sum, m.hashCode());
+        assertEquals(sum, m.entrySet().hashCode());
+        assertEquals(keySum, m.keySet().hashCode());
+    }
+
+    /**
+     * Test equals with maps having the same keys but different values
+     * @safe.precondition map initialized, 30 mappings added to the map and to maps of both storage modes and to a ConcurrentMapAdapter
+     * @safe.postcondition the maps are equal until a value is changed
+     * @safe.testcases Test that the maps are equal in both directions, then that changing one value of the other maps (same key, same size) makes them unequal, and that entrySet().contains compares the value too.
+     */
+    @Test
+    public void testEqualsComparesValues() {
+        HMap[] others = {new MapAdapter(), new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE), new ConcurrentMapAdapter()};
+        for(int i = 0; i < 30; i++) {
+            m.put(Integer.valueOf(i), "v" + i);
+            for(int j = 0; j < others.length; j++) {
+                others[j].put(Integer.valueOf(i), "v" + i);
+            }
+        }
+        for(int j = 0; j < others.length; j++) {
+            assertTrue(m.equals(others[j]));
+            assertTrue(others[j].equals(m));
+            others[j].put(Integer.valueOf(7), "w");
+            assertFalse(m.equals(others[j]));
+            assertFalse(others[j].equals(m));
+            assertFalse(m.entrySet().equals(others[j].entrySet()));
+        }
+        HMap single = new MapAdapter();
+        single.put(Integer.valueOf(7), "v7");
+        Object same = single.entrySet().iterator().next();
+        single.put(Integer.valueOf(7), "w");
+        Object changed = single.entrySet().iterator().next();
+        assertTrue(m.entrySet().contains(same));
+        assertFalse(m.entrySet().contains(changed));
+        assertFalse(m.entrySet().remove(changed));
+        assertEquals(30, m.size());
+    }
+
+    /**
+     * Test that the views are created once and stay backed by the map
+     * @safe.precondition map initialized, views taken before any mapping is put
+     * @safe.postcondition 10 mappings in the map, then the even keys removed through the keySet
+     * @safe.testcases Test that entrySet(), keySet() and values() return the same instance at every call, that the views taken on the empty map see the mappings put later and the removals made through another view, that values() is not a list and that add throws UnsupportedOperationException.
+     */
+    @Test
+    public void testViewsAreCached() {
+        HSet entries = m.entrySet();
+        HSet keys = m.keySet();
+        HCollection values = m.values();
+        assertTrue(entries == m.entrySet());
+        assertTrue(keys == m.keySet());
+        assertTrue(values == m.values());
+        assertFalse(values instanceof HList);
+        assertTrue(keys.isEmpty());
+        for(int i = 0; i < 10; i++) {
+            m.put(Integer.valueOf(i), "v" + i);
+        }
+        assertEquals(10, entries.size());
+        assertTrue(keys.contains(Integer.valueOf(9)));
+        assertTrue(values.contains("v9"));
+        assertEquals(10, values.toArray().length);
+        for(int i = 0; i < 10; i += 2) {
+            assertTrue(keys.remove(Integer.valueOf(i)));
+        }
+        assertEquals(5, m.size());
+        assertEquals(5, values.size());
+        assertFalse(values.contains("v0"));
+        try {
+            values.add("v10");
+            assertTrue(false);
+        }
+        catch(UnsupportedOperationException e) {
+            assertEquals(5, m.size());
+        }
+        try {
+            keys.add(Integer.valueOf(10));
+            assertTrue(false);
+        }
+        catch(UnsupportedOperationException e) {
+            assertEquals(5, m.size());
+        }
+    }
+
+}
@@ -19,20 +19,28 @@ public class TestMapAdapterEntrySet {
     private HMap.HEntry entry1 = null;
     private HMap.HEntry entry2 = null;
 
+    /**
+     * Creates the maps whose views are tested.
+     * @return an empty MapAdapter.
+     */
+    protected MapAdapter newMap() {
+        return new MapAdapter();
+    }
+
     /**
      * Setup (for all tests): initializes the HSet s returned by the method entrySet and containing 2 entries. It also saves 4 entries, 2 contained in s (e1, e2), 2 not contained in s (entry1, entry2).
      */
 
     @Before
     public void setUp() {
-        MapAdapter map = new MapAdapter();
+        MapAdapter map = newMap();
         map.put(Integer.valueOf(1), Integer.valueOf(2));
         map.put(Integer.valueOf(4), Integer.valueOf(5));
         s = map.entrySet();
         HIterator it = s.iterator();
         e1 = (HMap.HEntry) it.next();
         e2 = (HMap.HEntry) it.next();
-        MapAdapter map2 = new MapAdapter();
+        MapAdapter map2 = newMap();
         map2.put(Integer.valueOf(10), Integer.valueOf(11));
         map2.put(Integer.valueOf(11), Integer.valueOf(12));
         HSet set2 = map2.entrySet();
@@ -609,4 +617,93 @@ public class TestMapAdapterEntrySet {
         s.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf on the view
+     * @safe.precondition A map with the mappings i=i for i in 0-99
+     * @safe.postcondition The mappings whose key is even are removed from the map
+     * @safe.testcases Test that removeIf returns true and that the backing map contains only the odd keys.
+     */
+    @Test
+    public void testRemoveIf() {
+        MapAdapter map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        assertTrue(map.entrySet().removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) ((HMap.HEntry) o).getKey()).intValue() % 2 == 0;
+            }
+        }));
+        assertEquals(50, map.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test setValue on the entries returned by the iterator
+     * @safe.precondition A map with the mappings i=i for i in 0-99
+     * @safe.postcondition Every key is mapped to its double
+     * @safe.testcases Test that setValue on the entries of the entrySet returns the old value and replaces the value in the backing map, without changing its size.
+     */
+    @Test
+    public void testSetValueWritesThrough() {
+        MapAdapter map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        HIterator it = map.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            int k = ((Integer) e.getKey()).intValue();
+            assertEquals(Integer.valueOf(k), e.setValue(Integer.valueOf(2 * k)));
+            assertEquals(Integer.valueOf(2 * k), e.getValue());
+        }
+        assertEquals(100, map.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(2 * i), map.get(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test setValue on an entry whose mapping has been removed
+     * @safe.precondition Setup, e1's mapping removed from the map
+     * @safe.postcondition The entry holds the new value, the map doesn't contain e1's key
+     * @safe.testcases Test that setValue on an entry whose mapping was removed changes only the entry and doesn't add the mapping back to the map.
+     */
+    @Test
+    public void testSetValueAfterRemove() {
+        Object key = e1.getKey();
+        s.remove(e1);
+        e1.setValue(Integer.valueOf(42));
+        assertEquals(Integer.valueOf(42), e1.getValue());
+        assertEquals(1, s.size());
+        MapAdapter map = newMap();
+        map.put(Integer.valueOf(1), Integer.valueOf(1));
+        HMap.HEntry e = (HMap.HEntry) map.entrySet().iterator().next();
+        map.remove(Integer.valueOf(1));
+        e.setValue(Integer.valueOf(2));
+        assertFalse(map.containsKey(key));
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Test setValue after the table has been rebuilt
+     * @safe.precondition A map with one mapping, an entry read from its entrySet, then 1000 more mappings added
+     * @safe.postcondition The mapping of the entry's key has the new value
+     * @safe.testcases Test that setValue on an entry read before the map grew still replaces the value of its mapping.
+     */
+    @Test
+    public void testSetValueAfterGrowth() {
+        MapAdapter map = newMap();
+        map.put(Integer.valueOf(-1), Integer.valueOf(0));
+        HMap.HEntry e = (HMap.HEntry) map.entrySet().iterator().next();
+        for(int i = 0; i < 1000; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        e.setValue(Integer.valueOf(7));
+        assertEquals(Integer.valueOf(7), map.get(Integer.valueOf(-1)));
+        assertEquals(1001, map.size());
+    }
+
+}
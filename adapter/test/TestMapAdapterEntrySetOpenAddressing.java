@@ -0,0 +1,20 @@
+package adapter.test;
+
+import adapter.*;
+
+/**
+ * Test case class for the entrySet of a MapAdapter with OPEN_ADDRESSING_STORAGE
+ * @safe.summary This classes runs all the tests of TestMapAdapterEntrySet on the entrySet of a MapAdapter backed by an open-addressing table
+ */
+public class TestMapAdapterEntrySetOpenAddressing extends TestMapAdapterEntrySet {
+
+    /**
+     * Creates the maps whose views are tested.
+     * @return an empty MapAdapter with OPEN_ADDRESSING_STORAGE.
+     */
+    @Override
+    protected MapAdapter newMap() {
+        return new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE);
+    }
+
+}
@@ -19,20 +19,28 @@ public class TestMapAdapterKeySet {
     private Object key1 = null;
     private Object key2 = null;
 
+    /**
+     * Creates the maps whose views are tested.
+     * @return an empty MapAdapter.
+     */
+    protected MapAdapter newMap() {
+        return new MapAdapter();
+    }
+
     /**
      * Setup (for all tests): initializes the HSet s returned by the method keySet and containing 2 keys. It also saves 4 keys, 2 contained in s (k1, k2), 2 not contained in s (key1, key2).
      */
 
     @Before
     public void setUp() {
-        MapAdapter map = new MapAdapter();
+        MapAdapter map = newMap();
         map.put(Integer.valueOf(1), Integer.valueOf(2));
         map.put(Integer.valueOf(4), Integer.valueOf(5));
         s = map.keySet();
         HIterator it = s.iterator();
         k1 = it.next();
         k2 = it.next();
-        MapAdapter map2 = new MapAdapter();
+        MapAdapter map2 = newMap();
         map2.put(Integer.valueOf(10), Integer.valueOf(11));
         map2.put(Integer.valueOf(11), Integer.valueOf(12));
         HSet set2 = map2.keySet();
@@ -547,4 +555,27 @@ public class TestMapAdapterKeySet {
         s.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf on the view
+     * @safe.precondition A map with the mappings i=i for i in 0-99
+     * @safe.postcondition The mappings whose key is even are removed from the map
+     * @safe.testcases Test that removeIf returns true and that the backing map contains only the odd keys.
+     */
+    @Test
+    public void testRemoveIf() {
+        MapAdapter map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        assertTrue(map.keySet().removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        }));
+        assertEquals(50, map.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(Integer.valueOf(i)));
+        }
+    }
+
+}
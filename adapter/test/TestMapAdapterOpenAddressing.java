@@ -0,0 +1,130 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case class for MapAdapter with OPEN_ADDRESSING_STORAGE
+ * @safe.summary This classes runs all the tests of TestMapAdapter on a MapAdapter backed by an open-addressing table, and tests the behaviour specific to the open-addressing table
+ */
+public class TestMapAdapterOpenAddressing extends TestMapAdapter {
+
+    /**
+     * Creates the map under test.
+     * @return an empty MapAdapter with OPEN_ADDRESSING_STORAGE.
+     */
+    @Override
+    protected MapAdapter newMap() {
+        return new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE);
+    }
+
+    /**
+     * Test constructor with an unknown storage mode
+     * @safe.precondition None
+     * @safe.postcondition IllegalArgumentException thrown
+     * @safe.testcases Creates a MapAdapter with storage mode 2 and checks that IllegalArgumentException is thrown.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithUnknownStorage() {
+        new MapAdapter(2);
+    }
+
+    /**
+     * Test put beyond the initial capacity
+     * @safe.precondition map initialized
+     * @safe.postcondition 10000 mappings in the map
+     * @safe.testcases Puts 10000 mappings, so that the table is rehashed several times, and checks that every key is still mapped to its value.
+     */
+    @Test
+    public void testPutGrowsTable() {
+        HMap map = newMap();
+        for(int i = 0; i < 10000; i++) {
+            assertNull(map.put(Integer.valueOf(i), Integer.valueOf(-i)));
+        }
+        assertEquals(10000, map.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals(Integer.valueOf(-i), map.get(Integer.valueOf(i)));
+        }
+        assertFalse(map.containsKey(Integer.valueOf(10000)));
+    }
+
+    /**
+     * Test remove followed by put of colliding keys
+     * @safe.precondition map initialized, 1000 mappings added
+     * @safe.postcondition the map contains the odd keys, mapped to new values
+     * @safe.testcases Removes the even keys, checks that the odd ones can still be found behind the removed slots, then puts the odd keys again and checks that the size doesn't change and the values are replaced.
+     */
+    @Test
+    public void testRemoveThenPut() {
+        HMap map = newMap();
+        for(int i = 0; i < 1000; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        for(int i = 0; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(Integer.valueOf(i)));
+        }
+        assertEquals(500, map.size());
+        for(int i = 1; i < 1000; i += 2) {
+            assertTrue(map.containsKey(Integer.valueOf(i)));
+            assertEquals(Integer.valueOf(i), map.put(Integer.valueOf(i), Integer.valueOf(i + 1)));
+        }
+        assertEquals(500, map.size());
+        for(int i = 0; i < 1000; i += 2) {
+            assertNull(map.get(Integer.valueOf(i)));
+        }
+        for(int i = 1; i < 1000; i += 2) {
+            assertEquals(Integer.valueOf(i + 1), map.get(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test repeated put and remove of distinct keys
+     * @safe.precondition map initialized
+     * @safe.postcondition the map is empty
+     * @safe.testcases Puts and removes 100000 distinct keys one at a time, so that the table fills up with removed slots and has to be cleaned, and checks that the map ends up empty.
+     */
+    @Test
+    public void testPutRemoveCleansTable() {
+        HMap map = newMap();
+        for(int i = 0; i < 100000; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+            map.put(Integer.valueOf(-i - 1), Integer.valueOf(i));
+            assertEquals(Integer.valueOf(i), map.remove(Integer.valueOf(i)));
+            assertEquals(Integer.valueOf(i), map.remove(Integer.valueOf(-i - 1)));
+        }
+        assertTrue(map.isEmpty());
+        assertFalse(map.keySet().iterator().hasNext());
+    }
+
+    /**
+     * Test removal of every key through the keySet iterator
+     * @safe.precondition map initialized, 1000 mappings added
+     * @safe.postcondition the map is empty
+     * @safe.testcases Removes every key with the iterator's remove() method and checks that each key was returned exactly once.
+     */
+    @Test
+    public void testIteratorRemoveVisitsEveryKey() {
+        HMap map = newMap();
+        for(int i = 0; i < 1000; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        boolean[] seen = new boolean[1000];
+        HIterator it = map.keySet().iterator();
+        while(it.hasNext()) {
+            int k = ((Integer) it.next()).intValue();
+            assertFalse(seen[k]);
+            seen[k] = true;
+            it.remove();
+        }
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(seen[i]);
+        }
+        assertEquals(0, map.size());
+    }
+
+}
@@ -0,0 +1,143 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for MapAdapter with a value index
+ * @safe.summary This classes runs all the tests of TestMapAdapter on a MapAdapter backed by a Hashtable and keeping a reverse index of the values, and tests that the index follows the updates of the map
+ */
+public class TestMapAdapterValueIndex extends TestMapAdapter {
+
+    /**
+     * Creates the map under test.
+     * @return an empty MapAdapter with HASHTABLE_STORAGE and the value index.
+     */
+    @Override
+    protected MapAdapter newMap() {
+        return new MapAdapter(MapAdapter.HASHTABLE_STORAGE, true);
+    }
+
+    /**
+     * Test containsValue after the value of a key is replaced
+     * @safe.precondition map initialized, 1=10 put in the map, then 1=20
+     * @safe.postcondition The map contains the value 20 but not 10
+     * @safe.testcases Test that containsValue returns false for the replaced value and true for the new one.
+     */
+    @Test
+    public void testContainsValueAfterReplace() {
+        HMap map = newMap();
+        map.put(Integer.valueOf(1), Integer.valueOf(10));
+        map.put(Integer.valueOf(1), Integer.valueOf(20));
+        assertFalse(map.containsValue(Integer.valueOf(10)));
+        assertTrue(map.containsValue(Integer.valueOf(20)));
+    }
+
+    /**
+     * Test containsValue with a value mapped by several keys
+     * @safe.precondition map initialized, the keys 0-99 mapped to their remainder modulo 3
+     * @safe.postcondition The value stays in the map until every key mapped to it is removed
+     * @safe.testcases Removes the keys mapped to 0 one at a time, checking that containsValue(0) is true until the last one is removed, and that the other values are unaffected.
+     */
+    @Test
+    public void testContainsValueWithSeveralKeys() {
+        HMap map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i % 3));
+        }
+        for(int i = 0; i < 100; i += 3) {
+            assertTrue(map.containsValue(Integer.valueOf(0)));
+            map.remove(Integer.valueOf(i));
+        }
+        assertFalse(map.containsValue(Integer.valueOf(0)));
+        assertTrue(map.containsValue(Integer.valueOf(1)));
+        assertTrue(map.containsValue(Integer.valueOf(2)));
+    }
+
+    /**
+     * Test values().remove with a value mapped by several keys
+     * @safe.precondition map initialized, the keys 0-99 mapped to their remainder modulo 4
+     * @safe.postcondition The mappings to 1 are removed
+     * @safe.testcases Test that values().remove(1) returns true, removes every mapping to 1 and no other, and that a second call returns false.
+     */
+    @Test
+    public void testValuesRemoveEveryKey() {
+        HMap map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i % 4));
+        }
+        assertTrue(map.values().remove(Integer.valueOf(1)));
+        assertEquals(75, map.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i % 4 != 1, map.containsKey(Integer.valueOf(i)));
+        }
+        assertFalse(map.values().remove(Integer.valueOf(1)));
+        assertFalse(map.containsValue(Integer.valueOf(1)));
+    }
+
+    /**
+     * Test that the index follows the updates made through the views
+     * @safe.precondition map initialized, the keys 0-9 mapped to themselves
+     * @safe.postcondition The index contains only the values of the remaining mappings
+     * @safe.testcases Replaces the value of key 0 through the entrySet, removes key 1 through the keySet iterator and clears the map through values(), checking containsValue for the values involved after each step.
+     */
+    @Test
+    public void testIndexFollowsViews() {
+        HMap map = newMap();
+        for(int i = 0; i < 10; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        HIterator it = map.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            if(e.getKey().equals(Integer.valueOf(0))) {
+                e.setValue(Integer.valueOf(100));
+            }
+        }
+        it = map.keySet().iterator();
+        while(it.hasNext()) {
+            if(it.next().equals(Integer.valueOf(1))) {
+                it.remove();
+            }
+        }
+        assertFalse(map.containsValue(Integer.valueOf(0)));
+        assertTrue(map.containsValue(Integer.valueOf(100)));
+        assertFalse(map.containsValue(Integer.valueOf(1)));
+        map.values().clear();
+        assertFalse(map.containsValue(Integer.valueOf(100)));
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Test removing through a cursor taken before the table is rebuilt
+     * @safe.precondition maps with both storage modes and the value index, "K" mapped to "v1", a cursor positioned on it, then 100 keys put (so that the table is rebuilt), "K" mapped to "v2" and "K2" to "v1"
+     * @safe.postcondition "K" removed, "K2" still mapped to "v1"
+     * @safe.testcases Removes "K" through the stale cursor and checks that the index drops "v2", the value actually removed, and keeps "v1", which is still mapped by "K2".
+     */
+    @Test
+    public void testCursorRemoveAfterRehash() {
+        MapAdapter[] maps = {new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE, true), new MapAdapter(MapAdapter.HASHTABLE_STORAGE, true)};
+        for(int j = 0; j < maps.length; j++) {
+            MapAdapter map = maps[j];
+            map.put("K", "v1");
+            HIterator c = map.entryCursor();
+            c.next();
+            for(int i = 0; i < 100; i++) {
+                map.put(Integer.valueOf(i), Integer.valueOf(i));
+            }
+            map.put("K", "v2");
+            map.put("K2", "v1");
+            c.remove();
+            assertFalse(map.containsKey("K"));
+            assertEquals("v1", map.get("K2"));
+            assertTrue(map.containsValue("v1"));
+            assertFalse(map.containsValue("v2"));
+            assertTrue(map.values().contains("v1"));
+        }
+    }
+
+}
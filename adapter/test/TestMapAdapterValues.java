@@ -19,20 +19,28 @@ public class TestMapAdapterValues {
     private Object value1 = null;
     private Object value2 = null;
 
+    /**
+     * Creates the maps whose views are tested.
+     * @return an empty MapAdapter.
+     */
+    protected MapAdapter newMap() {
+        return new MapAdapter();
+    }
+
     /**
      * Setup (for all tests): initializes the HCollection c returned by the method values and containing 2 values. It also saves 4 values, 2 contained in c (v1, v2), 2 not contained in c (value1, value2).
      */
 
     @Before
     public void setUp() {
-        MapAdapter map = new MapAdapter();
+        MapAdapter map = newMap();
         map.put(Integer.valueOf(1), Integer.valueOf(2));
         map.put(Integer.valueOf(4), Integer.valueOf(5));
         c = map.values();
         HIterator it = c.iterator();
         v1 = it.next();
         v2 = it.next();
-        MapAdapter map2 = new MapAdapter();
+        MapAdapter map2 = newMap();
         map2.put(Integer.valueOf(10), Integer.valueOf(11));
         map2.put(Integer.valueOf(11), Integer.valueOf(12));
         HCollection s2 = map2.values();
@@ -526,4 +534,27 @@ public class TestMapAdapterValues {
         c.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf on the view
+     * @safe.precondition A map with the mappings i=i for i in 0-99
+     * @safe.postcondition The mappings whose value is even are removed from the map
+     * @safe.testcases Test that removeIf returns true and that the backing map contains only the odd keys.
+     */
+    @Test
+    public void testRemoveIf() {
+        MapAdapter map = newMap();
+        for(int i = 0; i < 100; i++) {
+            map.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        assertTrue(map.values().removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        }));
+        assertEquals(50, map.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(Integer.valueOf(i)));
+        }
+    }
+
+}
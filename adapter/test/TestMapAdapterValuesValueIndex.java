@@ -0,0 +1,20 @@
+package adapter.test;
+
+import adapter.*;
+
+/**
+ * Test case class for the values collection of a MapAdapter with a value index
+ * @safe.summary This classes runs all the tests of TestMapAdapterValues on the values collection of a MapAdapter backed by an open-addressing table and keeping a reverse index of the values
+ */
+public class TestMapAdapterValuesValueIndex extends TestMapAdapterValues {
+
+    /**
+     * Creates the maps whose views are tested.
+     * @return an empty MapAdapter with OPEN_ADDRESSING_STORAGE and the value index.
+     */
+    @Override
+    protected MapAdapter newMap() {
+        return new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE, true);
+    }
+
+}
@@ -0,0 +1,373 @@
+package adapter.test;
+
+import adapter.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case class for MappedMapAdapter
+ * @safe.summary This classes tests MappedMapAdapter with Integer keys and 8-byte Long values, kept in a temporary file which is reopened to check that the mappings persist
+ */
+public class TestMappedMapAdapter {
+
+    /**
+     * Codec of an Integer: 4 bytes.
+     */
+    private static final HCodec INT = new HCodec() {
+
+        public int width() {
+            return 4;
+        }
+
+        public void encode(Object o, ByteBuffer buffer, int index) {
+            buffer.putInt(index, ((Integer) o).intValue());
+        }
+
+        public Object decode(ByteBuffer buffer, int index) {
+            return Integer.valueOf(buffer.getInt(index));
+        }
+
+    };
+
+    /**
+     * Codec of a Long: 8 bytes.
+     */
+    private static final HCodec LONG = new HCodec() {
+
+        public int width() {
+            return 8;
+        }
+
+        public void encode(Object o, ByteBuffer buffer, int index) {
+            buffer.putLong(index, ((Long) o).longValue());
+        }
+
+        public Object decode(ByteBuffer buffer, int index) {
+            return Long.valueOf(buffer.getLong(index));
+        }
+
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file = null;
+    private MappedMapAdapter m = null;
+
+    /**
+     * Setup method, opens a MappedMapAdapter on a new file
+     */
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "map");
+        m = new MappedMapAdapter(file, INT, LONG);
+    }
+
+    /**
+     * Closes the map
+     */
+
+    @After
+    public void tearDown() throws IOException {
+        m.close();
+    }
+
+    /**
+     * Closes the map and opens it again on the same file.
+     */
+    private void reopen() throws IOException {
+        m.close();
+        m = new MappedMapAdapter(file, INT, LONG);
+    }
+
+    private static Integer k(int i) {
+        return Integer.valueOf(i);
+    }
+
+    private static Long v(int i) {
+        return Long.valueOf(i * 7L);
+    }
+
+    /**
+     * Test put and get beyond the initial capacity
+     * @safe.precondition map opened on a new file
+     * @safe.postcondition 10000 mappings in the map
+     * @safe.testcases Puts 10000 mappings, so that the table is rehashed into a new file several times, and checks every value.
+     */
+    @Test
+    public void testPutAndGet() {
+        for(int i = 0; i < 10000; i++) {
+            assertNull(m.put(k(i), v(i)));
+        }
+        assertEquals(10000, m.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals(v(i), m.get(k(i)));
+        }
+        assertNull(m.get(k(10000)));
+        assertTrue(m.containsKey(k(9999)));
+        assertFalse(m.containsKey(k(-1)));
+        assertFalse(m.containsKey("1"));
+        assertTrue(m.containsValue(v(9999)));
+        assertFalse(m.containsValue(v(10000)));
+    }
+
+    /**
+     * Test put of a key already mapped and remove
+     * @safe.precondition map opened on a new file, 1 mapped to 7
+     * @safe.postcondition map empty
+     * @safe.testcases Test that put returns the previous value without changing the size, and that remove returns the removed value and null for a missing key.
+     */
+    @Test
+    public void testReplaceAndRemove() {
+        m.put(k(1), v(1));
+        assertEquals(v(1), m.put(k(1), v(2)));
+        assertEquals(1, m.size());
+        assertEquals(v(2), m.remove(k(1)));
+        assertNull(m.remove(k(1)));
+        assertNull(m.remove("1"));
+        assertTrue(m.isEmpty());
+    }
+
+    /**
+     * Test that the mappings survive closing and reopening the file
+     * @safe.precondition map opened on a new file, 1000 mappings, the odd keys removed
+     * @safe.postcondition map reopened with the 500 even keys
+     * @safe.testcases Closes and reopens the map, then checks the size, every mapping and the removed keys; then updates the reopened map and reopens it again.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        for(int i = 0; i < 1000; i++) {
+            m.put(k(i), v(i));
+        }
+        for(int i = 1; i < 1000; i += 2) {
+            m.remove(k(i));
+        }
+        reopen();
+        assertEquals(500, m.size());
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? v(i) : null, m.get(k(i)));
+        }
+        m.put(k(0), v(-1));
+        m.put(k(1), v(1));
+        reopen();
+        assertEquals(501, m.size());
+        assertEquals(v(-1), m.get(k(0)));
+        assertEquals(v(1), m.get(k(1)));
+    }
+
+    /**
+     * Test opening a file written with codecs of different widths
+     * @safe.precondition map opened on a new file and closed
+     * @safe.postcondition IOException thrown
+     * @safe.testcases Test that opening the file with a 4-byte value codec fails, and that opening a file which isn't a map file fails.
+     */
+    @Test
+    public void testOpenMismatch() throws IOException {
+        m.put(k(1), v(1));
+        m.close();
+        try {
+            new MappedMapAdapter(file, INT, INT);
+            assertTrue(false);
+        }
+        catch(IOException e) {
+            assertTrue(true);
+        }
+        File other = folder.newFile("other");
+        java.nio.file.Files.write(other.toPath(), new byte[64]);
+        try {
+            new MappedMapAdapter(other, INT, LONG);
+            assertTrue(false);
+        }
+        catch(IOException e) {
+            assertTrue(true);
+        }
+        m = new MappedMapAdapter(file, INT, LONG);
+        assertEquals(v(1), m.get(k(1)));
+    }
+
+    /**
+     * Test null keys and values
+     * @safe.precondition map opened on a new file
+     * @safe.postcondition NullPointerException thrown, map still empty
+     * @safe.testcases Test that put, get and containsValue with null throw NullPointerException.
+     */
+    @Test
+    public void testNull() {
+        try {
+            m.put(null, v(1));
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.put(k(1), null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.get(null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+        try {
+            m.containsValue(null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(m.isEmpty());
+        }
+    }
+
+    /**
+     * Test opening a truncated or inconsistent file
+     * @safe.precondition map opened on a new file, 1000 mappings, closed
+     * @safe.postcondition IOException thrown
+     * @safe.testcases Test that opening the file truncated to half its length fails instead of extending it with empty slots, and that opening a file whose header counts more mappings than the table can hold fails.
+     */
+    @Test
+    public void testOpenCorrupted() throws IOException {
+        for(int i = 0; i < 1000; i++) {
+            m.put(k(i), v(i));
+        }
+        m.close();
+        File copy = folder.newFile("copy");
+        java.nio.file.Files.copy(file.toPath(), copy.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        long length = file.length();
+        try(java.io.RandomAccessFile f = new java.io.RandomAccessFile(file, "rw")) {
+            f.setLength(length / 2);
+        }
+        try {
+            new MappedMapAdapter(file, INT, LONG);
+            assertTrue(false);
+        }
+        catch(IOException e) {
+            assertTrue(true);
+        }
+        assertEquals(length / 2, file.length());
+        try(java.io.RandomAccessFile f = new java.io.RandomAccessFile(copy, "rw")) {
+            f.seek(20);
+            f.writeInt(Integer.MAX_VALUE);
+        }
+        try {
+            new MappedMapAdapter(copy, INT, LONG);
+            assertTrue(false);
+        }
+        catch(IOException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Test the views and their iterators
+     * @safe.precondition map opened on a new file, 100 mappings
+     * @safe.postcondition the mappings with an even key and a value not equal to 14 left, values written through the entries persisted
+     * @safe.testcases Iterates over the keySet, values and entrySet, removes through the iterator of the keySet and through values().remove, changes values through the entries and reopens the map to check them.
+     */
+    @Test
+    public void testViews() throws IOException {
+        for(int i = 0; i < 100; i++) {
+            m.put(k(i), v(i));
+        }
+        assertEquals(100, m.keySet().size());
+        assertEquals(100, m.values().size());
+        assertTrue(m.keySet().contains(k(50)));
+        assertTrue(m.values().contains(v(50)));
+        HIterator it = m.keySet().iterator();
+        int count = 0;
+        while(it.hasNext()) {
+            Integer key = (Integer) it.next();
+            count++;
+            if(key.intValue() % 2 != 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, count);
+        assertEquals(50, m.size());
+        assertTrue(m.values().remove(v(2)));
+        assertFalse(m.values().remove(v(2)));
+        assertEquals(49, m.size());
+        it = m.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            e.setValue(Long.valueOf(-((Long) e.getValue()).longValue()));
+        }
+        reopen();
+        assertEquals(49, m.size());
+        for(int i = 0; i < 100; i += 2) {
+            assertEquals(i == 2 ? null : Long.valueOf(-i * 7L), m.get(k(i)));
+        }
+    }
+
+    /**
+     * Test equals and hashCode against an equivalent MapAdapter
+     * @safe.precondition map opened on a new file, 100 mappings, MapAdapter with the same mappings
+     * @safe.postcondition the maps are equal
+     * @safe.testcases Test that the maps and their entrySets and keySets are equal in both directions and have the same hashCode, and that they differ after a change.
+     */
+    @Test
+    public void testEqualsHashCode() {
+        MapAdapter other = new MapAdapter();
+        for(int i = 0; i < 100; i++) {
+            m.put(k(i), v(i));
+            other.put(k(i), v(i));
+        }
+        assertEquals(other, m);
+        assertEquals(m, other);
+        assertEquals(other.hashCode(), m.hashCode());
+        assertEquals(other.entrySet(), m.entrySet());
+        assertEquals(m.entrySet(), other.entrySet());
+        assertEquals(other.keySet().hashCode(), m.keySet().hashCode());
+        m.put(k(0), v(1));
+        assertFalse(m.equals(other));
+        assertFalse(other.equals(m));
+    }
+
+    /**
+     * Test clear, removeAll and retainAll
+     * @safe.precondition map opened on a new file, 100 mappings
+     * @safe.postcondition map empty after clear, also once reopened
+     * @safe.testcases Removes keys through keySet().removeAll and retainAll, then clears the map and checks that it stays empty after reopening it.
+     */
+    @Test
+    public void testBulkRemoveAndClear() throws IOException {
+        ListAdapter keys = new ListAdapter();
+        for(int i = 0; i < 100; i++) {
+            m.put(k(i), v(i));
+            if(i < 10) {
+                keys.add(k(i));
+            }
+        }
+        assertTrue(m.keySet().removeAll(keys));
+        assertEquals(90, m.size());
+        keys.clear();
+        keys.add(k(50));
+        keys.add(k(5));
+        assertTrue(m.keySet().retainAll(keys));
+        assertEquals(1, m.size());
+        assertEquals(v(50), m.get(k(50)));
+        m.clear();
+        assertTrue(m.isEmpty());
+        reopen();
+        assertTrue(m.isEmpty());
+        assertNull(m.get(k(50)));
+    }
+
+}
@@ -0,0 +1,336 @@
+package adapter.test;
+
+import adapter.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for OffHeapListAdapter
+ * @safe.summary This classes tests OffHeapListAdapter with a codec of 12-byte records, each holding an int and a long
+ */
+public class TestOffHeapListAdapter {
+
+    /**
+     * Value object stored in the list.
+     */
+    private static class Point {
+
+        final int x;
+        final long y;
+
+        Point(int x, long y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Point && ((Point) o).x == x && ((Point) o).y == y;
+        }
+
+        public int hashCode() {
+            return 31 * x + (int) (y ^ (y >>> 32));
+        }
+
+    }
+
+    /**
+     * Codec of a Point: 4 bytes for x, 8 bytes for y.
+     */
+    private static final HCodec CODEC = new HCodec() {
+
+        public int width() {
+            return 12;
+        }
+
+        public void encode(Object o, ByteBuffer buffer, int index) {
+            Point p = (Point) o;
+            buffer.putInt(index, p.x);
+            buffer.putLong(index + 4, p.y);
+        }
+
+        public Object decode(ByteBuffer buffer, int index) {
+            return new Point(buffer.getInt(index), buffer.getLong(index + 4));
+        }
+
+    };
+
+    private OffHeapListAdapter l = null;
+
+    /**
+     * Setup method, initializes the OffHeapListAdapter
+     */
+
+    @Before
+    public void setUp() {
+        l = new OffHeapListAdapter(CODEC);
+    }
+
+    private static Point p(int i) {
+        return new Point(i, -3L * i);
+    }
+
+    /**
+     * Test add and get beyond the initial capacity
+     * @safe.precondition List initialized
+     * @safe.postcondition 10000 elements in the list
+     * @safe.testcases Appends 10000 elements, so that the buffer grows several times, and checks that each of them is decoded to an equal (but distinct) object.
+     */
+    @Test
+    public void testAddAndGet() {
+        Point first = p(0);
+        l.add(first);
+        for(int i = 1; i < 10000; i++) {
+            l.add(p(i));
+        }
+        assertEquals(10000, l.size());
+        for(int i = 0; i < 10000; i++) {
+            assertEquals(p(i), l.get(i));
+        }
+        assertFalse(first == l.get(0));
+    }
+
+    /**
+     * Test add(int, Object), set and remove(int)
+     * @safe.precondition List initialized, the elements 0-4 added
+     * @safe.postcondition The list contains 0, 1, 9, 3, 4
+     * @safe.testcases Inserts an element in the middle, replaces and removes elements, and checks the values returned and the content of the list.
+     */
+    @Test
+    public void testInsertSetRemove() {
+        for(int i = 0; i < 5; i++) {
+            l.add(p(i));
+        }
+        l.add(2, p(100));
+        assertEquals(p(100), l.get(2));
+        assertEquals(p(2), l.get(3));
+        assertEquals(p(100), l.set(2, p(9)));
+        assertEquals(p(2), l.remove(3));
+        int[] expected = {0, 1, 9, 3, 4};
+        assertEquals(expected.length, l.size());
+        for(int i = 0; i < expected.length; i++) {
+            assertEquals(p(expected[i]), l.get(i));
+        }
+    }
+
+    /**
+     * Test add with null and with an element the codec can't encode
+     * @safe.precondition List initialized
+     * @safe.postcondition NullPointerException and ClassCastException thrown, the list is still empty
+     * @safe.testcases Test that add(null) throws NullPointerException, that adding a String throws ClassCastException, and that the list isn't changed.
+     */
+    @Test
+    public void testAddInvalid() {
+        try {
+            l.add(null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertEquals(0, l.size());
+        }
+        try {
+            l.add("p");
+            assertTrue(false);
+        }
+        catch(ClassCastException cce) {
+            assertEquals(0, l.size());
+        }
+    }
+
+    /**
+     * Test indexOf, lastIndexOf, contains and remove(Object)
+     * @safe.precondition List initialized, the elements 0-4 added twice
+     * @safe.postcondition The first occurrence of 3 removed
+     * @safe.testcases Checks the first and last index of an element, that an element of another type isn't found, and that remove(Object) removes the first occurrence.
+     */
+    @Test
+    public void testSearch() {
+        for(int j = 0; j < 2; j++) {
+            for(int i = 0; i < 5; i++) {
+                l.add(p(i));
+            }
+        }
+        assertEquals(3, l.indexOf(p(3)));
+        assertEquals(8, l.lastIndexOf(p(3)));
+        assertEquals(-1, l.indexOf(p(5)));
+        assertFalse(l.contains("p"));
+        assertTrue(l.remove(p(3)));
+        assertEquals(7, l.indexOf(p(3)));
+        assertFalse(l.remove(p(5)));
+    }
+
+    /**
+     * Test addAll from an OffHeapListAdapter and from a ListAdapter
+     * @safe.precondition List initialized, the elements 0 and 1 added
+     * @safe.postcondition The list contains 0, 0, 1, 5, 6, 1
+     * @safe.testcases Inserts the list into itself and then a ListAdapter, checks the content, and checks that a collection containing null throws NullPointerException without changing the list.
+     */
+    @Test
+    public void testAddAll() {
+        l.add(p(0));
+        l.add(p(1));
+        assertTrue(l.addAll(1, l));
+        HList other = new ListAdapter();
+        other.add(p(5));
+        other.add(p(6));
+        assertTrue(l.addAll(3, other));
+        int[] expected = {0, 0, 1, 5, 6, 1};
+        assertEquals(expected.length, l.size());
+        for(int i = 0; i < expected.length; i++) {
+            assertEquals(p(expected[i]), l.get(i));
+        }
+        HList withWrongType = new ListAdapter();
+        withWrongType.add(p(7));
+        withWrongType.add("p");
+        try {
+            l.addAll(withWrongType);
+            assertTrue(false);
+        }
+        catch(ClassCastException cce) {
+            assertEquals(expected.length, l.size());
+        }
+    }
+
+    /**
+     * Test the list iterator
+     * @safe.precondition List initialized, the elements 0-9 added
+     * @safe.postcondition The even elements removed, the odd ones replaced by their opposite
+     * @safe.testcases Walks the list forward, removing and replacing elements, then walks it backwards and checks the elements.
+     */
+    @Test
+    public void testListIterator() {
+        for(int i = 0; i < 10; i++) {
+            l.add(p(i));
+        }
+        HListIterator it = l.listIterator();
+        while(it.hasNext()) {
+            Point q = (Point) it.next();
+            if(q.x % 2 == 0) {
+                it.remove();
+            }
+            else {
+                it.set(p(-q.x));
+            }
+        }
+        assertEquals(5, l.size());
+        for(int i = 4; it.hasPrevious(); i--) {
+            assertEquals(p(-(2 * i + 1)), it.previous());
+        }
+    }
+
+    /**
+     * Test removeIf and retainAll
+     * @safe.precondition List initialized, the elements 0-99 added
+     * @safe.postcondition The list contains the odd elements below 50
+     * @safe.testcases Removes the elements from 50 on with removeIf, keeps the odd ones with retainAll and checks the content.
+     */
+    @Test
+    public void testBulkRemoval() {
+        HList odd = new ListAdapter();
+        for(int i = 0; i < 100; i++) {
+            l.add(p(i));
+            if(i % 2 == 1) {
+                odd.add(p(i));
+            }
+        }
+        assertTrue(l.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return ((Point) o).x >= 50;
+            }
+        }));
+        assertTrue(l.retainAll(odd));
+        assertEquals(25, l.size());
+        for(int i = 0; i < 25; i++) {
+            assertEquals(p(2 * i + 1), l.get(i));
+        }
+    }
+
+    /**
+     * Test subList
+     * @safe.precondition List initialized, the elements 0-9 added
+     * @safe.postcondition The elements 3-6 of the list removed through the sublist
+     * @safe.testcases Takes the sublist [3, 7) and a sublist of it, inserts through the inner one, checks the sizes and content, then clears the sublist and checks the backing list.
+     */
+    @Test
+    public void testSubList() {
+        for(int i = 0; i < 10; i++) {
+            l.add(p(i));
+        }
+        HList sub = l.subList(3, 7);
+        HList subsub = sub.subList(1, 3);
+        subsub.add(p(100));
+        assertEquals(3, subsub.size());
+        assertEquals(5, sub.size());
+        assertEquals(11, l.size());
+        assertEquals(p(100), l.get(6));
+        assertEquals(3, sub.indexOf(p(100)));
+        sub.clear();
+        assertEquals(6, l.size());
+        assertEquals(p(2), l.get(2));
+        assertEquals(p(7), l.get(3));
+    }
+
+    /**
+     * Test clear and close
+     * @safe.precondition List initialized, 100 elements added
+     * @safe.postcondition The list is empty and usable again
+     * @safe.testcases Test that after clear and after close the list is empty, and that elements can be added again afterwards.
+     */
+    @Test
+    public void testClearAndClose() {
+        for(int i = 0; i < 100; i++) {
+            l.add(p(i));
+        }
+        l.clear();
+        assertTrue(l.isEmpty());
+        l.add(p(1));
+        assertEquals(p(1), l.get(0));
+        l.close();
+        assertEquals(0, l.size());
+        l.add(p(2));
+        assertEquals(1, l.size());
+    }
+
+    /**
+     * Test equals, hashCode and toArray against a ListAdapter
+     * @safe.precondition List initialized, the same 20 elements added to it and to a ListAdapter
+     * @safe.postcondition None
+     * @safe.testcases Test that the lists are equal in both directions, have the same hashcode and the same array.
+     */
+    @Test
+    public void testEqualsHashCodeToArray() {
+        HList other = new ListAdapter();
+        for(int i = 0; i < 20; i++) {
+            l.add(p(i));
+            other.add(p(i));
+        }
+        assertTrue(l.equals(other));
+        assertTrue(other.equals(l));
+        assertEquals(other.hashCode(), l.hashCode());
+        Object[] a = l.toArray();
+        Object[] b = other.toArray();
+        assertEquals(b.length, a.length);
+        for(int i = 0; i < a.length; i++) {
+            assertEquals(b[i], a[i]);
+        }
+        l.set(0, p(-1));
+        assertFalse(l.equals(other));
+    }
+
+    /**
+     * Test constructor with a null codec
+     * @safe.precondition None
+     * @safe.postcondition NullPointerException thrown
+     * @safe.testcases Test that creating an OffHeapListAdapter without a codec throws NullPointerException.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testConstructorWithNullCodec() {
+        new OffHeapListAdapter(null);
+    }
+
+}
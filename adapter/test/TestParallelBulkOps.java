@@ -0,0 +1,229 @@
+package adapter.test;
+
+import adapter.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test case class for the spliterators and the parallel bulk operations (forEach, reduce, search) of the adapters
+ * @safe.summary This classes tests spliterator(), forEach(long, HConsumer), reduce(long, HReducer) and search(long, HPredicate) on lists, sublists, sets and map views of every storage mode, with thresholds which make them run both sequentially and in parallel
+ */
+public class TestParallelBulkOps {
+
+    private static final int N = 20000;
+
+    /**
+     * Expected sum of the integers from 0 to N - 1.
+     */
+    private static final long SUM = (long) N * (N - 1) / 2;
+
+    private static final HReducer PLUS = new HReducer() {
+        public Object apply(Object a, Object b) {
+            return Integer.valueOf(((Integer) a).intValue() + ((Integer) b).intValue());
+        }
+    };
+
+    /**
+     * Checks forEach, reduce and search on a collection holding the integers from 0 to N - 1, with the specified threshold.
+     */
+    private static void check(HCollection c, long threshold) {
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        c.forEach(threshold, new HConsumer() {
+            public void accept(Object o) {
+                sum.addAndGet(((Integer) o).intValue());
+                count.incrementAndGet();
+            }
+        });
+        assertEquals(N, count.get());
+        assertEquals(SUM, sum.get());
+        assertEquals(Integer.valueOf((int) SUM), c.reduce(threshold, PLUS));
+        assertEquals(Integer.valueOf(N - 7), c.search(threshold, new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() == N - 7;
+            }
+        }));
+        assertNull(c.search(threshold, new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() < 0;
+            }
+        }));
+    }
+
+    private static void checkAll(HCollection c) {
+        check(c, Long.MAX_VALUE);
+        check(c, 1000);
+        check(c, 1);
+    }
+
+    private static void fill(HCollection c) {
+        for(int i = 0; i < N; i++) {
+            c.add(Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Test the bulk operations on lists
+     * @safe.precondition lists with VECTOR_STORAGE and ARRAY_STORAGE holding 0 to N - 1
+     * @safe.postcondition lists unchanged
+     * @safe.testcases Runs forEach, reduce and search sequentially and in parallel and checks the count, the sum and the elements found.
+     */
+    @Test
+    public void testList() {
+        HList l = new ListAdapter();
+        fill(l);
+        checkAll(l);
+        l = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+        fill(l);
+        checkAll(l);
+        assertEquals(N, l.size());
+    }
+
+    /**
+     * Test the bulk operations on a sublist
+     * @safe.precondition list holding -5 to -1, 0 to N - 1 and -1 to -5
+     * @safe.postcondition list unchanged
+     * @safe.testcases Runs the operations on the sublist holding 0 to N - 1, so the elements outside it (negative) must not be visited.
+     */
+    @Test
+    public void testSubList() {
+        HList l = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+        for(int i = 5; i > 0; i--) {
+            l.add(Integer.valueOf(-i));
+        }
+        fill(l);
+        for(int i = 1; i <= 5; i++) {
+            l.add(Integer.valueOf(-i));
+        }
+        checkAll(l.subList(5, N + 5));
+    }
+
+    /**
+     * Test the bulk operations on a primitive list
+     * @safe.precondition IntListAdapter holding 0 to N - 1
+     * @safe.postcondition list unchanged
+     * @safe.testcases Runs the operations with the default spliterator of HList, which splits the indexes.
+     */
+    @Test
+    public void testIntList() {
+        IntListAdapter l = new IntListAdapter();
+        for(int i = 0; i < N; i++) {
+            l.addInt(i);
+        }
+        checkAll(l);
+    }
+
+    /**
+     * Test the bulk operations on sets
+     * @safe.precondition sets with HASHTABLE and OPEN_ADDRESSING storage holding 0 to N - 1
+     * @safe.postcondition sets unchanged
+     * @safe.testcases Runs the operations sequentially and in parallel on both storages.
+     */
+    @Test
+    public void testSet() {
+        HSet s = new SetAdapter();
+        fill(s);
+        checkAll(s);
+        s = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+        fill(s);
+        checkAll(s);
+    }
+
+    /**
+     * Test the bulk operations on the views of maps
+     * @safe.precondition maps of every storage mode mapping i to i for 0 to N - 1
+     * @safe.postcondition values changed through the entries of the entrySet
+     * @safe.testcases Runs the operations on the keySet and the values, then negates every value through the entries returned by entrySet().forEach and checks that the map was updated.
+     */
+    @Test
+    public void testMapViews() {
+        MapAdapter[] maps = {new MapAdapter(), new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE), new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE, true)};
+        for(int j = 0; j < maps.length; j++) {
+            MapAdapter m = maps[j];
+            for(int i = 0; i < N; i++) {
+                m.put(Integer.valueOf(i), Integer.valueOf(i));
+            }
+            checkAll(m.keySet());
+            checkAll(m.values());
+            final AtomicLong count = new AtomicLong();
+            m.entrySet().forEach(1000, new HConsumer() {
+                public void accept(Object o) {
+                    HMap.HEntry e = (HMap.HEntry) o;
+                    e.setValue(Integer.valueOf(-((Integer) e.getKey()).intValue()));
+                    count.incrementAndGet();
+                }
+            });
+            assertEquals(N, count.get());
+            for(int i = 0; i < N; i++) {
+                assertEquals(Integer.valueOf(-i), m.get(Integer.valueOf(i)));
+            }
+        }
+    }
+
+    /**
+     * Test the bulk operations on a collection without its own spliterator
+     * @safe.precondition ConcurrentMapAdapter mapping i to i for 0 to N - 1
+     * @safe.postcondition map unchanged
+     * @safe.testcases Runs the operations on the keySet, which uses the default spliterator of HCollection (batches copied from the iterator).
+     */
+    @Test
+    public void testIteratorSpliterator() {
+        ConcurrentMapAdapter m = new ConcurrentMapAdapter();
+        for(int i = 0; i < N; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        checkAll(m.keySet());
+    }
+
+    /**
+     * Test splitting and traversing a spliterator by hand
+     * @safe.precondition list holding 0 to 9
+     * @safe.postcondition list unchanged
+     * @safe.testcases Splits the spliterator of the list in two, checks the estimated sizes, and checks that the prefix covers 0 to 4 and the rest 5 to 9, with tryAdvance and forEachRemaining; then checks the empty spliterator and the null arguments.
+     */
+    @Test
+    public void testSplit() {
+        HList l = new ListAdapter();
+        for(int i = 0; i < 10; i++) {
+            l.add(Integer.valueOf(i));
+        }
+        HSpliterator s = l.spliterator();
+        assertEquals(10, s.estimateSize());
+        HSpliterator prefix = s.trySplit();
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, s.estimateSize());
+        final ListAdapter seen = new ListAdapter();
+        HConsumer add = new HConsumer() {
+            public void accept(Object o) {
+                seen.add(o);
+            }
+        };
+        assertTrue(prefix.tryAdvance(add));
+        prefix.forEachRemaining(add);
+        assertFalse(prefix.tryAdvance(add));
+        s.forEachRemaining(add);
+        assertEquals(l, seen);
+        assertNull(new ListAdapter().spliterator().trySplit());
+        try {
+            l.forEach(1, null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertTrue(true);
+        }
+        try {
+            l.reduce(1, null);
+            assertTrue(false);
+        }
+        catch(NullPointerException npe) {
+            assertNull(new SetAdapter().reduce(1, PLUS));
+        }
+    }
+
+}
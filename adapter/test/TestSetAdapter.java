@@ -16,7 +16,7 @@ import java.util.NoSuchElementException;
  */
 public class TestSetAdapter {
 
-    private HSet s = null;
+    protected HSet s = null;
 
     /**
      * Setup method, initializes the SetAdapter
@@ -707,4 +707,83 @@ public class TestSetAdapter {
         s.toArray(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test removeIf with a predicate matching the even elements
+     * @safe.precondition Set initialized, the elements 0-99 added to the set
+     * @safe.postcondition The even elements are removed
+     * @safe.testcases Test that removeIf returns true, that the set contains only the odd elements and that a second call returns false.
+     */
+    @Test
+    public void testRemoveIfEven() {
+        for(int i = 0; i < 100; i++) {
+            s.add(Integer.valueOf(i));
+        }
+        HPredicate even = new HPredicate() {
+            public boolean test(Object o) {
+                return ((Integer) o).intValue() % 2 == 0;
+            }
+        };
+        assertTrue(s.removeIf(even));
+        assertEquals(50, s.size());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(i % 2 != 0, s.contains(Integer.valueOf(i)));
+        }
+        assertFalse(s.removeIf(even));
+    }
+
+    /**
+     * Test removeIf with null
+     * @safe.precondition Set initialized
+     * @safe.postcondition NullPointerException thrown
+     * @safe.testcases Test that calling removeIf(null) throws NullPointerException.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testRemoveIfWithNull() {
+        s.removeIf(null);
+    }
+
+    /**
+     * Test that hashCode follows every change of the set
+     * @safe.precondition Set initialized
+     * @safe.postcondition hashCode equal to the sum of the elements' hashcodes after each change
+     * @safe.testcases Adds elements (also duplicates), removes some with remove, removeIf, removeAll and through the iterator, and clears the set, checking hashCode against the sum computed by iterating after each step.
+     */
+    @Test
+    public void testHashCodeAfterChanges() {
+        for(int i = 0; i < 50; i++) {
+            s.add("e" + i);
+            s.add("e" + i);
+        }
+        assertEquals(iteratedHash(), s.hashCode());
+        s.remove("e3");
+        s.remove("missing");
+        assertEquals(iteratedHash(), s.hashCode());
+        s.removeIf(new HPredicate() {
+            public boolean test(Object o) {
+                return o.toString().endsWith("7");
+            }
+        });
+        assertEquals(iteratedHash(), s.hashCode());
+        HIterator it = s.iterator();
+        it.next();
+        it.remove();
+        assertEquals(iteratedHash(), s.hashCode());
+        HSet other = new SetAdapter();
+        other.add("e10");
+        other.add("e11");
+        s.removeAll(other);
+        assertEquals(iteratedHash(), s.hashCode());
+        s.clear();
+        assertEquals(0, s.hashCode());
+    }
+
+    private int iteratedHash() {
+        int sum = 0;
+        HIterator it = s.iterator();
+        while(it.hasNext()) {
+            sum += it.next().hashCode();
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,108 @@
+package adapter.test;
+
+import adapter.*;
+
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for SetAdapter with OPEN_ADDRESSING_STORAGE
+ * @safe.summary This classes runs all the tests of TestSetAdapter on a SetAdapter backed by a key-only open-addressing table, and tests the behaviour specific to the table
+ */
+public class TestSetAdapterOpenAddressing extends TestSetAdapter {
+
+    /**
+     * Setup method, initializes the SetAdapter with OPEN_ADDRESSING_STORAGE
+     */
+
+    @Before
+    @Override
+    public void start() {
+        s = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+    }
+
+    /**
+     * Test constructor with an unknown storage mode
+     * @safe.precondition None
+     * @safe.postcondition IllegalArgumentException thrown
+     * @safe.testcases Creates a SetAdapter with storage mode 2 and checks that IllegalArgumentException is thrown.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithUnknownStorage() {
+        new SetAdapter(2);
+    }
+
+    /**
+     * Test add with duplicates beyond the initial capacity
+     * @safe.precondition set initialized
+     * @safe.postcondition the set contains the integers from 0 to 9999
+     * @safe.testcases Adds 10000 distinct elements twice, checking that only the first add of each element returns true, then checks that every element is contained.
+     */
+    @Test
+    public void testAddReportsNewElements() {
+        for(int i = 0; i < 10000; i++) {
+            assertTrue(s.add(Integer.valueOf(i)));
+        }
+        for(int i = 0; i < 10000; i++) {
+            assertFalse(s.add(Integer.valueOf(i)));
+        }
+        assertEquals(10000, s.size());
+        for(int i = 0; i < 10000; i++) {
+            assertTrue(s.contains(Integer.valueOf(i)));
+        }
+    }
+
+    /**
+     * Test remove followed by add
+     * @safe.precondition set initialized, 1000 elements added
+     * @safe.postcondition the set contains the odd integers from 1 to 999 and the even ones from 1000 to 1998
+     * @safe.testcases Removes the even elements, checks that the odd ones can still be found behind the removed slots, then adds new elements and checks the size.
+     */
+    @Test
+    public void testRemoveThenAdd() {
+        for(int i = 0; i < 1000; i++) {
+            s.add(Integer.valueOf(i));
+        }
+        for(int i = 0; i < 1000; i += 2) {
+            assertTrue(s.remove(Integer.valueOf(i)));
+            assertFalse(s.remove(Integer.valueOf(i)));
+        }
+        for(int i = 1; i < 1000; i += 2) {
+            assertTrue(s.contains(Integer.valueOf(i)));
+            assertFalse(s.add(Integer.valueOf(i)));
+        }
+        for(int i = 1000; i < 2000; i += 2) {
+            assertTrue(s.add(Integer.valueOf(i)));
+        }
+        assertEquals(1000, s.size());
+    }
+
+    /**
+     * Test removal of every element through the iterator
+     * @safe.precondition set initialized, 1000 elements added
+     * @safe.postcondition the set is empty
+     * @safe.testcases Removes every element with the iterator's remove() method and checks that each element was returned exactly once.
+     */
+    @Test
+    public void testIteratorRemoveVisitsEveryElement() {
+        for(int i = 0; i < 1000; i++) {
+            s.add(Integer.valueOf(i));
+        }
+        boolean[] seen = new boolean[1000];
+        HIterator it = s.iterator();
+        while(it.hasNext()) {
+            int k = ((Integer) it.next()).intValue();
+            assertFalse(seen[k]);
+            seen[k] = true;
+            it.remove();
+        }
+        for(int i = 0; i < 1000; i++) {
+            assertTrue(seen[i]);
+        }
+        assertTrue(s.isEmpty());
+    }
+
+}
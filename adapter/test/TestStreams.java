@@ -0,0 +1,188 @@
+package adapter.test;
+
+import adapter.*;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test case class for stream() and parallelStream() of the adapters
+ * @safe.summary This classes tests the streams of lists, sublists, sets and map views, sequential and parallel, and the characteristics and sizes reported by their spliterators
+ */
+public class TestStreams {
+
+    private static final int N = 20000;
+
+    private static final long SUM = (long) N * (N - 1) / 2;
+
+    private static void fill(HCollection c) {
+        for(int i = 0; i < N; i++) {
+            c.add(Integer.valueOf(i));
+        }
+    }
+
+    private static long sum(java.util.stream.Stream s) {
+        return s.mapToLong(o -> ((Integer) o).longValue()).sum();
+    }
+
+    /**
+     * Test the streams of lists
+     * @safe.precondition lists with VECTOR_STORAGE and ARRAY_STORAGE holding 0 to N - 1
+     * @safe.postcondition lists unchanged
+     * @safe.testcases Checks count and sum of the sequential and parallel streams, and that a parallel stream collected to a list keeps the order of the list.
+     */
+    @Test
+    public void testList() {
+        HList[] lists = {new ListAdapter(), new ListAdapter(ListAdapter.ARRAY_STORAGE)};
+        for(int j = 0; j < lists.length; j++) {
+            HList l = lists[j];
+            fill(l);
+            assertEquals(N, l.stream().count());
+            assertEquals(SUM, sum(l.stream()));
+            assertEquals(SUM, sum(l.parallelStream()));
+            List collected = (List) l.parallelStream().collect(Collectors.toList());
+            assertEquals(N, collected.size());
+            for(int i = 0; i < N; i++) {
+                assertEquals(l.get(i), collected.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test the stream of a sublist
+     * @safe.precondition list holding 0 to N - 1
+     * @safe.postcondition list unchanged
+     * @safe.testcases Checks that the parallel stream of the sublist from 100 to 200 returns exactly its elements, in order.
+     */
+    @Test
+    public void testSubList() {
+        HList l = new ListAdapter(ListAdapter.ARRAY_STORAGE);
+        fill(l);
+        HList sub = l.subList(100, 200);
+        assertEquals(100, sub.parallelStream().count());
+        Object[] a = sub.parallelStream().toArray();
+        assertEquals(100, a.length);
+        for(int i = 0; i < a.length; i++) {
+            assertEquals(Integer.valueOf(100 + i), a[i]);
+        }
+    }
+
+    /**
+     * Test the characteristics of the spliterators of the streams
+     * @safe.precondition list and set holding 0 to N - 1
+     * @safe.postcondition collections unchanged
+     * @safe.testcases Checks that the list's spliterator is SIZED, SUBSIZED and ORDERED and splits into halves of exact size, and that the set's spliterator is SIZED (with the exact size), DISTINCT and NONNULL.
+     */
+    @Test
+    public void testCharacteristics() {
+        HList l = new ListAdapter();
+        fill(l);
+        Spliterator s = l.stream().spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(s.hasCharacteristics(Spliterator.SUBSIZED));
+        assertTrue(s.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(N, s.getExactSizeIfKnown());
+        Spliterator prefix = s.trySplit();
+        assertEquals(N / 2, prefix.getExactSizeIfKnown());
+        assertEquals(N / 2, s.getExactSizeIfKnown());
+        HSet set = new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE);
+        fill(set);
+        s = set.stream().spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(s.hasCharacteristics(Spliterator.DISTINCT));
+        assertTrue(s.hasCharacteristics(Spliterator.NONNULL));
+        assertFalse(s.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(N, s.getExactSizeIfKnown());
+    }
+
+    /**
+     * Test the streams of sets
+     * @safe.precondition sets with both storages holding 0 to N - 1
+     * @safe.postcondition sets unchanged
+     * @safe.testcases Checks count and sum of the sequential and parallel streams, and a filter.
+     */
+    @Test
+    public void testSet() {
+        HSet[] sets = {new SetAdapter(), new SetAdapter(SetAdapter.OPEN_ADDRESSING_STORAGE)};
+        for(int j = 0; j < sets.length; j++) {
+            HSet s = sets[j];
+            fill(s);
+            assertEquals(N, s.parallelStream().count());
+            assertEquals(SUM, sum(s.stream()));
+            assertEquals(SUM, sum(s.parallelStream()));
+            assertEquals(N / 2, s.parallelStream().filter(o -> ((Integer) o).intValue() % 2 == 0).count());
+        }
+    }
+
+    /**
+     * Test the streams of the views of maps
+     * @safe.precondition maps of every storage mode mapping i to 2 * i for 0 to N - 1
+     * @safe.postcondition maps unchanged
+     * @safe.testcases Checks the sums over the parallel streams of the keySet, values and entrySet.
+     */
+    @Test
+    public void testMapViews() {
+        MapAdapter[] maps = {new MapAdapter(), new MapAdapter(MapAdapter.OPEN_ADDRESSING_STORAGE)};
+        for(int j = 0; j < maps.length; j++) {
+            MapAdapter m = maps[j];
+            for(int i = 0; i < N; i++) {
+                m.put(Integer.valueOf(i), Integer.valueOf(2 * i));
+            }
+            assertEquals(SUM, sum(m.keySet().parallelStream()));
+            assertEquals(2 * SUM, sum(m.values().parallelStream()));
+            assertEquals(N, m.values().stream().count());
+            long s = m.entrySet().parallelStream().mapToLong(o -> ((Integer) ((HMap.HEntry) o).getValue()).longValue()).sum();
+            assertEquals(2 * SUM, s);
+        }
+    }
+
+    /**
+     * Test the streams of the views of a ConcurrentMapAdapter while another thread writes to the map
+     * @safe.precondition map mapping i to i for 0 to 10 * N - 1, and a thread putting and removing the keys from 10 * N to 20 * N - 1
+     * @safe.postcondition map holding at least the initial mappings
+     * @safe.testcases Checks that the spliterators of the views report CONCURRENT and no size, and that sequential and parallel streams of the keySet, values and entrySet see at least the initial mappings without failing while the map grows and shrinks.
+     */
+    @Test
+    public void testConcurrentMapViews() throws InterruptedException {
+        final ConcurrentMapAdapter m = new ConcurrentMapAdapter();
+        final int n = 10 * N;
+        for(int i = 0; i < n; i++) {
+            m.put(Integer.valueOf(i), Integer.valueOf(i));
+        }
+        Spliterator s = m.keySet().stream().spliterator();
+        assertTrue(s.hasCharacteristics(Spliterator.CONCURRENT));
+        assertFalse(s.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(-1, s.getExactSizeIfKnown());
+        final AtomicBoolean stop = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            while(!stop.get()) {
+                for(int i = n; i < 2 * n; i++) {
+                    m.put(Integer.valueOf(i), Integer.valueOf(i));
+                }
+                for(int i = n; i < 2 * n; i++) {
+                    m.remove(Integer.valueOf(i));
+                }
+            }
+        });
+        writer.start();
+        try {
+            for(int k = 0; k < 10; k++) {
+                assertTrue(m.keySet().stream().toArray().length >= n);
+                assertTrue(m.values().parallelStream().toArray().length >= n);
+                assertTrue(m.entrySet().parallelStream().count() >= n);
+            }
+        }
+        finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+}
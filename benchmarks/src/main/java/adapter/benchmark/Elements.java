@@ -0,0 +1,56 @@
+package adapter.benchmark;
+
+import java.util.Random;
+
+/**
+ * Input data shared by the benchmarks.
+ */
+final class Elements {
+
+    /**
+     * Prime step used to walk the collections, large enough to skip over cache lines on every size.
+     */
+    private static final int STRIDE = 7919;
+
+    private Elements() {
+    }
+
+    /**
+     * Returns the boxed integers from 0 to size-1, in order.
+     * @param size number of elements.
+     * @return the boxed integers from 0 to size-1.
+     */
+    static Integer[] boxed(int size) {
+        Integer[] a = new Integer[size];
+        for(int i = 0; i < size; i++) {
+            a[i] = Integer.valueOf(i);
+        }
+        return a;
+    }
+
+    /**
+     * Returns size lookup keys in a fixed pseudo-random order: even positions hit one of the boxed(size) elements, odd positions miss.
+     * @param size number of probes.
+     * @return the probes.
+     */
+    static Integer[] probes(int size) {
+        Random r = new Random(42);
+        Integer[] a = new Integer[size];
+        for(int i = 0; i < size; i++) {
+            int k = r.nextInt(size);
+            a[i] = Integer.valueOf(i % 2 == 0 ? k : size + k);
+        }
+        return a;
+    }
+
+    /**
+     * Returns the index following current when walking [0, size) with the prime stride.
+     * @param current the current index.
+     * @param size the length of the walked range.
+     * @return the next index.
+     */
+    static int stride(int current, int size) {
+        return (current + STRIDE) % size;
+    }
+
+}
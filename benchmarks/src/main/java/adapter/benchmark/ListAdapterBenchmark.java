@@ -0,0 +1,177 @@
+package adapter.benchmark;
+
+import adapter.HIterator;
+import adapter.HList;
+import adapter.ListAdapter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the ListAdapter operations against java.util.ArrayList. Every adapter benchmark has a jdk counterpart with the same name, so the two can be compared size by size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ListAdapterBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Storage mode of the benchmarked ListAdapter: "vector" for VECTOR_STORAGE, "array" for ARRAY_STORAGE, "gap" for GAP_BUFFER_STORAGE, "rope" for ROPE_STORAGE.
+     */
+    @Param({"vector", "array", "gap", "rope"})
+    public String storage;
+
+    private Integer[] elements;
+    private HList adapter;
+    private List<Integer> jdk;
+    private int next;
+
+    /**
+     * Boxes the elements once and fills both lists with them, so that the measured operations never allocate the elements themselves.
+     */
+    @Setup
+    public void setUp() {
+        elements = Elements.boxed(size);
+        adapter = newAdapter();
+        jdk = new ArrayList<Integer>();
+        for(int i = 0; i < size; i++) {
+            adapter.add(elements[i]);
+            jdk.add(elements[i]);
+        }
+        next = 0;
+    }
+
+    private HList newAdapter() {
+        if("gap".equals(storage)) {
+            return new ListAdapter(ListAdapter.GAP_BUFFER_STORAGE);
+        }
+        if("rope".equals(storage)) {
+            return new ListAdapter(ListAdapter.ROPE_STORAGE);
+        }
+        return new ListAdapter("array".equals(storage) ? ListAdapter.ARRAY_STORAGE : ListAdapter.VECTOR_STORAGE);
+    }
+
+    /**
+     * Builds a list of size elements from scratch using add(Object).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HList adapterAdd() {
+        HList l = newAdapter();
+        for(int i = 0; i < size; i++) {
+            l.add(elements[i]);
+        }
+        return l;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Integer> jdkAdd() {
+        List<Integer> l = new ArrayList<Integer>();
+        for(int i = 0; i < size; i++) {
+            l.add(elements[i]);
+        }
+        return l;
+    }
+
+    /**
+     * Reads one element with get(int), walking the list with a prime stride so that consecutive calls don't hit neighbouring slots.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object adapterGet() {
+        next = Elements.stride(next, size);
+        return adapter.get(next);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object jdkGet() {
+        next = Elements.stride(next, size);
+        return jdk.get(next);
+    }
+
+    /**
+     * Traverses the whole list with its iterator.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void adapterIterator(Blackhole bh) {
+        HIterator it = adapter.iterator();
+        while(it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void jdkIterator(Blackhole bh) {
+        Iterator<Integer> it = jdk.iterator();
+        while(it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    /**
+     * Creates the sublist covering the central half of the list and traverses it with its iterator.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void adapterSubList(Blackhole bh) {
+        HIterator it = adapter.subList(size / 4, size - size / 4).iterator();
+        while(it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void jdkSubList(Blackhole bh) {
+        Iterator<Integer> it = jdk.subList(size / 4, size - size / 4).iterator();
+        while(it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    /**
+     * Removes the element in the middle of the list with remove(int) and inserts it back, so that the size stays the same across invocations. Both operations shift the tail of the list.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object adapterRemove() {
+        int index = size / 2;
+        Object o = adapter.remove(index);
+        adapter.add(index, o);
+        return o;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object jdkRemove() {
+        int index = size / 2;
+        Integer o = jdk.remove(index);
+        jdk.add(index, o);
+        return o;
+    }
+
+}
@@ -0,0 +1,155 @@
+package adapter.benchmark;
+
+import adapter.HIterator;
+import adapter.HMap;
+import adapter.MapAdapter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the MapAdapter operations against java.util.HashMap. Every adapter benchmark has a jdk counterpart with the same name, so the two can be compared size by size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapAdapterBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Storage mode of the benchmarked MapAdapter: "hashtable" for HASHTABLE_STORAGE, "open" for OPEN_ADDRESSING_STORAGE.
+     */
+    @Param({"hashtable", "open"})
+    public String storage;
+
+    private Integer[] keys;
+    private Integer[] probes;
+    private MapAdapter adapter;
+    private Map<Integer, Integer> jdk;
+    private int next;
+
+    /**
+     * Boxes the keys once and fills both maps, mapping every key to itself. The probes are half hits and half misses, in shuffled order.
+     */
+    @Setup
+    public void setUp() {
+        keys = Elements.boxed(size);
+        probes = Elements.probes(size);
+        adapter = newAdapter();
+        jdk = new HashMap<Integer, Integer>();
+        for(int i = 0; i < size; i++) {
+            adapter.put(keys[i], keys[i]);
+            jdk.put(keys[i], keys[i]);
+        }
+        next = 0;
+    }
+
+    private MapAdapter newAdapter() {
+        return new MapAdapter("open".equals(storage) ? MapAdapter.OPEN_ADDRESSING_STORAGE : MapAdapter.HASHTABLE_STORAGE);
+    }
+
+    /**
+     * Builds a map of size mappings from scratch using put(Object, Object), then puts every key a second time so that the replace path is measured too.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HMap adapterPut() {
+        HMap m = newAdapter();
+        for(int i = 0; i < size; i++) {
+            m.put(keys[i], keys[i]);
+        }
+        for(int i = 0; i < size; i++) {
+            m.put(keys[i], keys[i]);
+        }
+        return m;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Integer, Integer> jdkPut() {
+        Map<Integer, Integer> m = new HashMap<Integer, Integer>();
+        for(int i = 0; i < size; i++) {
+            m.put(keys[i], keys[i]);
+        }
+        for(int i = 0; i < size; i++) {
+            m.put(keys[i], keys[i]);
+        }
+        return m;
+    }
+
+    /**
+     * Looks up one probe with get(Object).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object adapterGet() {
+        next = Elements.stride(next, probes.length);
+        return adapter.get(probes[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object jdkGet() {
+        next = Elements.stride(next, probes.length);
+        return jdk.get(probes[next]);
+    }
+
+    /**
+     * Traverses the whole entrySet, reading both the key and the value of every entry.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void adapterEntrySet(Blackhole bh) {
+        HIterator it = adapter.entrySet().iterator();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            bh.consume(e.getKey());
+            bh.consume(e.getValue());
+        }
+    }
+
+    /**
+     * Same traversal as adapterEntrySet through entryCursor(), which reuses one entry for the whole scan.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void adapterEntryCursor(Blackhole bh) {
+        HIterator it = adapter.entryCursor();
+        while(it.hasNext()) {
+            HMap.HEntry e = (HMap.HEntry) it.next();
+            bh.consume(e.getKey());
+            bh.consume(e.getValue());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void jdkEntrySet(Blackhole bh) {
+        Iterator<Map.Entry<Integer, Integer>> it = jdk.entrySet().iterator();
+        while(it.hasNext()) {
+            Map.Entry<Integer, Integer> e = it.next();
+            bh.consume(e.getKey());
+            bh.consume(e.getValue());
+        }
+    }
+
+}
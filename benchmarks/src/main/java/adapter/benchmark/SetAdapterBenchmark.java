@@ -0,0 +1,113 @@
+package adapter.benchmark;
+
+import adapter.HSet;
+import adapter.SetAdapter;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the SetAdapter operations against java.util.HashSet. Every adapter benchmark has a jdk counterpart with the same name, so the two can be compared size by size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SetAdapterBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Storage mode of the benchmarked SetAdapter: "hashtable" for HASHTABLE_STORAGE, "open" for OPEN_ADDRESSING_STORAGE.
+     */
+    @Param({"hashtable", "open"})
+    public String storage;
+
+    private Integer[] elements;
+    private Integer[] probes;
+    private HSet adapter;
+    private Set<Integer> jdk;
+    private int next;
+
+    /**
+     * Boxes the elements once and fills both sets with them. The probes are half hits and half misses, in shuffled order.
+     */
+    @Setup
+    public void setUp() {
+        elements = Elements.boxed(size);
+        probes = Elements.probes(size);
+        adapter = newAdapter();
+        jdk = new HashSet<Integer>();
+        for(int i = 0; i < size; i++) {
+            adapter.add(elements[i]);
+            jdk.add(elements[i]);
+        }
+        next = 0;
+    }
+
+    private HSet newAdapter() {
+        return new SetAdapter("open".equals(storage) ? SetAdapter.OPEN_ADDRESSING_STORAGE : SetAdapter.HASHTABLE_STORAGE);
+    }
+
+    /**
+     * Builds a set of size distinct elements from scratch using add(Object), then adds them all a second time so that the duplicate path is measured too.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public HSet adapterAdd() {
+        HSet s = newAdapter();
+        for(int i = 0; i < size; i++) {
+            s.add(elements[i]);
+        }
+        for(int i = 0; i < size; i++) {
+            s.add(elements[i]);
+        }
+        return s;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Integer> jdkAdd() {
+        Set<Integer> s = new HashSet<Integer>();
+        for(int i = 0; i < size; i++) {
+            s.add(elements[i]);
+        }
+        for(int i = 0; i < size; i++) {
+            s.add(elements[i]);
+        }
+        return s;
+    }
+
+    /**
+     * Looks up one probe with contains(Object).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean adapterContains() {
+        next = Elements.stride(next, probes.length);
+        return adapter.contains(probes[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean jdkContains() {
+        next = Elements.stride(next, probes.length);
+        return jdk.contains(probes[next]);
+    }
+
+}